@@ -0,0 +1,65 @@
+package com.bookgoblin.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Broadcasts L1 invalidations as {@code nodeId|cacheName|key} messages and parses them on receipt;
+ * a {@code *} key clears the cache.
+ */
+@Slf4j
+public class CacheInvalidationPublisher {
+
+    static final String CLEAR_ALL = "*";
+
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final String nodeId;
+
+    public CacheInvalidationPublisher(StringRedisTemplate redisTemplate, String channel, String nodeId) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.nodeId = nodeId;
+    }
+
+    public void publishEvict(String cacheName, String key) {
+        publish(cacheName, key);
+    }
+
+    public void publishClear(String cacheName) {
+        publish(cacheName, CLEAR_ALL);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Parses a broadcast message; returns null when it is malformed or was sent by this node.
+     */
+    public Invalidation receive(byte[] body) {
+        String[] parts = new String(body, StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length != 3 || parts[0].equals(nodeId)) {
+            return null;
+        }
+        return new Invalidation(parts[1], parts[2]);
+    }
+
+    private void publish(String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(channel, nodeId + "|" + cacheName + "|" + key);
+        } catch (Exception e) {
+            // Other nodes fall back to the L1 TTL; a failed broadcast must not fail the write
+            log.warn("Failed to publish cache invalidation for {}:{}: {}", cacheName, key, e.getMessage());
+        }
+    }
+
+    public record Invalidation(String cacheName, String key) {
+
+        public boolean isClear() {
+            return CLEAR_ALL.equals(key);
+        }
+    }
+}
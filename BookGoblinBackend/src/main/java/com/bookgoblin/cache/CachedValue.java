@@ -0,0 +1,19 @@
+package com.bookgoblin.cache;
+
+import java.io.Serializable;
+
+/**
+ * Envelope stored by {@link LookupCache}. A null value is a negative entry ("upstream has nothing").
+ * The entry is fresh until {@code freshUntil} (epoch millis); after that it may still be served
+ * while a refresh runs, until the cache's own TTL removes it.
+ */
+public record CachedValue<T>(T value, long storedAt, long freshUntil) implements Serializable {
+
+    public boolean isNegative() {
+        return value == null;
+    }
+
+    public boolean isFresh(long now) {
+        return now < freshUntil;
+    }
+}
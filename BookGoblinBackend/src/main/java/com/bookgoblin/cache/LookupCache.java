@@ -0,0 +1,160 @@
+package com.bookgoblin.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read-through cache for upstream lookups that stores {@link CachedValue} envelopes, adding what
+ * {@code @Cacheable} cannot: negative entries with their own short TTL, serving a stale hit while it
+ * is refreshed in the background, and serving a stale hit when the refresh fails. A loader returns
+ * null for "not found" and throws for "could not ask".
+ */
+@Component
+@Slf4j
+public class LookupCache {
+
+    private final CacheManager cacheManager;
+    private final TieredCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor refreshExecutor;
+
+    public LookupCache(CacheManager cacheManager,
+                       ObjectProvider<TieredCacheProperties> properties,
+                       MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.properties = properties.getIfAvailable(TieredCacheProperties::new);
+        this.meterRegistry = meterRegistry;
+        // Not a bean on purpose: exposing an Executor bean would replace Boot's default @Async executor
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.refreshExecutor = new ThreadPoolExecutor(2, 2, 60L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(256),
+                r -> {
+                    Thread thread = new Thread(r, "cache-refresh-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Returns the cached value, loading it on a miss. Null means not found, or that upstream failed
+     * with nothing cached to fall back on.
+     */
+    public <T> T get(String cacheName, Object key, Callable<T> loader) {
+        Cache cache = cacheManager.getCache(cacheName);
+        CachedValue<T> cached = peek(cacheName, key);
+        long now = System.currentTimeMillis();
+
+        if (cached != null && cached.isFresh(now)) {
+            count(cacheName, cached.isNegative() ? "negative" : "hit");
+            return cached.value();
+        }
+        if (cached != null && !cached.isNegative()) {
+            count(cacheName, "stale");
+            refreshInBackground(cacheName, cache, key, loader);
+            return cached.value();
+        }
+
+        count(cacheName, "miss");
+        try {
+            T value = loader.call();
+            store(cacheName, cache, key, value);
+            return value;
+        } catch (Exception e) {
+            log.warn("Lookup for {} {} failed: {}", cacheName, key, e.getMessage());
+            // An expired negative entry is still the best answer we have
+            count(cacheName, "error");
+            return null;
+        }
+    }
+
+    /**
+     * Returns the stored envelope without loading or counting, for callers that batch their own misses.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CachedValue<T> peek(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return null;
+        }
+        try {
+            Cache.ValueWrapper wrapper = cache.get(key);
+            return wrapper != null && wrapper.get() instanceof CachedValue<?> value ? (CachedValue<T>) value : null;
+        } catch (Exception e) {
+            // A cache outage is a miss, as for the annotation-driven caches
+            log.debug("Cache {} read failed for {}: {}", cacheName, key, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Stores a value, or a negative entry when {@code value} is null.
+     */
+    public void put(String cacheName, Object key, Object value) {
+        store(cacheName, cacheManager.getCache(cacheName), key, value);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private <T> void refreshInBackground(String cacheName, Cache cache, Object key, Callable<T> loader) {
+        String refreshKey = cacheName + "|" + key;
+        if (!refreshing.add(refreshKey)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    store(cacheName, cache, key, loader.call());
+                    refreshed(cacheName, "success");
+                } catch (Exception e) {
+                    // Keep serving the stale entry until the tier TTL drops it
+                    refreshed(cacheName, "failure");
+                    log.debug("Background refresh of {} {} failed: {}", cacheName, key, e.getMessage());
+                } finally {
+                    refreshing.remove(refreshKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(refreshKey);
+            refreshed(cacheName, "rejected");
+        }
+    }
+
+    private void store(String cacheName, Cache cache, Object key, Object value) {
+        if (cache == null) {
+            return;
+        }
+        TieredCacheProperties.Freshness freshness = properties.freshnessFor(cacheName);
+        long now = System.currentTimeMillis();
+        long ttl = (value != null ? freshness.getSoftTtl() : freshness.getNegativeTtl()).toMillis();
+        try {
+            cache.put(key, new CachedValue<>(value, now, now + ttl));
+        } catch (Exception e) {
+            log.debug("Cache {} write failed for {}: {}", cacheName, key, e.getMessage());
+        }
+    }
+
+    private void count(String cacheName, String result) {
+        meterRegistry.counter("cache.lookup", "cache", cacheName, "result", result).increment();
+    }
+
+    private void refreshed(String cacheName, String result) {
+        meterRegistry.counter("cache.lookup.refresh", "cache", cacheName, "result", result).increment();
+    }
+}
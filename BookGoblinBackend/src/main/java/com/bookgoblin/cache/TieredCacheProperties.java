@@ -0,0 +1,50 @@
+package com.bookgoblin.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "cache.tiered")
+public class TieredCacheProperties {
+
+    // Redis pub/sub channel used to evict L1 entries on the other nodes
+    private String invalidationChannel = "cache-invalidation";
+
+    private LocalTier l1Defaults = new LocalTier();
+
+    private Map<String, LocalTier> l1 = new HashMap<>();
+
+    // Per-cache Redis TTL, overriding spring.cache.redis.time-to-live
+    private Map<String, Duration> l2TimeToLive = new HashMap<>();
+
+    // Soft expiry for caches read through LookupCache; the hard expiry is the tier TTLs above
+    private Freshness freshnessDefaults = new Freshness();
+
+    private Map<String, Freshness> freshness = new HashMap<>();
+
+    public LocalTier l1For(String cacheName) {
+        return l1.getOrDefault(cacheName, l1Defaults);
+    }
+
+    public Freshness freshnessFor(String cacheName) {
+        return freshness.getOrDefault(cacheName, freshnessDefaults);
+    }
+
+    @Data
+    public static class LocalTier {
+        private long maxSize = 1000;
+        private Duration timeToLive = Duration.ofMinutes(1);
+    }
+
+    @Data
+    public static class Freshness {
+        // Age after which a hit is still served but refreshed in the background
+        private Duration softTtl = Duration.ofMinutes(5);
+        // How long "not found" is remembered before upstream is asked again
+        private Duration negativeTtl = Duration.ofMinutes(1);
+    }
+}
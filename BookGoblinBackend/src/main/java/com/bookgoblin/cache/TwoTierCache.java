@@ -0,0 +1,196 @@
+package com.bookgoblin.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.Callable;
+
+/**
+ * Caffeine L1 in front of a Redis L2. Reads fall through L1 to L2 and backfill L1; writes and evictions
+ * go to both tiers and are broadcast so other nodes drop their L1 copy.
+ * <p>
+ * Cached values are mutable DTOs, so L1 keeps them serialized just as Redis does and every hit gets its
+ * own copy; a caller changing what it got back never changes what the next caller sees.
+ */
+public class TwoTierCache implements Cache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, byte[]> local;
+    private final Cache remote;
+    private final RedisSerializationContext.SerializationPair<Object> serializer;
+    private final CacheInvalidationPublisher publisher;
+
+    private final Counter l1Hits;
+    private final Counter l1Misses;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+    private final Timer l1Latency;
+    private final Timer l2Latency;
+
+    public TwoTierCache(String name,
+                        com.github.benmanes.caffeine.cache.Cache<String, byte[]> local,
+                        Cache remote,
+                        RedisSerializationContext.SerializationPair<Object> serializer,
+                        CacheInvalidationPublisher publisher,
+                        MeterRegistry meterRegistry) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.serializer = serializer;
+        this.publisher = publisher;
+
+        this.l1Hits = requests(meterRegistry, "l1", "hit");
+        this.l1Misses = requests(meterRegistry, "l1", "miss");
+        this.l2Hits = requests(meterRegistry, "l2", "hit");
+        this.l2Misses = requests(meterRegistry, "l2", "miss");
+        this.l1Latency = latency(meterRegistry, "l1");
+        this.l2Latency = latency(meterRegistry, "l2");
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+
+        Object value = l1Latency.record(() -> {
+            byte[] stored = local.getIfPresent(localKey);
+            return stored != null ? serializer.read(ByteBuffer.wrap(stored)) : null;
+        });
+        if (value != null) {
+            l1Hits.increment();
+            return new SimpleValueWrapper(value);
+        }
+        l1Misses.increment();
+
+        ValueWrapper wrapper = l2Latency.record(() -> remote.get(key));
+        if (wrapper != null && wrapper.get() != null) {
+            l2Hits.increment();
+            putLocal(localKey, wrapper.get());
+            return wrapper;
+        }
+        l2Misses.increment();
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper == null) {
+            return null;
+        }
+        Object value = wrapper.get();
+        if (type != null && value != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+            return;
+        }
+        // Fill L1 first so this node still benefits when the Redis write fails
+        putLocal(localKey(key), value);
+        remote.put(key, value);
+        publisher.publishEvict(name, localKey(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        if (existing != null && existing.get() != null) {
+            putLocal(localKey(key), existing.get());
+            return existing;
+        }
+        if (value != null) {
+            putLocal(localKey(key), value);
+            publisher.publishEvict(name, localKey(key));
+        }
+        return null;
+    }
+
+    @Override
+    public void evict(Object key) {
+        // Drop the local copy first so this node never keeps serving it if Redis is unreachable
+        local.invalidate(localKey(key));
+        remote.evict(key);
+        publisher.publishEvict(name, localKey(key));
+    }
+
+    @Override
+    public void clear() {
+        local.invalidateAll();
+        remote.clear();
+        publisher.publishClear(name);
+    }
+
+    private void putLocal(String localKey, Object value) {
+        ByteBuffer buffer = serializer.write(value);
+        byte[] stored = new byte[buffer.remaining()];
+        buffer.get(stored);
+        local.put(localKey, stored);
+    }
+
+    void evictLocal(String localKey) {
+        local.invalidate(localKey);
+    }
+
+    void clearLocal() {
+        local.invalidateAll();
+    }
+
+    // Redis flattens keys to strings, so L1 does the same to stay consistent with L2
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    private Counter requests(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("cache.tier.requests")
+                .tag("cache", name)
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Timer latency(MeterRegistry meterRegistry, String tier) {
+        return Timer.builder("cache.tier.latency")
+                .tag("cache", name)
+                .tag("tier", tier)
+                .register(meterRegistry);
+    }
+}
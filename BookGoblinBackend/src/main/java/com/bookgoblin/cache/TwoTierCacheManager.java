@@ -0,0 +1,77 @@
+package com.bookgoblin.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+@Slf4j
+public class TwoTierCacheManager implements CacheManager, MessageListener {
+
+    private final CacheManager remoteCacheManager;
+    private final RedisSerializationContext.SerializationPair<Object> serializer;
+    private final TieredCacheProperties properties;
+    private final CacheInvalidationPublisher publisher;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(CacheManager remoteCacheManager,
+                               RedisSerializationContext.SerializationPair<Object> serializer,
+                               TieredCacheProperties properties,
+                               CacheInvalidationPublisher publisher,
+                               MeterRegistry meterRegistry) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.serializer = serializer;
+        this.properties = properties;
+        this.publisher = publisher;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidationPublisher.Invalidation invalidation = publisher.receive(message.getBody());
+        if (invalidation == null) {
+            return;
+        }
+
+        TwoTierCache cache = caches.get(invalidation.cacheName());
+        if (cache == null) {
+            return;
+        }
+        if (invalidation.isClear()) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(invalidation.key());
+        }
+    }
+
+    private TwoTierCache createCache(String name) {
+        TieredCacheProperties.LocalTier tier = properties.l1For(name);
+        com.github.benmanes.caffeine.cache.Cache<String, byte[]> local = Caffeine.newBuilder()
+                .maximumSize(tier.getMaxSize())
+                .expireAfterWrite(tier.getTimeToLive())
+                .build();
+        log.debug("Creating two-tier cache {} (L1 max {} entries, ttl {})", name, tier.getMaxSize(), tier.getTimeToLive());
+        return new TwoTierCache(name, local, remoteCacheManager.getCache(name), serializer, publisher,
+                meterRegistry);
+    }
+}
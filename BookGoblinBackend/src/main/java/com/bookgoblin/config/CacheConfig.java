@@ -0,0 +1,109 @@
+package com.bookgoblin.config;
+
+import com.bookgoblin.cache.CacheInvalidationPublisher;
+import com.bookgoblin.cache.TieredCacheProperties;
+import com.bookgoblin.cache.TwoTierCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationListener;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.cache.interceptor.LoggingCacheErrorHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Replaces Boot's Redis cache manager with a Caffeine-fronted one. Redis stays the shared L2 and
+ * keeps honouring spring.cache.redis.*; the L1 tier is configured under cache.tiered.
+ */
+@Configuration
+@Slf4j
+@ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis", matchIfMissing = true)
+@EnableConfigurationProperties({CacheProperties.class, TieredCacheProperties.class})
+public class CacheConfig implements CachingConfigurer {
+
+    // A Redis outage should degrade to cache misses rather than fail the request
+    @Override
+    public CacheErrorHandler errorHandler() {
+        return new LoggingCacheErrorHandler();
+    }
+
+    @Bean
+    public CacheInvalidationPublisher cacheInvalidationPublisher(StringRedisTemplate stringRedisTemplate,
+                                                                 TieredCacheProperties properties) {
+        return new CacheInvalidationPublisher(stringRedisTemplate, properties.getInvalidationChannel(),
+                UUID.randomUUID().toString());
+    }
+
+    @Bean
+    @Primary
+    public TwoTierCacheManager cacheManager(RedisConnectionFactory redisConnectionFactory,
+                                            CacheProperties cacheProperties,
+                                            TieredCacheProperties properties,
+                                            CacheInvalidationPublisher cacheInvalidationPublisher,
+                                            MeterRegistry meterRegistry) {
+        CacheProperties.Redis redis = cacheProperties.getRedis();
+        RedisCacheConfiguration defaults = RedisCacheConfiguration.defaultCacheConfig().disableCachingNullValues();
+        if (redis.getTimeToLive() != null) {
+            defaults = defaults.entryTtl(redis.getTimeToLive());
+        }
+        if (redis.getKeyPrefix() != null) {
+            defaults = defaults.prefixCacheNameWith(redis.getKeyPrefix());
+        }
+        if (!redis.isUseKeyPrefix()) {
+            defaults = defaults.disableKeyPrefix();
+        }
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(redisConnectionFactory)
+                .cacheDefaults(defaults);
+        for (Map.Entry<String, Duration> ttl : properties.getL2TimeToLive().entrySet()) {
+            builder.withCacheConfiguration(ttl.getKey(), defaults.entryTtl(ttl.getValue()));
+        }
+        RedisCacheManager redisCacheManager = builder.build();
+        redisCacheManager.afterPropertiesSet();
+        // L1 copies values with the L2 serializer, so a hit in either tier hands out a private copy
+        return new TwoTierCacheManager(redisCacheManager, defaults.getValueSerializationPair(), properties,
+                cacheInvalidationPublisher, meterRegistry);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListener(RedisConnectionFactory redisConnectionFactory,
+                                                                   TwoTierCacheManager cacheManager,
+                                                                   TieredCacheProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer() {
+            @Override
+            public boolean isAutoStartup() {
+                return false;
+            }
+        };
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(properties.getInvalidationChannel()));
+        return container;
+    }
+
+    // Subscribing eagerly would make Redis a hard startup dependency; without it L1 staleness is bounded by its TTL
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> cacheInvalidationStarter(RedisMessageListenerContainer cacheInvalidationListener) {
+        return event -> {
+            try {
+                cacheInvalidationListener.start();
+            } catch (Exception e) {
+                log.warn("Cache invalidation subscription failed, L1 entries will expire by TTL only: {}", e.getMessage());
+            }
+        };
+    }
+}
@@ -1,13 +1,19 @@
 package com.bookgoblin.config;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
-import java.time.Duration;
-
 @Configuration
 public class OpenLibraryConfig {
 
@@ -17,16 +23,43 @@ public class OpenLibraryConfig {
     @Value("${openlibrary.api.timeout.read:10000}")
     private int readTimeout;
 
-    @Bean
-    public RestTemplate openLibraryRestTemplate() {
-        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory();
-        factory.setConnectTimeout(connectTimeout);
-        factory.setConnectionRequestTimeout(connectTimeout);
-        factory.setReadTimeout(readTimeout);
+    @Value("${openlibrary.api.pool.max-total:50}")
+    private int maxTotalConnections;
+
+    @Value("${openlibrary.api.pool.max-per-route:50}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${openlibrary.api.pool.idle-eviction-ms:30000}")
+    private long idleEviction;
 
-        RestTemplate restTemplate = new RestTemplate(factory);
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager openLibraryConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotalConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeout))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient openLibraryHttpClient(PoolingHttpClientConnectionManager openLibraryConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(openLibraryConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        // Waiting for a pooled connection counts against the connect budget
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectTimeout))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEviction))
+                .build();
+    }
 
-        // Add custom error handler if needed
-        return restTemplate;
+    @Bean
+    public RestTemplate openLibraryRestTemplate(CloseableHttpClient openLibraryHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(openLibraryHttpClient));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,63 @@
+package com.bookgoblin.config;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ConcurrentTaskScheduler;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Opt-in mode that runs request handling, async work and scheduled jobs on virtual threads, so time
+ * spent blocked on MySQL, Redis or OpenLibrary no longer holds a platform worker. Uses the property
+ * Boot 3.2 introduced for the same switch; Boot 3.1 does not act on it, so the wiring is done here.
+ * Database concurrency stays bounded by the Hikari pool and upstream calls by the OpenLibrary bulkheads.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadConfig {
+
+    @Value("${spring.task.scheduling.pool.size:4}")
+    private int schedulerPoolSize;
+
+    private ScheduledExecutorService scheduledExecutor;
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        log.info("Serving requests on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    // Registered under Boot's default names so @Async and MVC async (the streaming import) resolve it as before
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    // A few virtual scheduler threads, so one job stuck on a slow upstream call does not hold up the others
+    @Bean
+    public TaskScheduler taskScheduler() {
+        scheduledExecutor = Executors.newScheduledThreadPool(Math.max(1, schedulerPoolSize),
+                Thread.ofVirtual().name("scheduling-", 1).factory());
+        return new ConcurrentTaskScheduler(scheduledExecutor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduledExecutor != null) {
+            scheduledExecutor.shutdownNow();
+        }
+    }
+}
@@ -2,8 +2,12 @@ package com.bookgoblin.controller;
 
 import com.bookgoblin.model.dto.response.AdminStatsResponse;
 import com.bookgoblin.model.dto.response.ApiResponse;
+import com.bookgoblin.model.dto.response.ActivityTimeseriesPoint;
 import com.bookgoblin.model.entity.User;
+import com.bookgoblin.model.enums.ActivityType;
 import com.bookgoblin.model.enums.Role;
+import com.bookgoblin.model.enums.RollupGranularity;
+import com.bookgoblin.service.ActivityRollupService;
 import com.bookgoblin.service.AdminService;
 import com.bookgoblin.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,10 +18,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/admin")
 @RequiredArgsConstructor
@@ -27,6 +35,7 @@ public class AdminController {
 
     private final AdminService adminService;
     private final UserService userService;
+    private final ActivityRollupService activityRollupService;
 
     @GetMapping("/stats")
     @Operation(summary = "Get admin dashboard statistics")
@@ -105,4 +114,23 @@ public class AdminController {
         return ResponseEntity.ok(ApiResponse.success("Activity logs retrieved", logs));
 
     }
-}
\ No newline at end of file
+
+    @GetMapping("/activity/timeseries")
+    @Operation(summary = "Get activity counts per hour or day bucket")
+    public ResponseEntity<ApiResponse> getActivityTimeseries(
+            @AuthenticationPrincipal User admin,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(defaultValue = "DAY") RollupGranularity bucket,
+            @RequestParam(required = false) ActivityType type,
+            @RequestParam(required = false) Long userId) {
+
+        adminService.checkAdmin(admin);
+
+        LocalDateTime to = end != null ? end : LocalDateTime.now();
+        LocalDateTime from = start != null ? start : to.minusDays(bucket == RollupGranularity.HOUR ? 1 : 30);
+        List<ActivityTimeseriesPoint> series = activityRollupService.getTimeseries(from, to, bucket, type, userId);
+
+        return ResponseEntity.ok(ApiResponse.success("Activity timeseries retrieved", series));
+    }
+}
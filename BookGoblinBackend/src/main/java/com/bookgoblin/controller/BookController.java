@@ -2,12 +2,18 @@ package com.bookgoblin.controller;
 
 import com.bookgoblin.model.dto.response.ApiResponse;
 import com.bookgoblin.model.dto.response.BookResponse;
+import com.bookgoblin.service.BookSearchService;
 import com.bookgoblin.service.OpenLibraryService;
+import com.bookgoblin.service.TrendingBooksService;
+import com.bookgoblin.util.Constants;
+import com.bookgoblin.util.Validator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/books")
@@ -15,19 +21,21 @@ import java.util.List;
 public class BookController {
 
     private final OpenLibraryService openLibraryService;
+    private final BookSearchService bookSearchService;
+    private final TrendingBooksService trendingBooksService;
 
     @GetMapping("/search")
     public ResponseEntity<ApiResponse> searchBooks(
             @RequestParam String query,
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int limit) {
-        List<BookResponse> books = openLibraryService.searchBooks(query, page, limit);
+        List<BookResponse> books = bookSearchService.searchBooks(query, page, limit);
         return ResponseEntity.ok(ApiResponse.success("Books retrieved successfully", books));
     }
 
     @GetMapping("/trending")
     public ResponseEntity<ApiResponse> getTrendingBooks() {
-        List<BookResponse> books = openLibraryService.getTrendingBooks();
+        List<BookResponse> books = trendingBooksService.getTrendingBooks();
         return ResponseEntity.ok(ApiResponse.success("Trending books retrieved successfully", books));
     }
 
@@ -40,6 +48,18 @@ public class BookController {
         return ResponseEntity.badRequest().body(ApiResponse.error("Book not found"));
     }
 
+    @GetMapping("/isbn")
+    public ResponseEntity<ApiResponse> getBooksByIsbns(@RequestParam List<String> ids) {
+        // Blanks and repeated spellings of one ISBN do not count against the limit
+        long distinct = ids.stream().map(Validator::normalizeIsbn).filter(Objects::nonNull).distinct().count();
+        if (distinct > Constants.MAX_ISBNS_PER_REQUEST) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(
+                    "At most " + Constants.MAX_ISBNS_PER_REQUEST + " ISBNs per request"));
+        }
+        Map<String, BookResponse> books = openLibraryService.getBooksByIsbns(ids);
+        return ResponseEntity.ok(ApiResponse.success("Books retrieved successfully", books));
+    }
+
     @GetMapping("/isbn/{isbn}")
     public ResponseEntity<ApiResponse> getBookByIsbn(@PathVariable String isbn) {
         BookResponse book = openLibraryService.getBookByISBN(isbn);
@@ -1,18 +1,32 @@
 package com.bookgoblin.controller;
 
 import com.bookgoblin.model.dto.request.BookRequest;
+import com.bookgoblin.model.dto.request.RateBookRequest;
 import com.bookgoblin.model.dto.request.UpdateProgressRequest;
 import com.bookgoblin.model.dto.response.ApiResponse;
 import com.bookgoblin.model.dto.response.BookResponse;
+import com.bookgoblin.model.dto.response.CursorPage;
+import com.bookgoblin.model.dto.response.LibraryBookSummary;
 import com.bookgoblin.model.entity.User;
+import com.bookgoblin.model.enums.BookStatus;
+import com.bookgoblin.model.enums.Genre;
+import com.bookgoblin.model.enums.LibrarySort;
 import com.bookgoblin.service.BookService;
+import com.bookgoblin.service.LibraryImportService;
+import com.bookgoblin.service.LibraryService;
+import com.bookgoblin.util.Constants;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/library")
@@ -20,16 +34,39 @@ import java.util.List;
 public class LibraryController {
 
     private final BookService bookService;
+    private final LibraryService libraryService;
+    private final LibraryImportService libraryImportService;
 
     @GetMapping("/my-books")
     public ResponseEntity<ApiResponse> getMyBooks(
             @AuthenticationPrincipal User user,
             @RequestParam(required = false) String status) {
         List<BookResponse> books = bookService.getUserBooks(user.getId(),
-                status != null ? com.bookgoblin.model.enums.BookStatus.valueOf(status.toUpperCase()) : null);
+                status != null ? BookStatus.valueOf(status.toUpperCase()) : null);
         return ResponseEntity.ok(ApiResponse.success("Books retrieved successfully", books));
     }
 
+    @GetMapping("/my-books/page")
+    public ResponseEntity<ApiResponse> getMyBooksPage(
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) Integer minRating,
+            @RequestParam(defaultValue = "added") String sort,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = Constants.DEFAULT_PAGE_SIZE) int limit) {
+        CursorPage<LibraryBookSummary> page = bookService.getUserBooksPage(user.getId(),
+                status != null ? BookStatus.valueOf(status.toUpperCase()) : null,
+                genre != null ? Genre.valueOf(genre.toUpperCase()) : null,
+                minRating,
+                LibrarySort.valueOf(sort.toUpperCase()),
+                "asc".equalsIgnoreCase(direction),
+                cursor,
+                limit);
+        return ResponseEntity.ok(ApiResponse.success("Books retrieved successfully", page));
+    }
+
     @PostMapping("/add")
     public ResponseEntity<ApiResponse> addBookToLibrary(
             @AuthenticationPrincipal User user,
@@ -38,11 +75,41 @@ public class LibraryController {
         return ResponseEntity.ok(ApiResponse.success("Book added to library successfully"));
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StreamingResponseBody> importBooks(
+            @AuthenticationPrincipal User user,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) LibraryImportService.ImportFormat format) throws IOException {
+        List<LibraryImportService.ImportRow> rows = libraryImportService.parse(file, format);
+        Long userId = user.getId();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> libraryImportService.importBooks(userId, rows, out));
+    }
+
     @PutMapping("/progress/{userBookId}")
     public ResponseEntity<ApiResponse> updateReadingProgress(
+            @AuthenticationPrincipal User user,
             @PathVariable Long userBookId,
             @Valid @RequestBody UpdateProgressRequest request) {
-        bookService.updateReadingProgress(userBookId, request);
+        bookService.recordReadingProgress(user.getId(), userBookId, request);
         return ResponseEntity.ok(ApiResponse.success("Reading progress updated successfully"));
     }
-}
\ No newline at end of file
+
+    @PutMapping("/rating/{userBookId}")
+    public ResponseEntity<ApiResponse> rateBook(
+            @AuthenticationPrincipal User user,
+            @PathVariable Long userBookId,
+            @Valid @RequestBody RateBookRequest request) {
+        bookService.rateBook(user.getId(), userBookId, request);
+        return ResponseEntity.ok(ApiResponse.success("Rating updated successfully"));
+    }
+
+    @GetMapping("/trends")
+    public ResponseEntity<ApiResponse> getReadingTrends(
+            @AuthenticationPrincipal User user,
+            @RequestParam(defaultValue = "30") int days) {
+        Map<String, Object> trends = libraryService.getReadingTrends(user.getId(), days);
+        return ResponseEntity.ok(ApiResponse.success("Reading trends retrieved successfully", trends));
+    }
+}
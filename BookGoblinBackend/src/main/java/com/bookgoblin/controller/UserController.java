@@ -42,10 +42,11 @@ public class UserController {
 
     @GetMapping("/search")
     @Operation(summary = "Search users")
-    public ResponseEntity<ApiResponse> searchUsers(@RequestParam String query) {
-        var users = userService.searchUsers(query).stream()
-                .map(userService::toUserResponse)
-                .toList();
+    public ResponseEntity<ApiResponse> searchUsers(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Page<UserResponse> users = userService.searchUsers(query, PageRequest.of(page, Math.min(size, 100)));
         return ResponseEntity.ok(ApiResponse.success("Users found", users));
     }
 
@@ -61,8 +62,7 @@ public class UserController {
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<UserResponse> users = userService.getAllUsers(pageable)
-                .map(userService::toUserResponse);
+        Page<UserResponse> users = userService.getAllUserResponses(pageable);
 
         return ResponseEntity.ok(ApiResponse.success("Users retrieved", users));
     }
@@ -0,0 +1,18 @@
+package com.bookgoblin.event;
+
+import com.bookgoblin.model.enums.ActivityType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A batch of activity logs was written; one entry per row.
+ */
+public record ActivityLoggedEvent(List<Activity> activities) {
+
+    /**
+     * {@code userId} is null for system activity.
+     */
+    public record Activity(Long userId, ActivityType type, LocalDateTime createdAt) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.bookgoblin.event;
+
+/**
+ * Expired activity logs were removed, either by a chunked delete or by dropping whole partitions.
+ */
+public record ActivityPurgedEvent(long deleted) {
+}
@@ -0,0 +1,7 @@
+package com.bookgoblin.event;
+
+/**
+ * A book was added to a user's library; {@code newBook} is set when that also created the catalog row.
+ */
+public record BookAddedEvent(Long userId, Long bookId, boolean newBook) {
+}
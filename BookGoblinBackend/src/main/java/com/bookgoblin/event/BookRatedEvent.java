@@ -0,0 +1,7 @@
+package com.bookgoblin.event;
+
+/**
+ * A user's rating of a book changed. Either side is null when there was no rating before or after.
+ */
+public record BookRatedEvent(Long userId, Long bookId, Integer previousRating, Integer rating) {
+}
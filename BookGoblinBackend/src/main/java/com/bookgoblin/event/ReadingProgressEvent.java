@@ -0,0 +1,21 @@
+package com.bookgoblin.event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reading progress was written, either directly or by a write-behind flush; one entry per user book.
+ */
+public record ReadingProgressEvent(List<Progress> updates) {
+
+    /**
+     * {@code completed} is set when this update moved the book to READ.
+     */
+    public record Progress(Long userId, Long userBookId, Long bookId, int previousPage, int currentPage,
+                           boolean completed, LocalDateTime recordedAt) {
+
+        public int pagesRead() {
+            return Math.max(0, currentPage - previousPage);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.bookgoblin.event;
+
+public record UserDeletedEvent(Long userId) {
+}
@@ -0,0 +1,16 @@
+package com.bookgoblin.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class OpenLibraryUnavailableException extends RuntimeException {
+
+    public OpenLibraryUnavailableException(String message) {
+        super(message);
+    }
+
+    public OpenLibraryUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
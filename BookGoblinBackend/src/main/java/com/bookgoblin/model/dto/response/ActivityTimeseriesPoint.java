@@ -0,0 +1,20 @@
+package com.bookgoblin.model.dto.response;
+
+import com.bookgoblin.model.enums.ActivityType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityTimeseriesPoint {
+    private LocalDateTime bucketStart;
+    private ActivityType activityType;
+    private Long count;
+    private Long pagesRead;
+}
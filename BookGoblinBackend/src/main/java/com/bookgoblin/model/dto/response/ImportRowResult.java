@@ -0,0 +1,29 @@
+package com.bookgoblin.model.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportRowResult {
+
+    public enum Status {
+        ADDED,
+        ALREADY_IN_LIBRARY,
+        DUPLICATE,
+        FAILED
+    }
+
+    private Integer row;
+    private Status status;
+    private Long bookId;
+    private String isbn;
+    private String title;
+    private String message;
+}
@@ -0,0 +1,19 @@
+package com.bookgoblin.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportSummary {
+    private int rows;
+    private int added;
+    private int alreadyInLibrary;
+    private int duplicates;
+    private int failed;
+    private long durationMs;
+}
@@ -0,0 +1,35 @@
+package com.bookgoblin.model.dto.response;
+
+import com.bookgoblin.model.enums.BookStatus;
+import com.bookgoblin.model.enums.Genre;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the paged library listing. Carries what list views show and nothing more, so it is
+ * selected as a projection without loading the entities or the description text.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LibraryBookSummary {
+    private Long userBookId;
+    private Long bookId;
+    private String title;
+    private String author;
+    private Genre genre;
+    private Integer publishedYear;
+    private Integer pages;
+    private String coverId;
+    private String isbn;
+    private Double rating;
+    private BookStatus status;
+    private Integer currentPage;
+    private Integer userRating;
+    private LocalDateTime addedAt;
+}
@@ -5,24 +5,36 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "activity_logs")
+@Table(name = "activity_logs", indexes = {
+        @Index(name = "idx_activity_logs_created", columnList = "created_at"),
+        @Index(name = "idx_activity_logs_user_created", columnList = "user_id, created_at")
+})
+@NamedEntityGraph(name = ActivityLog.WITH_USER, attributeNodes = @NamedAttributeNode("user"))
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class ActivityLog {
 
+    // The admin log view shows who did what
+    public static final String WITH_USER = "ActivityLog.withUser";
+
     @Id
+    // IDENTITY: ActivityLogWriter stores logs as multi-row JDBC INSERTs, which rely on AUTO_INCREMENT
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
 
     @Enumerated(EnumType.STRING)
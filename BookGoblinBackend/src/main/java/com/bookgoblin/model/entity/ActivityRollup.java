@@ -0,0 +1,56 @@
+package com.bookgoblin.model.entity;
+
+import com.bookgoblin.model.enums.ActivityType;
+import com.bookgoblin.model.enums.RollupGranularity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Activity counts per hour or day bucket, activity type and user. Rows with {@code userId = 0} hold the
+ * totals across all users, including system activity.
+ */
+@Entity
+@Table(name = "activity_rollups", uniqueConstraints = @UniqueConstraint(name = "uk_activity_rollups_bucket",
+        columnNames = {"granularity", "user_id", "bucket_start", "activity_type"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityRollup {
+
+    public static final long ALL_USERS = 0L;
+
+    @Id
+    // IDENTITY: ActivityRollupService inserts new buckets with plain JDBC, which relies on AUTO_INCREMENT
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private RollupGranularity granularity;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "activity_type", nullable = false, length = 50)
+    private ActivityType activityType;
+
+    @Column(name = "event_count", nullable = false)
+    private Long eventCount;
+
+    // Only set for READING_PROGRESS_UPDATED
+    @Column(name = "pages_read", nullable = false)
+    private Long pagesRead;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
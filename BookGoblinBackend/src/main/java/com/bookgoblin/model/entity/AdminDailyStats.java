@@ -0,0 +1,52 @@
+package com.bookgoblin.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "admin_daily_stats")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminDailyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "stat_date", nullable = false, unique = true)
+    private LocalDate statDate;
+
+    private Long newUsers;
+
+    private Long activeUsers;
+
+    private Long booksAdded;
+
+    private Long activities;
+
+    // Totals as of the last write for this day
+    private Long totalUsers;
+
+    private Long totalBooks;
+
+    private Long totalActivities;
+
+    private Double averageRating;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,32 @@
+package com.bookgoblin.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One cluster-wide dashboard total. Every node adds the changes it saw, so no node has to count the
+ * source tables to learn about the others.
+ */
+@Entity
+@Table(name = "admin_stat_totals")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminStatTotal {
+
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    @Column(nullable = false)
+    private Long total;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
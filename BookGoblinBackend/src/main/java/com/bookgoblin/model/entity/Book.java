@@ -1,6 +1,7 @@
 package com.bookgoblin.model.entity;
 
 import com.bookgoblin.model.enums.Genre;
+import com.bookgoblin.search.BookIndexListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -11,6 +12,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "books")
+@EntityListeners(BookIndexListener.class)
 @Data
 @Builder
 @NoArgsConstructor
@@ -18,7 +20,9 @@ import java.time.LocalDateTime;
 public class Book {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "books")
+    @TableGenerator(name = "books", table = IdGenerators.TABLE, pkColumnValue = "books",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
@@ -41,10 +45,13 @@ public class Book {
 
     private String coverId;
 
+    // Average of ratingSum / ratingCount, kept for sorting and responses; see BookRepository.applyRatingDelta
     private Double rating;
 
     private Integer ratingCount;
 
+    private Integer ratingSum;
+
     @Column(columnDefinition = "TEXT")
     private String description;
 
@@ -64,6 +71,7 @@ public class Book {
         updatedAt = LocalDateTime.now();
         rating = 0.0;
         ratingCount = 0;
+        ratingSum = 0;
         language = "en";
         availableOnline = false;
     }
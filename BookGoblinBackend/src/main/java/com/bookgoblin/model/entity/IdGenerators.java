@@ -0,0 +1,17 @@
+package com.bookgoblin.model.entity;
+
+/**
+ * Shared settings for the pooled table generators. Each generated entity owns one row of
+ * {@value #TABLE} and reserves ids {@value #ALLOCATION_SIZE} at a time, so Hibernate can batch its
+ * inserts, which IDENTITY columns prevent. Tables that are also written with plain JDBC
+ * (user_books, activity_logs, reading_sessions, activity_rollups) keep IDENTITY so both writers
+ * draw from the same counter.
+ */
+final class IdGenerators {
+
+    static final String TABLE = "id_generators";
+    static final int ALLOCATION_SIZE = 50;
+
+    private IdGenerators() {
+    }
+}
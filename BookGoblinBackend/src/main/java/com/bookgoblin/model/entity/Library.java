@@ -4,8 +4,11 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
 
 @Entity
@@ -14,14 +17,18 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class Library {
+public class Library implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "libraries")
+    @TableGenerator(name = "libraries", table = IdGenerators.TABLE, pkColumnValue = "libraries",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false, unique = true)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
 
     private Integer totalBooks;
@@ -34,16 +41,21 @@ public class Library {
 
     private Integer totalPagesRead;
 
+    // Guards recompute's read-modify-write; the atomic delta update bumps it too
+    @Version
+    private Long version;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // Only fills gaps: a library provisioned late by recompute arrives with its counts already set
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
-        totalBooks = 0;
-        booksRead = 0;
-        booksReading = 0;
-        booksToRead = 0;
-        totalPagesRead = 0;
+        totalBooks = totalBooks != null ? totalBooks : 0;
+        booksRead = booksRead != null ? booksRead : 0;
+        booksReading = booksReading != null ? booksReading : 0;
+        booksToRead = booksToRead != null ? booksToRead : 0;
+        totalPagesRead = totalPagesRead != null ? totalPagesRead : 0;
     }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.bookgoblin.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One recorded reading progress change: the page range moved through and when it was reported.
+ */
+@Entity
+@Table(name = "reading_sessions", indexes = @Index(name = "idx_reading_sessions_user_time",
+        columnList = "user_id, recorded_at"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReadingSession {
+
+    @Id
+    // IDENTITY: sessions are only inserted by ReadingSessionTracker's JDBC batch, which relies on AUTO_INCREMENT
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "user_book_id", nullable = false)
+    private Long userBookId;
+
+    @Column(name = "book_id")
+    private Long bookId;
+
+    @Column(name = "start_page", nullable = false)
+    private Integer startPage;
+
+    @Column(name = "end_page", nullable = false)
+    private Integer endPage;
+
+    // Forward progress only; going back a few pages does not count as reading
+    @Column(name = "pages_read", nullable = false)
+    private Integer pagesRead;
+
+    @Column(nullable = false)
+    private Boolean completed;
+
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+}
@@ -1,6 +1,7 @@
 package com.bookgoblin.model.entity;
 
 import com.bookgoblin.model.enums.Role;
+import com.bookgoblin.search.UserIndexListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -16,6 +17,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserIndexListener.class)
 @Data
 @Builder
 @NoArgsConstructor
@@ -23,7 +25,9 @@ import java.util.List;
 public class User implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "users")
+    @TableGenerator(name = "users", table = IdGenerators.TABLE, pkColumnValue = "users",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -40,8 +44,9 @@ public class User implements UserDetails {
     @Enumerated(EnumType.STRING)
     private Role role;
 
-    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL)
-    private Library library;
+    // Bumped whenever issued tokens must stop working (password or role change)
+    @Column(name = "token_version")
+    private Integer tokenVersion;
 
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -54,6 +59,7 @@ public class User implements UserDetails {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
         role = Role.USER;
+        tokenVersion = 0;
     }
 
     @PreUpdate
@@ -61,6 +67,14 @@ public class User implements UserDetails {
         updatedAt = LocalDateTime.now();
     }
 
+    public int currentTokenVersion() {
+        return tokenVersion != null ? tokenVersion : 0;
+    }
+
+    public void revokeTokens() {
+        tokenVersion = currentTokenVersion() + 1;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
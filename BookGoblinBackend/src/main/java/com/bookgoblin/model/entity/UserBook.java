@@ -5,28 +5,46 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "user_books")
+@Table(name = "user_books",
+        uniqueConstraints = @UniqueConstraint(name = "uk_user_books_user_book", columnNames = {"user_id", "book_id"}),
+        indexes = {
+                @Index(name = "idx_user_books_user_added", columnList = "user_id, added_at, id"),
+                @Index(name = "idx_user_books_user_status", columnList = "user_id, status"),
+                @Index(name = "idx_user_books_added", columnList = "added_at")
+        })
+@NamedEntityGraph(name = UserBook.WITH_BOOK, attributeNodes = @NamedAttributeNode("book"))
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class UserBook {
 
+    // Library listings show the book of every row
+    public static final String WITH_BOOK = "UserBook.withBook";
+
     @Id
+    // IDENTITY rather than a pooled table generator: the CSV import inserts shelves with plain JDBC
+    // (LibraryImportService), and its AUTO_INCREMENT ids would collide with blocks Hibernate had reserved
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "book_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Book book;
 
     @Enumerated(EnumType.STRING)
@@ -43,6 +61,7 @@ public class UserBook {
 
     private LocalDateTime finishedReading;
 
+    @Column(name = "added_at")
     private LocalDateTime addedAt;
 
     @PrePersist
@@ -0,0 +1,6 @@
+package com.bookgoblin.model.enums;
+
+public enum LibrarySort {
+    ADDED,
+    RATING
+}
@@ -2,39 +2,54 @@ package com.bookgoblin.repository;
 
 import com.bookgoblin.model.entity.ActivityLog;
 import com.bookgoblin.model.enums.ActivityType;
+import com.bookgoblin.repository.projection.ActivityAggregate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long> {
+public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long>, ActivityLogRepositoryCustom {
 
+    @EntityGraph(ActivityLog.WITH_USER)
     List<ActivityLog> findByUserIdOrderByCreatedAtDesc(Long userId);
 
+    @EntityGraph(ActivityLog.WITH_USER)
     Page<ActivityLog> findByUserId(Long userId, Pageable pageable);
 
+    @Override
+    @EntityGraph(ActivityLog.WITH_USER)
+    Page<ActivityLog> findAll(Pageable pageable);
+
+    @EntityGraph(ActivityLog.WITH_USER)
     List<ActivityLog> findByActivityType(ActivityType activityType);
 
+    @EntityGraph(ActivityLog.WITH_USER)
     List<ActivityLog> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
 
-    @Query("SELECT a FROM ActivityLog a WHERE " +
-            "(:userId IS NULL OR a.user.id = :userId) AND " +
-            "(:activityType IS NULL OR a.activityType = :activityType) AND " +
-            "(:startDate IS NULL OR a.createdAt >= :startDate) AND " +
-            "(:endDate IS NULL OR a.createdAt <= :endDate)")
-    Page<ActivityLog> findWithFilters(
-            @Param("userId") Long userId,
-            @Param("activityType") ActivityType activityType,
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate,
-            Pageable pageable);
+    @Query("SELECT a.user.id AS userId, MAX(a.createdAt) AS lastActivityAt, " +
+            "SUM(CASE WHEN a.createdAt >= :since THEN 1 ELSE 0 END) AS recentActivities " +
+            "FROM ActivityLog a WHERE a.user.id IN :userIds GROUP BY a.user.id")
+    List<ActivityAggregate> aggregateByUser(@Param("userIds") Collection<Long> userIds,
+                                            @Param("since") LocalDateTime since);
 
     @Query("SELECT COUNT(a) FROM ActivityLog a WHERE a.createdAt >= :startDate")
     Long countSince(@Param("startDate") LocalDateTime startDate);
+
+    // Half-open ranges on created_at so a partitioned table only scans the partitions they cover
+    @Query("SELECT COUNT(a) FROM ActivityLog a WHERE a.createdAt >= :start AND a.createdAt < :end")
+    long countBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query("SELECT COUNT(DISTINCT a.user.id) FROM ActivityLog a WHERE a.createdAt >= :start AND a.createdAt < :end")
+    long countDistinctUsersBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query("SELECT DISTINCT a.user.id FROM ActivityLog a WHERE a.createdAt >= :start AND a.createdAt < :end")
+    List<Long> findDistinctUserIdsBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 }
\ No newline at end of file
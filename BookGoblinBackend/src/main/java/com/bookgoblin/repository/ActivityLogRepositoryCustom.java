@@ -0,0 +1,16 @@
+package com.bookgoblin.repository;
+
+import com.bookgoblin.model.entity.ActivityLog;
+import com.bookgoblin.model.enums.ActivityType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+
+public interface ActivityLogRepositoryCustom {
+
+    // Only the filters that are set become predicates, so the optimizer (and partition pruning) sees plain ranges
+    Page<ActivityLog> findWithFilters(Long userId, ActivityType activityType,
+                                      LocalDateTime startDate, LocalDateTime endDate,
+                                      Pageable pageable);
+}
@@ -0,0 +1,75 @@
+package com.bookgoblin.repository;
+
+import com.bookgoblin.model.entity.ActivityLog;
+import com.bookgoblin.model.entity.QActivityLog;
+import com.bookgoblin.model.entity.QUser;
+import com.bookgoblin.model.enums.ActivityType;
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ActivityLogRepositoryImpl implements ActivityLogRepositoryCustom {
+
+    private final JPAQueryFactory queryFactory;
+
+    @Override
+    public Page<ActivityLog> findWithFilters(Long userId, ActivityType activityType,
+                                             LocalDateTime startDate, LocalDateTime endDate,
+                                             Pageable pageable) {
+        QActivityLog activityLog = QActivityLog.activityLog;
+        QUser user = QUser.user;
+
+        BooleanBuilder where = new BooleanBuilder();
+        if (userId != null) {
+            where.and(activityLog.user.id.eq(userId));
+        }
+        if (activityType != null) {
+            where.and(activityLog.activityType.eq(activityType));
+        }
+        if (startDate != null) {
+            where.and(activityLog.createdAt.goe(startDate));
+        }
+        if (endDate != null) {
+            where.and(activityLog.createdAt.loe(endDate));
+        }
+
+        JPAQuery<ActivityLog> query = queryFactory.selectFrom(activityLog)
+                .leftJoin(activityLog.user, user).fetchJoin()
+                .where(where)
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize());
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(orderBy(pageable.getSort()));
+        } else {
+            query.orderBy(activityLog.createdAt.desc(), activityLog.id.desc());
+        }
+        List<ActivityLog> content = query.fetch();
+
+        // The count skips the user join and only runs when the page does not already tell us the total
+        return PageableExecutionUtils.getPage(content, pageable, () -> queryFactory
+                .select(activityLog.count())
+                .from(activityLog)
+                .where(where)
+                .fetchOne());
+    }
+
+    private static OrderSpecifier<?>[] orderBy(Sort sort) {
+        PathBuilder<ActivityLog> path = new PathBuilder<>(ActivityLog.class, QActivityLog.activityLog.getMetadata());
+        return sort.stream()
+                .map(order -> new OrderSpecifier<>(order.isAscending() ? Order.ASC : Order.DESC,
+                        path.getComparable(order.getProperty(), Comparable.class)))
+                .toArray(OrderSpecifier[]::new);
+    }
+}
@@ -0,0 +1,34 @@
+package com.bookgoblin.repository;
+
+import com.bookgoblin.model.entity.ActivityRollup;
+import com.bookgoblin.model.enums.ActivityType;
+import com.bookgoblin.model.enums.RollupGranularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ActivityRollupRepository extends JpaRepository<ActivityRollup, Long> {
+
+    // Two queries rather than an optional type predicate, so each keeps a plain range on the bucket key
+    @Query("SELECT r FROM ActivityRollup r WHERE r.granularity = :granularity AND r.userId = :userId " +
+            "AND r.bucketStart >= :start AND r.bucketStart < :end " +
+            "ORDER BY r.bucketStart, r.activityType")
+    List<ActivityRollup> findSeries(@Param("granularity") RollupGranularity granularity,
+                                    @Param("userId") Long userId,
+                                    @Param("start") LocalDateTime start,
+                                    @Param("end") LocalDateTime end);
+
+    @Query("SELECT r FROM ActivityRollup r WHERE r.granularity = :granularity AND r.userId = :userId " +
+            "AND r.bucketStart >= :start AND r.bucketStart < :end AND r.activityType = :type " +
+            "ORDER BY r.bucketStart")
+    List<ActivityRollup> findSeriesByType(@Param("granularity") RollupGranularity granularity,
+                                          @Param("userId") Long userId,
+                                          @Param("start") LocalDateTime start,
+                                          @Param("end") LocalDateTime end,
+                                          @Param("type") ActivityType type);
+}
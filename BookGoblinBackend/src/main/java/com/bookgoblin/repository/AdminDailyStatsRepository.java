@@ -0,0 +1,46 @@
+package com.bookgoblin.repository;
+
+import com.bookgoblin.model.entity.AdminDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface AdminDailyStatsRepository extends JpaRepository<AdminDailyStats, Long> {
+    Optional<AdminDailyStats> findByStatDate(LocalDate statDate);
+
+    /**
+     * Adds one node's daily counts to the row for {@code statDate} and overwrites the figures that are
+     * read from the shared tables. Returns 0 when the day has no row yet.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AdminDailyStats s SET " +
+            "s.newUsers = COALESCE(s.newUsers, 0) + :newUsers, " +
+            "s.booksAdded = COALESCE(s.booksAdded, 0) + :booksAdded, " +
+            "s.activities = COALESCE(s.activities, 0) + :activities, " +
+            "s.activeUsers = :activeUsers, " +
+            "s.totalUsers = :totalUsers, " +
+            "s.totalBooks = :totalBooks, " +
+            "s.totalActivities = :totalActivities, " +
+            "s.averageRating = :averageRating, " +
+            "s.updatedAt = :updatedAt " +
+            "WHERE s.statDate = :statDate")
+    int addToDay(@Param("statDate") LocalDate statDate,
+                 @Param("newUsers") long newUsers,
+                 @Param("booksAdded") long booksAdded,
+                 @Param("activities") long activities,
+                 @Param("activeUsers") long activeUsers,
+                 @Param("totalUsers") long totalUsers,
+                 @Param("totalBooks") long totalBooks,
+                 @Param("totalActivities") long totalActivities,
+                 @Param("averageRating") double averageRating,
+                 @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -0,0 +1,26 @@
+package com.bookgoblin.repository;
+
+import com.bookgoblin.model.entity.AdminStatTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface AdminStatTotalRepository extends JpaRepository<AdminStatTotal, String> {
+
+    // Returns 0 when the total has no row yet
+    @Modifying
+    @Transactional
+    @Query("UPDATE AdminStatTotal t SET t.total = t.total + :delta, t.updatedAt = :updatedAt WHERE t.name = :name")
+    int add(@Param("name") String name, @Param("delta") long delta, @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE AdminStatTotal t SET t.total = :total, t.updatedAt = :updatedAt WHERE t.name = :name")
+    int set(@Param("name") String name, @Param("total") long total, @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -2,12 +2,34 @@ package com.bookgoblin.repository;
 
 import com.bookgoblin.model.entity.Book;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
     Optional<Book> findByIsbn(String isbn);
+    List<Book> findByIsbnIn(Collection<String> isbns);
     Optional<Book> findByOpenLibraryId(String openLibraryId);
+    List<Book> findTop500ByIdGreaterThanOrderByIdAsc(Long id);
+
+    // Folds one rating change into the book's integer count and sum in a single statement and derives the
+    // average from them, so it cannot drift the way a running average does. Every assignment spells out the
+    // new values because MySQL evaluates SET left to right while H2 sees the old ones. The bulk update
+    // bypasses the persistence context, which is cleared so a later read in the transaction sees it.
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Book b SET " +
+            "b.rating = CASE WHEN b.ratingCount + :countDelta <= 0 THEN 0.0 " +
+            "ELSE CAST(b.ratingSum + :sumDelta AS Double) / (b.ratingCount + :countDelta) END, " +
+            "b.ratingSum = b.ratingSum + :sumDelta, " +
+            "b.ratingCount = b.ratingCount + :countDelta " +
+            "WHERE b.id = :bookId")
+    int applyRatingDelta(@Param("bookId") Long bookId,
+                         @Param("countDelta") int countDelta,
+                         @Param("sumDelta") int sumDelta);
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.bookgoblin.repository;
+
+import com.bookgoblin.model.entity.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+
+    /**
+     * Claims a job run for this node when the job's row was last touched before {@code staleBefore}.
+     * Returns 1 when claimed; 0 when another node ran it more recently or the row does not exist yet.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE JobCheckpoint c SET c.updatedAt = :now WHERE c.name = :name AND c.updatedAt < :staleBefore")
+    int claim(@Param("name") String name, @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore);
+}
@@ -0,0 +1,21 @@
+package com.bookgoblin.repository;
+
+import com.bookgoblin.model.enums.BookStatus;
+import com.bookgoblin.model.enums.Genre;
+import com.bookgoblin.model.enums.LibrarySort;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filters, order and position for one page of a user's library. Null filters are not applied.
+ */
+public record LibraryPageQuery(BookStatus status, Genre genre, Integer minRating, LibrarySort sort,
+                               boolean ascending, Cursor after, int limit) {
+
+    /**
+     * The sort key of the last row of the previous page; the page starts strictly after it.
+     * {@code rating} is only used when sorting by rating, where unrated books count as 0.
+     */
+    public record Cursor(int rating, LocalDateTime addedAt, long id) {
+    }
+}
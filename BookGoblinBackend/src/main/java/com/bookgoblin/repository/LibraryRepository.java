@@ -1,12 +1,53 @@
 package com.bookgoblin.repository;
 
 import com.bookgoblin.model.entity.Library;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface LibraryRepository extends JpaRepository<Library, Long> {
     Optional<Library> findByUserId(Long userId);
-}
\ No newline at end of file
+
+    List<Library> findByUserIdIn(Collection<Long> userIds);
+
+    // Users no longer cascade to their library, so deleting a user removes it explicitly first
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Library l WHERE l.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT l.user.id FROM Library l ORDER BY l.id")
+    Slice<Long> findUserIds(Pageable pageable);
+
+    // Keyset-paged, since provisioning a library removes the user from the result as it goes
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId " +
+            "AND NOT EXISTS (SELECT l.id FROM Library l WHERE l.user.id = u.id) ORDER BY u.id")
+    List<Long> findUserIdsWithoutLibrary(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Applies counter deltas in a single statement so concurrent updates never read-modify-write
+    @Modifying
+    @Query("UPDATE Library l SET " +
+            "l.totalBooks = l.totalBooks + :totalBooks, " +
+            "l.booksRead = l.booksRead + :booksRead, " +
+            "l.booksReading = l.booksReading + :booksReading, " +
+            "l.booksToRead = l.booksToRead + :booksToRead, " +
+            "l.totalPagesRead = l.totalPagesRead + :totalPagesRead, " +
+            "l.version = l.version + 1 " +
+            "WHERE l.user.id = :userId")
+    int applyDelta(@Param("userId") Long userId,
+                   @Param("totalBooks") int totalBooks,
+                   @Param("booksRead") int booksRead,
+                   @Param("booksReading") int booksReading,
+                   @Param("booksToRead") int booksToRead,
+                   @Param("totalPagesRead") int totalPagesRead);
+}
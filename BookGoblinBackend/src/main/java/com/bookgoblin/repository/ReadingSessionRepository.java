@@ -0,0 +1,20 @@
+package com.bookgoblin.repository;
+
+import com.bookgoblin.model.entity.ReadingSession;
+import com.bookgoblin.repository.projection.SessionPages;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ReadingSessionRepository extends JpaRepository<ReadingSession, Long> {
+
+    @Query("SELECT s.recordedAt AS recordedAt, s.pagesRead AS pagesRead FROM ReadingSession s " +
+            "WHERE s.userId = :userId AND s.recordedAt >= :since AND s.pagesRead > 0 " +
+            "ORDER BY s.recordedAt")
+    List<SessionPages> findPagesSince(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+}
@@ -2,20 +2,72 @@ package com.bookgoblin.repository;
 
 import com.bookgoblin.model.entity.UserBook;
 import com.bookgoblin.model.enums.BookStatus;
+import com.bookgoblin.repository.projection.BookPopularity;
+import com.bookgoblin.repository.projection.LibraryBookKey;
+import com.bookgoblin.repository.projection.ProgressSnapshot;
+import com.bookgoblin.repository.projection.RatingAggregate;
+import com.bookgoblin.repository.projection.StatusCount;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserBookRepository extends JpaRepository<UserBook, Long> {
+public interface UserBookRepository extends JpaRepository<UserBook, Long>, UserBookRepositoryCustom {
+    @EntityGraph(UserBook.WITH_BOOK)
     List<UserBook> findByUserId(Long userId);
+    @EntityGraph(UserBook.WITH_BOOK)
     List<UserBook> findByUserIdAndStatus(Long userId, BookStatus status);
     Optional<UserBook> findByUserIdAndBookId(Long userId, Long bookId);
     boolean existsByUserIdAndBookId(Long userId, Long bookId);
 
     // Add this method for admin stats
     long countByAddedAtBetween(LocalDateTime start, LocalDateTime end);
-}
\ No newline at end of file
+
+    @Query("SELECT COALESCE(SUM(ub.rating), 0) AS total, COUNT(ub.rating) AS ratings FROM UserBook ub")
+    RatingAggregate aggregateRatings();
+
+    @Query("SELECT ub.status AS status, COUNT(ub) AS books, COALESCE(SUM(ub.currentPage), 0) AS pages " +
+            "FROM UserBook ub WHERE ub.user.id = :userId GROUP BY ub.status")
+    List<StatusCount> countByStatus(@Param("userId") Long userId);
+
+    // Progress reports lock the rows they move until commit, so two reports on one shelf entry cannot both
+    // compute their library delta from the same old page; locked in id order so batches cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ub FROM UserBook ub WHERE ub.id IN :ids ORDER BY ub.id")
+    List<UserBook> lockForProgress(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT ub.id AS id, ub.user.id AS userId, ub.status AS status, ub.currentPage AS currentPage, " +
+            "b.id AS bookId, b.pages AS pages " +
+            "FROM UserBook ub JOIN ub.book b WHERE ub.id IN :ids")
+    List<ProgressSnapshot> findProgressSnapshots(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT ub.user.id FROM UserBook ub WHERE ub.id = :id")
+    Optional<Long> findOwnerId(@Param("id") Long id);
+
+    @Query("SELECT ub.finishedReading FROM UserBook ub WHERE ub.user.id = :userId AND ub.finishedReading >= :since")
+    List<LocalDateTime> findFinishedReadingSince(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+
+    @Query("SELECT b.id AS bookId, b.isbn AS isbn, b.title AS title, b.author AS author " +
+            "FROM UserBook ub JOIN ub.book b WHERE ub.user.id = :userId")
+    List<LibraryBookKey> findLibraryBookKeys(@Param("userId") Long userId);
+
+    @Query("SELECT ub.book.id AS bookId, COUNT(ub) AS adds FROM UserBook ub WHERE ub.addedAt >= :since " +
+            "GROUP BY ub.book.id ORDER BY COUNT(ub) DESC")
+    List<BookPopularity> findMostAddedSince(@Param("since") LocalDateTime since, Pageable pageable);
+
+    // Compare-and-set on the rating, with 0 standing for "not rated", so two concurrent changes cannot both apply
+    @Modifying
+    @Query("UPDATE UserBook ub SET ub.rating = :rating WHERE ub.id = :id AND COALESCE(ub.rating, 0) = :expected")
+    int compareAndSetRating(@Param("id") Long id, @Param("expected") int expected, @Param("rating") Integer rating);
+}
@@ -0,0 +1,11 @@
+package com.bookgoblin.repository;
+
+import com.bookgoblin.model.dto.response.LibraryBookSummary;
+
+import java.util.List;
+
+public interface UserBookRepositoryCustom {
+
+    // Keyset paging on (sort key, addedAt, id): every page is an index range scan, however deep
+    List<LibraryBookSummary> findLibraryPage(Long userId, LibraryPageQuery query);
+}
@@ -0,0 +1,83 @@
+package com.bookgoblin.repository;
+
+import com.bookgoblin.model.dto.response.LibraryBookSummary;
+import com.bookgoblin.model.entity.QBook;
+import com.bookgoblin.model.entity.QUserBook;
+import com.bookgoblin.model.enums.LibrarySort;
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class UserBookRepositoryImpl implements UserBookRepositoryCustom {
+
+    private final JPAQueryFactory queryFactory;
+
+    @Override
+    public List<LibraryBookSummary> findLibraryPage(Long userId, LibraryPageQuery query) {
+        QUserBook userBook = QUserBook.userBook;
+        QBook book = QBook.book;
+        NumberExpression<Integer> rating = userBook.rating.coalesce(0);
+
+        BooleanBuilder where = new BooleanBuilder(userBook.user.id.eq(userId));
+        if (query.status() != null) {
+            where.and(userBook.status.eq(query.status()));
+        }
+        if (query.genre() != null) {
+            where.and(book.genre.eq(query.genre()));
+        }
+        if (query.minRating() != null) {
+            where.and(userBook.rating.goe(query.minRating()));
+        }
+        if (query.after() != null) {
+            where.and(after(userBook, rating, query));
+        }
+
+        List<OrderSpecifier<?>> orderBy = new ArrayList<>();
+        if (query.sort() == LibrarySort.RATING) {
+            orderBy.add(order(rating, query.ascending()));
+        }
+        orderBy.add(order(userBook.addedAt, query.ascending()));
+        orderBy.add(order(userBook.id, query.ascending()));
+
+        return queryFactory
+                .select(Projections.constructor(LibraryBookSummary.class,
+                        userBook.id, book.id, book.title, book.author, book.genre, book.publishedYear, book.pages,
+                        book.coverId, book.isbn, book.rating, userBook.status, userBook.currentPage, userBook.rating,
+                        userBook.addedAt))
+                .from(userBook)
+                .join(userBook.book, book)
+                .where(where)
+                .orderBy(orderBy.toArray(OrderSpecifier[]::new))
+                .limit(query.limit())
+                .fetch();
+    }
+
+    // (addedAt, id) after the cursor, with the rating compared first when sorting by it
+    private static Predicate after(QUserBook userBook, NumberExpression<Integer> rating, LibraryPageQuery query) {
+        LibraryPageQuery.Cursor cursor = query.after();
+        boolean asc = query.ascending();
+        BooleanExpression afterAdded = (asc ? userBook.addedAt.gt(cursor.addedAt()) : userBook.addedAt.lt(cursor.addedAt()))
+                .or(userBook.addedAt.eq(cursor.addedAt())
+                        .and(asc ? userBook.id.gt(cursor.id()) : userBook.id.lt(cursor.id())));
+        if (query.sort() != LibrarySort.RATING) {
+            return afterAdded;
+        }
+        return (asc ? rating.gt(cursor.rating()) : rating.lt(cursor.rating()))
+                .or(rating.eq(cursor.rating()).and(afterAdded));
+    }
+
+    private static <T extends Comparable<?>> OrderSpecifier<T> order(ComparableExpressionBase<T> expression,
+                                                                     boolean ascending) {
+        return ascending ? expression.asc() : expression.desc();
+    }
+}
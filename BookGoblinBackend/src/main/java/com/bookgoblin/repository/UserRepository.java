@@ -1,10 +1,18 @@
 package com.bookgoblin.repository;
 
+import com.bookgoblin.model.dto.response.UserResponse;
 import com.bookgoblin.model.entity.User;
+import com.bookgoblin.repository.projection.UserIdentity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -17,4 +25,24 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     // Add this method for admin stats
     long countByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT u.id AS id, u.username AS username, u.email AS email FROM User u " +
+            "WHERE u.id > :afterId ORDER BY u.id")
+    List<UserIdentity> findIdentitiesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT u.id FROM User u WHERE LOWER(u.username) LIKE CONCAT('%', :query, '%') " +
+            "OR LOWER(u.email) LIKE CONCAT('%', :query, '%') ORDER BY u.username, u.id")
+    Page<Long> searchIds(@Param("query") String query, Pageable pageable);
+
+    // Profile, library counters and activity aggregates for a set of users in a single round trip
+    @Query("SELECT new com.bookgoblin.model.dto.response.UserResponse(" +
+            "u.id, u.username, u.email, u.avatarUrl, u.role, u.createdAt, u.updatedAt, " +
+            "COALESCE(l.totalBooks, 0), COALESCE(l.booksRead, 0), COALESCE(l.booksReading, 0), " +
+            "COALESCE(l.booksToRead, 0), COALESCE(l.totalPagesRead, 0), " +
+            "(SELECT COUNT(a) FROM ActivityLog a WHERE a.user.id = u.id AND a.createdAt >= :activitySince), " +
+            "(SELECT MAX(a.createdAt) FROM ActivityLog a WHERE a.user.id = u.id)) " +
+            "FROM User u LEFT JOIN Library l ON l.user.id = u.id " +
+            "WHERE u.id IN :ids")
+    List<UserResponse> findUserResponses(@Param("ids") Collection<Long> ids,
+                                         @Param("activitySince") LocalDateTime activitySince);
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.bookgoblin.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface ActivityAggregate {
+    Long getUserId();
+    LocalDateTime getLastActivityAt();
+    Long getRecentActivities();
+}
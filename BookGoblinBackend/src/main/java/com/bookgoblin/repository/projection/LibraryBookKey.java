@@ -0,0 +1,8 @@
+package com.bookgoblin.repository.projection;
+
+public interface LibraryBookKey {
+    Long getBookId();
+    String getIsbn();
+    String getTitle();
+    String getAuthor();
+}
@@ -0,0 +1,12 @@
+package com.bookgoblin.repository.projection;
+
+import com.bookgoblin.model.enums.BookStatus;
+
+public interface ProgressSnapshot {
+    Long getId();
+    Long getUserId();
+    Long getBookId();
+    BookStatus getStatus();
+    Integer getCurrentPage();
+    Integer getPages();
+}
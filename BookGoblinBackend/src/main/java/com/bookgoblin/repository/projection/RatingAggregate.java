@@ -0,0 +1,6 @@
+package com.bookgoblin.repository.projection;
+
+public interface RatingAggregate {
+    Long getTotal();
+    Long getRatings();
+}
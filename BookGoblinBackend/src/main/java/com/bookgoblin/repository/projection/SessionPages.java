@@ -0,0 +1,8 @@
+package com.bookgoblin.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface SessionPages {
+    LocalDateTime getRecordedAt();
+    Integer getPagesRead();
+}
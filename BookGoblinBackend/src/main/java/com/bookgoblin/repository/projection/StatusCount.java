@@ -0,0 +1,9 @@
+package com.bookgoblin.repository.projection;
+
+import com.bookgoblin.model.enums.BookStatus;
+
+public interface StatusCount {
+    BookStatus getStatus();
+    Long getBooks();
+    Long getPages();
+}
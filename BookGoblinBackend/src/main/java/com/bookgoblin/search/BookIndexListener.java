@@ -0,0 +1,56 @@
+package com.bookgoblin.search;
+
+import com.bookgoblin.model.entity.Book;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps {@link BookSearchIndex} in step with JPA writes to books. Changes are applied after commit so a
+ * rolled-back save never becomes searchable, then broadcast so the other nodes reload the book.
+ */
+@Component
+public class BookIndexListener {
+
+    // Resolved lazily: the index depends on BookRepository, which is built with this listener
+    private final ObjectProvider<BookSearchIndex> bookSearchIndex;
+
+    public BookIndexListener(ObjectProvider<BookSearchIndex> bookSearchIndex) {
+        this.bookSearchIndex = bookSearchIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Book book) {
+        afterCommit(() -> {
+            bookSearchIndex.getObject().index(book);
+            bookSearchIndex.getObject().publishChange(book.getId());
+        });
+    }
+
+    @PostRemove
+    public void onRemove(Book book) {
+        Long bookId = book.getId();
+        afterCommit(() -> {
+            bookSearchIndex.getObject().remove(bookId);
+            bookSearchIndex.getObject().publishChange(bookId);
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
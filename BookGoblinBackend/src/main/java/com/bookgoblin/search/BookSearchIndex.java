@@ -0,0 +1,295 @@
+package com.bookgoblin.search;
+
+import com.bookgoblin.cache.CacheInvalidationPublisher;
+import com.bookgoblin.cache.TieredCacheProperties;
+import com.bookgoblin.event.BookRatedEvent;
+import com.bookgoblin.model.dto.response.BookResponse;
+import com.bookgoblin.model.entity.Book;
+import com.bookgoblin.repository.BookRepository;
+import com.bookgoblin.util.BookMapper;
+import com.bookgoblin.util.Validator;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over the books table. Terms are lowercased word tokens from title, author,
+ * description and ISBN; postings live in a sorted map so a query token also matches every term it prefixes.
+ * <p>
+ * Every node holds its own copy. A node that changes a book broadcasts the id on the cache invalidation
+ * channel and the others reload that book; a periodic rebuild catches up on anything missed while Redis
+ * was unreachable.
+ */
+@Component
+@Slf4j
+public class BookSearchIndex implements MessageListener {
+
+    static final String CHANNEL_NAME = "bookSearchIndex";
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    // Field weights; a term keeps the best weight of the fields it appears in
+    private static final int ISBN_WEIGHT = 8;
+    private static final int TITLE_WEIGHT = 4;
+    private static final int AUTHOR_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final BookRepository bookRepository;
+    private final BookMapper bookMapper;
+    private final CacheInvalidationPublisher invalidationPublisher;
+
+    private final ConcurrentSkipListMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, IndexedBook> documents = new ConcurrentHashMap<>();
+    // Serializes writers; a lock rather than synchronized so a virtual thread waiting on it does not pin its carrier
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile boolean ready;
+
+    @Value("${books.search.index.min-prefix-length:2}")
+    private int minPrefixLength;
+
+    @Value("${books.search.index.max-prefix-expansions:256}")
+    private int maxPrefixExpansions;
+
+    public BookSearchIndex(BookRepository bookRepository,
+                           BookMapper bookMapper,
+                           MeterRegistry meterRegistry,
+                           CacheInvalidationPublisher invalidationPublisher,
+                           RedisMessageListenerContainer cacheInvalidationListener,
+                           TieredCacheProperties cacheProperties) {
+        this.bookRepository = bookRepository;
+        this.bookMapper = bookMapper;
+        this.invalidationPublisher = invalidationPublisher;
+        cacheInvalidationListener.addMessageListener(this, new ChannelTopic(cacheProperties.getInvalidationChannel()));
+        meterRegistry.gaugeMapSize("books.search.index.documents", List.of(), documents);
+        meterRegistry.gaugeMapSize("books.search.index.terms", List.of(), postings);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        long lastId = 0L;
+        // Only books indexed before the scan can be stale; anything indexed since came from a live change
+        Set<Long> stale = new HashSet<>(documents.keySet());
+        List<Book> batch;
+        do {
+            batch = bookRepository.findTop500ByIdGreaterThanOrderByIdAsc(lastId);
+            batch.forEach(this::index);
+            batch.forEach(book -> stale.remove(book.getId()));
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+
+        stale.forEach(this::remove);
+
+        ready = true;
+        log.info("Indexed {} books ({} terms) in {} ms", documents.size(), postings.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    @Scheduled(fixedDelayString = "${books.search.index.rebuild-interval-ms:3600000}",
+            initialDelayString = "${books.search.index.rebuild-interval-ms:3600000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Tells the other nodes to reload this book from the database.
+     */
+    public void publishChange(Long bookId) {
+        invalidationPublisher.publishEvict(CHANNEL_NAME, bookId.toString());
+    }
+
+    /**
+     * Ratings are folded into the book by a bulk update, which never reaches {@link BookIndexListener},
+     * so the book is reloaded here once the rating has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookRated(BookRatedEvent event) {
+        bookRepository.findById(event.bookId()).ifPresent(this::index);
+        publishChange(event.bookId());
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidationPublisher.Invalidation invalidation = invalidationPublisher.receive(message.getBody());
+        if (invalidation == null || !CHANNEL_NAME.equals(invalidation.cacheName()) || invalidation.isClear()) {
+            return;
+        }
+        Long bookId;
+        try {
+            bookId = Long.valueOf(invalidation.key());
+        } catch (NumberFormatException e) {
+            return;
+        }
+        bookRepository.findById(bookId).ifPresentOrElse(this::index, () -> remove(bookId));
+    }
+
+    public void index(Book book) {
+        if (book.getId() == null) {
+            return;
+        }
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, book.getTitle(), TITLE_WEIGHT);
+        addTerms(terms, book.getAuthor(), AUTHOR_WEIGHT);
+        addTerms(terms, book.getDescription(), DESCRIPTION_WEIGHT);
+        addTerms(terms, book.getIsbn(), ISBN_WEIGHT);
+        // ISBNs are often written with hyphens or spaces; index the bare form so either spelling matches
+        String isbn = Validator.normalizeIsbn(book.getIsbn());
+        if (isbn != null) {
+            terms.merge(isbn.toLowerCase(Locale.ROOT), ISBN_WEIGHT, Math::max);
+        }
+        IndexedBook indexed = new IndexedBook(bookMapper.toResponse(book), terms.keySet());
+
+        writeLock.lock();
+        try {
+            IndexedBook previous = documents.put(book.getId(), indexed);
+            if (previous != null) {
+                previous.terms().stream()
+                        .filter(term -> !terms.containsKey(term))
+                        .forEach(term -> removePosting(term, book.getId()));
+            }
+            terms.forEach((term, weight) ->
+                    postings.computeIfAbsent(term, t -> new ConcurrentHashMap<>()).put(book.getId(), weight));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(Long bookId) {
+        writeLock.lock();
+        try {
+            IndexedBook previous = documents.remove(bookId);
+            if (previous != null) {
+                previous.terms().forEach(term -> removePosting(term, bookId));
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code maxResults} books matching every query token, best matches first.
+     * Exact term matches score their full field weight, prefix matches half of it.
+     */
+    public List<BookResponse> search(String query, int maxResults) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || maxResults <= 0) {
+            return List.of();
+        }
+
+        Map<Long, Double> scores = null;
+        for (String token : new HashSet<>(tokens)) {
+            Map<Long, Double> tokenScores = scoreToken(token);
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                scores.replaceAll((id, score) -> score + tokenScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        Comparator<Map.Entry<Long, Double>> ranking = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed());
+        PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(ranking);
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            top.offer(entry);
+            if (top.size() > maxResults) {
+                top.poll();
+            }
+        }
+
+        List<BookResponse> results = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            IndexedBook document = documents.get(top.poll().getKey());
+            if (document != null) {
+                results.add(document.response());
+            }
+        }
+        Collections.reverse(results);
+        return results;
+    }
+
+    private Map<Long, Double> scoreToken(String token) {
+        Map<Long, Double> scores = new HashMap<>();
+        if (token.length() < minPrefixLength) {
+            Map<Long, Integer> exact = postings.get(token);
+            if (exact != null) {
+                exact.forEach((id, weight) -> scores.put(id, weight.doubleValue()));
+            }
+            return scores;
+        }
+
+        int expansions = 0;
+        for (Map.Entry<String, Map<Long, Integer>> entry : postings.tailMap(token, true).entrySet()) {
+            String term = entry.getKey();
+            if (!term.startsWith(token) || expansions++ >= maxPrefixExpansions) {
+                break;
+            }
+            double factor = term.length() == token.length() ? 1.0 : 0.5;
+            entry.getValue().forEach((id, weight) -> scores.merge(id, weight * factor, Math::max));
+        }
+        return scores;
+    }
+
+    private void removePosting(String term, Long bookId) {
+        postings.computeIfPresent(term, (t, ids) -> {
+            ids.remove(bookId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Math::max);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private record IndexedBook(BookResponse response, Set<String> terms) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.bookgoblin.search;
+
+import com.bookgoblin.model.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps {@link UserSearchIndex} in step with JPA writes to users. Changes are applied after commit so a
+ * rolled-back change never becomes searchable.
+ */
+@Component
+public class UserIndexListener {
+
+    // Resolved lazily: the index depends on UserRepository, which is built with this listener
+    private final ObjectProvider<UserSearchIndex> userSearchIndex;
+
+    public UserIndexListener(ObjectProvider<UserSearchIndex> userSearchIndex) {
+        this.userSearchIndex = userSearchIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(User user) {
+        afterCommit(() -> userSearchIndex.getObject().index(user));
+    }
+
+    @PostRemove
+    public void onRemove(User user) {
+        Long userId = user.getId();
+        afterCommit(() -> userSearchIndex.getObject().remove(userId));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,188 @@
+package com.bookgoblin.search;
+
+import com.bookgoblin.model.entity.User;
+import com.bookgoblin.repository.UserRepository;
+import com.bookgoblin.repository.projection.UserIdentity;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Trigram index over username and email for substring search. A query's trigrams narrow the
+ * candidates, which are then checked with a plain contains; queries shorter than a trigram scan
+ * the in-memory keys instead of the users table.
+ */
+@Component
+@Slf4j
+public class UserSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final UserRepository userRepository;
+
+    private final Map<String, Set<Long>> trigrams = new ConcurrentHashMap<>();
+    private final Map<Long, IndexedUser> users = new ConcurrentHashMap<>();
+    // Serializes writers; a lock rather than synchronized so a virtual thread waiting on it does not pin its carrier
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile boolean ready;
+
+    public UserSearchIndex(UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        meterRegistry.gaugeMapSize("users.search.index.documents", List.of(), users);
+        meterRegistry.gaugeMapSize("users.search.index.trigrams", List.of(), trigrams);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        long lastId = 0L;
+        List<UserIdentity> batch;
+        do {
+            batch = userRepository.findIdentitiesAfter(lastId, PageRequest.ofSize(REBUILD_BATCH_SIZE));
+            for (UserIdentity user : batch) {
+                index(user.getId(), user.getUsername(), user.getEmail());
+                lastId = user.getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+
+        ready = true;
+        log.info("Indexed {} users ({} trigrams) in {} ms", users.size(), trigrams.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    public void index(User user) {
+        index(user.getId(), user.getUsername(), user.getEmail());
+    }
+
+    public void index(Long userId, String username, String email) {
+        if (userId == null) {
+            return;
+        }
+        IndexedUser indexed = new IndexedUser(normalize(username), normalize(email));
+        Set<String> grams = indexed.trigrams();
+
+        writeLock.lock();
+        try {
+            IndexedUser previous = users.put(userId, indexed);
+            if (previous != null) {
+                previous.trigrams().stream()
+                        .filter(gram -> !grams.contains(gram))
+                        .forEach(gram -> removePosting(gram, userId));
+            }
+            grams.forEach(gram -> trigrams.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(userId));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(Long userId) {
+        writeLock.lock();
+        try {
+            IndexedUser previous = users.remove(userId);
+            if (previous != null) {
+                previous.trigrams().forEach(gram -> removePosting(gram, userId));
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of users whose username or email contains {@code query}, ordered by username.
+     */
+    public Page<Long> search(String query, Pageable pageable) {
+        String needle = normalize(query);
+        if (needle.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        Collection<Long> candidates = needle.length() < GRAM ? users.keySet() : candidates(needle);
+        List<Map.Entry<Long, IndexedUser>> matches = new ArrayList<>();
+        for (Long userId : candidates) {
+            IndexedUser user = users.get(userId);
+            if (user != null && user.matches(needle)) {
+                matches.add(Map.entry(userId, user));
+            }
+        }
+        matches.sort(Comparator.comparing((Map.Entry<Long, IndexedUser> entry) -> entry.getValue().username())
+                .thenComparing(Map.Entry::getKey));
+
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        List<Long> ids = matches.subList(from, to).stream().map(Map.Entry::getKey).toList();
+        return new PageImpl<>(ids, pageable, matches.size());
+    }
+
+    private Collection<Long> candidates(String needle) {
+        Set<Long> result = null;
+        for (String gram : trigramsOf(needle)) {
+            Set<Long> posting = trigrams.get(gram);
+            if (posting == null) {
+                return Set.of();
+            }
+            if (result == null) {
+                result = new HashSet<>(posting);
+            } else {
+                result.retainAll(posting);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result != null ? result : Set.of();
+    }
+
+    private void removePosting(String gram, Long userId) {
+        trigrams.computeIfPresent(gram, (g, ids) -> {
+            ids.remove(userId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> trigramsOf(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private record IndexedUser(String username, String email) {
+
+        boolean matches(String needle) {
+            return username.contains(needle) || email.contains(needle);
+        }
+
+        Set<String> trigrams() {
+            Set<String> grams = trigramsOf(username);
+            grams.addAll(trigramsOf(email));
+            return grams;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.bookgoblin.security;
+
+import com.bookgoblin.cache.CacheInvalidationPublisher;
+import com.bookgoblin.cache.TieredCacheProperties;
+import com.bookgoblin.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Local cache of authenticated principals keyed by user id, so token-authenticated requests
+ * do not hit the users table. It holds immutable snapshots rather than entities, since one entry serves
+ * every concurrent request of that user. Entries are evicted on role, password, profile and account changes, and
+ * the eviction is broadcast on the cache invalidation channel so other nodes drop their copy too; the
+ * TTL only bounds staleness while Redis is unreachable.
+ */
+@Component
+public class AuthenticatedUserCache implements MessageListener {
+
+    static final String CACHE_NAME = "principals";
+
+    private final UserRepository userRepository;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final Cache<Long, PrincipalSnapshot> principals;
+
+    public AuthenticatedUserCache(UserRepository userRepository,
+                                  CacheInvalidationPublisher invalidationPublisher,
+                                  RedisMessageListenerContainer cacheInvalidationListener,
+                                  TieredCacheProperties cacheProperties,
+                                  @Value("${security.principal-cache.max-size:10000}") long maxSize,
+                                  @Value("${security.principal-cache.ttl-ms:300000}") long ttlMs) {
+        this.userRepository = userRepository;
+        this.invalidationPublisher = invalidationPublisher;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+        cacheInvalidationListener.addMessageListener(this, new ChannelTopic(cacheProperties.getInvalidationChannel()));
+    }
+
+    public Optional<PrincipalSnapshot> get(Long userId) {
+        PrincipalSnapshot cached = principals.getIfPresent(userId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<PrincipalSnapshot> principal = userRepository.findById(userId).map(PrincipalSnapshot::of);
+        principal.ifPresent(snapshot -> principals.put(userId, snapshot));
+        return principal;
+    }
+
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        principals.invalidate(userId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidationPublisher.publishEvict(CACHE_NAME, userId.toString());
+            return;
+        }
+        // Evict again once the change is visible, in case a request reloaded the old row before the commit
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                principals.invalidate(userId);
+                invalidationPublisher.publishEvict(CACHE_NAME, userId.toString());
+            }
+        });
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidationPublisher.Invalidation invalidation = invalidationPublisher.receive(message.getBody());
+        if (invalidation == null || !CACHE_NAME.equals(invalidation.cacheName())) {
+            return;
+        }
+        if (invalidation.isClear()) {
+            principals.invalidateAll();
+            return;
+        }
+        try {
+            principals.invalidate(Long.valueOf(invalidation.key()));
+        } catch (NumberFormatException e) {
+            // Not a principal key; nothing to evict
+        }
+    }
+}
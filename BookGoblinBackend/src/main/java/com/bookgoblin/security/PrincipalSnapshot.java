@@ -0,0 +1,41 @@
+package com.bookgoblin.security;
+
+import com.bookgoblin.model.entity.User;
+import com.bookgoblin.model.enums.Role;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+// Immutable copy of the columns a request needs from its user; never the entity, and never the password
+@Value
+public class PrincipalSnapshot {
+    Long id;
+    String username;
+    String email;
+    String avatarUrl;
+    Role role;
+    int tokenVersion;
+    LocalDateTime createdAt;
+    LocalDateTime updatedAt;
+
+    public static PrincipalSnapshot of(User user) {
+        return new PrincipalSnapshot(user.getId(), user.getUsername(), user.getEmail(), user.getAvatarUrl(),
+                user.getRole(), user.currentTokenVersion(), user.getCreatedAt(), user.getUpdatedAt());
+    }
+
+    /**
+     * A fresh principal for one request, so whatever a caller does to it stays with that request.
+     */
+    public User toUser() {
+        return User.builder()
+                .id(id)
+                .username(username)
+                .email(email)
+                .avatarUrl(avatarUrl)
+                .role(role)
+                .tokenVersion(tokenVersion)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
@@ -0,0 +1,19 @@
+package com.bookgoblin.security;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+// Immutable view of a token whose signature and expiry have already been checked
+@Value
+public class VerifiedToken {
+    String subject;
+    Long userId;
+    String role;
+    Integer tokenVersion;
+    Instant expiresAt;
+
+    public boolean isExpired() {
+        return expiresAt != null && !Instant.now().isBefore(expiresAt);
+    }
+}
@@ -0,0 +1,89 @@
+package com.bookgoblin.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Maintains monthly RANGE COLUMNS(created_at) partitions on a MySQL activity_logs table that has been
+ * converted with db/mysql/activity_logs_partitioning.sql. Upcoming months are split off the catch-all
+ * p_future partition ahead of time, and months past retention are dropped as a metadata operation.
+ */
+@Component
+@ConditionalOnProperty(name = "activity.log.partitioning.enabled", havingValue = "true")
+@Slf4j
+public class ActivityLogPartitionManager {
+
+    private static final String FUTURE_PARTITION = "p_future";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    private static final DateTimeFormatter BOUND = DateTimeFormatter.ofPattern("yyyy-MM-01");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${activity.log.partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    public ActivityLogPartitionManager(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${activity.log.partitioning.cron:0 0 2 * * *}")
+    public void ensureFuturePartitions() {
+        List<String> partitions = partitionNames();
+        if (!partitions.contains(FUTURE_PARTITION)) {
+            log.warn("activity_logs has no {} partition; run db/mysql/activity_logs_partitioning.sql first",
+                    FUTURE_PARTITION);
+            return;
+        }
+
+        YearMonth month = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++, month = month.plusMonths(1)) {
+            String name = month.format(PARTITION_NAME);
+            if (partitions.contains(name)) {
+                continue;
+            }
+            jdbcTemplate.execute("ALTER TABLE activity_logs REORGANIZE PARTITION " + FUTURE_PARTITION + " INTO (" +
+                    "PARTITION " + name + " VALUES LESS THAN ('" + month.plusMonths(1).format(BOUND) + "'), " +
+                    "PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+            log.info("Created activity_logs partition {}", name);
+        }
+    }
+
+    /**
+     * Drops monthly partitions that end on or before {@code cutoff} and returns how many rows they held.
+     * Rows in the remaining boundary month are left for the chunked purge.
+     */
+    public long dropPartitionsBefore(LocalDateTime cutoff) {
+        List<String> expired = partitionNames().stream()
+                .filter(name -> name.matches("p\\d{6}"))
+                .filter(name -> !YearMonth.parse(name.substring(1), DateTimeFormatter.ofPattern("yyyyMM"))
+                        .plusMonths(1).atDay(1).atStartOfDay().isAfter(cutoff))
+                .toList();
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        // Counting reads only the expired partitions, and keeps the dashboard total exact without a full recount
+        Long rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM activity_logs PARTITION (" + String.join(", ", expired) + ")", Long.class);
+        jdbcTemplate.execute("ALTER TABLE activity_logs DROP PARTITION " + String.join(", ", expired));
+        log.info("Dropped activity_logs partitions {} ({} rows)", expired, rows);
+        return rows != null ? rows : 0;
+    }
+
+    private List<String> partitionNames() {
+        return jdbcTemplate.queryForList("SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'activity_logs' AND PARTITION_NAME IS NOT NULL " +
+                "ORDER BY PARTITION_ORDINAL_POSITION", String.class);
+    }
+}
@@ -0,0 +1,223 @@
+package com.bookgoblin.service;
+
+import com.bookgoblin.event.ActivityPurgedEvent;
+import com.bookgoblin.model.entity.JobCheckpoint;
+import com.bookgoblin.repository.JobCheckpointRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Deletes expired activity logs in id-ordered chunks, optionally archiving each chunk to a gzip'd
+ * NDJSON file first. Progress is checkpointed by id in {@code job_checkpoints}, so a run cut short by
+ * its time budget, an error or a restart picks up where it stopped on the next schedule.
+ */
+@Component
+@Slf4j
+public class ActivityLogRetentionJob {
+
+    private static final String SELECT_CHUNK = "SELECT id, user_id, activity_type, description, ip_address, " +
+            "user_agent, created_at FROM activity_logs WHERE id > ? AND created_at < ? ORDER BY id LIMIT ?";
+    private static final String DELETE_RANGE =
+            "DELETE FROM activity_logs WHERE id >= ? AND id <= ? AND created_at < ?";
+    private static final String CHECKPOINT_NAME = "activity-log-retention";
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<ActivityLogPartitionManager> partitionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JobCheckpointRepository jobCheckpointRepository;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong checkpoint = new AtomicLong();
+    private final Counter deleted;
+    private final Counter archived;
+    private final Timer chunkDuration;
+
+    @Value("${activity.log.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${activity.log.retention.days:90}")
+    private int retentionDays;
+
+    @Value("${activity.log.retention.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${activity.log.retention.throttle-ms:200}")
+    private long throttleMs;
+
+    @Value("${activity.log.retention.max-run-ms:600000}")
+    private long maxRunMs;
+
+    @Value("${activity.log.retention.archive.enabled:false}")
+    private boolean archiveEnabled;
+
+    @Value("${activity.log.retention.archive.directory:archive/activity-logs}")
+    private String archiveDirectory;
+
+    public ActivityLogRetentionJob(JdbcTemplate jdbcTemplate,
+                                   ObjectMapper objectMapper,
+                                   ObjectProvider<ActivityLogPartitionManager> partitionManager,
+                                   ApplicationEventPublisher eventPublisher,
+                                   JobCheckpointRepository jobCheckpointRepository,
+                                   MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.partitionManager = partitionManager;
+        this.eventPublisher = eventPublisher;
+        this.jobCheckpointRepository = jobCheckpointRepository;
+
+        meterRegistry.gauge("activity.log.retention.checkpoint", checkpoint);
+        this.deleted = Counter.builder("activity.log.retention.deleted").register(meterRegistry);
+        this.archived = Counter.builder("activity.log.retention.archived").register(meterRegistry);
+        this.chunkDuration = Timer.builder("activity.log.retention.chunk.duration").register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${activity.log.retention.cron:0 30 3 * * *}")
+    public void runScheduled() {
+        if (enabled) {
+            purge(retentionDays);
+        }
+    }
+
+    /**
+     * Purges logs older than {@code days}. Returns the number of rows deleted by this call, or -1 if
+     * another purge was already running.
+     */
+    public long purge(int days) {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Activity log retention already running, skipping");
+            return -1;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(days);
+        long deadline = System.currentTimeMillis() + maxRunMs;
+        long total = 0;
+        try (ArchiveFile archive = archiveEnabled ? openArchive(cutoff) : null) {
+            loadCheckpoint();
+            // Whole expired months go as partition drops; archiving needs the rows, so it takes the chunked path
+            if (archive == null) {
+                partitionManager.ifAvailable(manager -> {
+                    long dropped = manager.dropPartitionsBefore(cutoff);
+                    if (dropped > 0) {
+                        eventPublisher.publishEvent(new ActivityPurgedEvent(dropped));
+                    }
+                });
+            }
+            log.info("Purging activity logs before {} starting after id {}", cutoff, checkpoint.get());
+            while (System.currentTimeMillis() < deadline) {
+                long purged = purgeChunk(cutoff, archive);
+                if (purged < 0) {
+                    // Caught up; the next run scans from the start again
+                    saveCheckpoint(0);
+                    break;
+                }
+                total += purged;
+                TimeUnit.MILLISECONDS.sleep(throttleMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Activity log retention stopped after id {}: {}", checkpoint.get(), e.getMessage());
+        } finally {
+            running.set(false);
+        }
+        log.info("Purged {} activity logs (checkpoint id {})", total, checkpoint.get());
+        return total;
+    }
+
+    // Returns the rows deleted, or -1 once no expired rows remain past the checkpoint
+    private long purgeChunk(LocalDateTime cutoff, ArchiveFile archive) throws IOException {
+        long start = System.nanoTime();
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(SELECT_CHUNK, checkpoint.get(), cutoff, chunkSize);
+        if (rows.isEmpty()) {
+            return -1;
+        }
+        long firstId = ((Number) rows.get(0).get("id")).longValue();
+        long lastId = ((Number) rows.get(rows.size() - 1).get("id")).longValue();
+
+        if (archive != null) {
+            for (Map<String, Object> row : rows) {
+                archive.out().write(objectMapper.writeValueAsBytes(row));
+                archive.out().write('\n');
+            }
+            // The chunk must be durable before its rows are deleted
+            archive.sync();
+            archived.increment(rows.size());
+        }
+
+        // The chunk is every expired row in [firstId, lastId], so a range delete removes exactly it
+        int removed = jdbcTemplate.update(DELETE_RANGE, firstId, lastId, cutoff);
+        saveCheckpoint(lastId);
+        deleted.increment(removed);
+        eventPublisher.publishEvent(new ActivityPurgedEvent(removed));
+        chunkDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return removed;
+    }
+
+    private void loadCheckpoint() {
+        checkpoint.set(jobCheckpointRepository.findById(CHECKPOINT_NAME).map(JobCheckpoint::getLastId).orElse(0L));
+    }
+
+    // A crash before this lands only means rescanning ids whose rows are already gone
+    private void saveCheckpoint(long lastId) {
+        checkpoint.set(lastId);
+        jobCheckpointRepository.save(JobCheckpoint.builder()
+                .name(CHECKPOINT_NAME)
+                .lastId(lastId)
+                .updatedAt(LocalDateTime.now())
+                .build());
+    }
+
+    private ArchiveFile openArchive(LocalDateTime cutoff) throws IOException {
+        Path directory = Paths.get(archiveDirectory);
+        Files.createDirectories(directory);
+        Path file = directory.resolve("activity-logs-before-" + cutoff.format(FILE_TIMESTAMP) + ".ndjson.gz");
+        log.info("Archiving expired activity logs to {}", file.toAbsolutePath());
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        return new ArchiveFile(channel, new GZIPOutputStream(Channels.newOutputStream(channel), 64 * 1024, true));
+    }
+
+    private record ArchiveFile(FileChannel channel, GZIPOutputStream out) implements Closeable {
+
+        // Sync-flush the gzip stream, then fsync, so the bytes survive a crash and not just a process exit
+        void sync() throws IOException {
+            out.flush();
+            channel.force(true);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.finish();
+            channel.force(true);
+            out.close();
+        }
+    }
+}
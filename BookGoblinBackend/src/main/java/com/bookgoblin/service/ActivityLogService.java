@@ -9,7 +9,6 @@ import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -19,13 +18,13 @@ import java.time.LocalDateTime;
 public class ActivityLogService {
 
     private final ActivityLogRepository activityLogRepository;
+    private final ActivityLogWriter activityLogWriter;
+    private final ActivityLogRetentionJob activityLogRetentionJob;
 
-    @Async
     public void logActivity(User user, ActivityType activityType, String description) {
         logActivity(user, activityType, description, null, null);
     }
 
-    @Async
     public void logActivity(User user, ActivityType activityType, String description,
                             HttpServletRequest request) {
         String ipAddress = getClientIpAddress(request);
@@ -34,18 +33,9 @@ public class ActivityLogService {
         logActivity(user, activityType, description, ipAddress, userAgent);
     }
 
-    @Async
     public void logActivity(User user, ActivityType activityType, String description,
                             String ipAddress, String userAgent) {
-        ActivityLog activityLog = ActivityLog.builder()
-                .user(user)
-                .activityType(activityType)
-                .description(description)
-                .ipAddress(ipAddress)
-                .userAgent(userAgent)
-                .build();
-
-        activityLogRepository.save(activityLog);
+        activityLogWriter.submit(user != null ? user.getId() : null, activityType, description, ipAddress, userAgent);
     }
 
     public Page<ActivityLogResponse> getUserActivities(Long userId, Pageable pageable) {
@@ -65,11 +55,8 @@ public class ActivityLogService {
                 .map(this::toResponse);
     }
 
-    public void cleanupOldLogs(int days) {
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(days);
-        var oldLogs = activityLogRepository.findByCreatedAtBetween(
-                LocalDateTime.MIN, cutoffDate);
-        activityLogRepository.deleteAll(oldLogs);
+    public long cleanupOldLogs(int days) {
+        return activityLogRetentionJob.purge(days);
     }
 
     private ActivityLogResponse toResponse(ActivityLog activityLog) {
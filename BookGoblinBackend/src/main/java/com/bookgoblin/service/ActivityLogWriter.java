@@ -0,0 +1,223 @@
+package com.bookgoblin.service;
+
+import com.bookgoblin.event.ActivityLoggedEvent;
+import com.bookgoblin.model.enums.ActivityType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded pipeline for activity logs. Callers only enqueue; a single drainer thread writes multi-row
+ * INSERTs, so logging holds at most one pooled connection no matter how many requests are logging.
+ */
+@Component
+@Slf4j
+public class ActivityLogWriter {
+
+    public enum BackpressurePolicy {
+        // Reject new entries while the queue is full
+        DROP,
+        // Wait up to block-timeout-ms for space, then drop
+        BLOCK,
+        // Above sample-threshold, admit only a sample-rate fraction of new entries
+        SAMPLE
+    }
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO activity_logs (user_id, activity_type, description, ip_address, user_agent, created_at) VALUES ";
+    private static final String ROW_PLACEHOLDER = "(?, ?, ?, ?, ?, ?)";
+    private static final int COLUMNS = 6;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BlockingQueue<Entry> queue;
+    private final BackpressurePolicy policy;
+    private final long blockTimeoutMs;
+    private final double sampleThreshold;
+    private final double sampleRate;
+
+    private final Counter written;
+    private final Counter droppedOverflow;
+    private final Counter droppedSampled;
+    private final Counter droppedFailed;
+    private final Timer writeDuration;
+
+    @Value("${activity.log.writer.max-batch-size:200}")
+    private int maxBatchSize;
+
+    @Value("${activity.log.writer.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    private volatile boolean running;
+    private Thread drainer;
+
+    public ActivityLogWriter(JdbcTemplate jdbcTemplate,
+                             ApplicationEventPublisher eventPublisher,
+                             MeterRegistry meterRegistry,
+                             @Value("${activity.log.writer.capacity:10000}") int capacity,
+                             @Value("${activity.log.writer.backpressure:DROP}") BackpressurePolicy policy,
+                             @Value("${activity.log.writer.block-timeout-ms:50}") long blockTimeoutMs,
+                             @Value("${activity.log.writer.sample-threshold:0.8}") double sampleThreshold,
+                             @Value("${activity.log.writer.sample-rate:0.1}") double sampleRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.policy = policy;
+        this.blockTimeoutMs = blockTimeoutMs;
+        this.sampleThreshold = sampleThreshold;
+        this.sampleRate = sampleRate;
+
+        meterRegistry.gaugeCollectionSize("activity.log.queue.depth", List.of(), queue);
+        this.written = Counter.builder("activity.log.written").register(meterRegistry);
+        this.droppedOverflow = dropped(meterRegistry, "overflow");
+        this.droppedSampled = dropped(meterRegistry, "sampled");
+        this.droppedFailed = dropped(meterRegistry, "write-failed");
+        this.writeDuration = Timer.builder("activity.log.write.duration").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        drainer = new Thread(this::drainLoop, "activity-log-writer");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        drainer.interrupt();
+        try {
+            drainer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void submit(Long userId, ActivityType activityType, String description,
+                       String ipAddress, String userAgent) {
+        Entry entry = new Entry(userId, activityType, description, ipAddress, userAgent, LocalDateTime.now());
+        if (policy == BackpressurePolicy.SAMPLE && isAboveSampleThreshold()
+                && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            droppedSampled.increment();
+            return;
+        }
+        boolean accepted = policy == BackpressurePolicy.BLOCK ? offerBlocking(entry) : queue.offer(entry);
+        if (!accepted) {
+            droppedOverflow.increment();
+        }
+    }
+
+    private boolean isAboveSampleThreshold() {
+        int depth = queue.size();
+        return depth >= sampleThreshold * (depth + queue.remainingCapacity());
+    }
+
+    private boolean offerBlocking(Entry entry) {
+        try {
+            return queue.offer(entry, blockTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void drainLoop() {
+        List<Entry> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                writeDuration.record(() -> write(batch));
+            } catch (InterruptedException e) {
+                // stop() interrupts to cut the poll short; the loop condition drains whatever is left
+                if (running) {
+                    return;
+                }
+            } catch (Exception e) {
+                log.error("Activity log writer failed: {}", e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Entry> batch) {
+        List<Entry> inserted = batch;
+        try {
+            insert(batch);
+        } catch (Exception e) {
+            // One bad row (e.g. a user deleted in the meantime) must not cost the whole batch
+            log.warn("Multi-row insert of {} activity logs failed, retrying row by row: {}", batch.size(), e.getMessage());
+            inserted = new ArrayList<>(batch.size());
+            for (Entry entry : batch) {
+                try {
+                    insert(List.of(entry));
+                    inserted.add(entry);
+                } catch (Exception rowError) {
+                    droppedFailed.increment();
+                    log.debug("Dropping {} activity log for user {}: {}", entry.activityType(), entry.userId(),
+                            rowError.getMessage());
+                }
+            }
+        }
+        written.increment(inserted.size());
+        publishLogged(inserted);
+    }
+
+    private void publishLogged(List<Entry> entries) {
+        if (!entries.isEmpty()) {
+            eventPublisher.publishEvent(new ActivityLoggedEvent(entries.stream()
+                    .map(entry -> new ActivityLoggedEvent.Activity(entry.userId(), entry.activityType(), entry.createdAt()))
+                    .toList()));
+        }
+    }
+
+    private void insert(List<Entry> rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        Object[] args = new Object[rows.size() * COLUMNS];
+        int i = 0;
+        for (Entry row : rows) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDER);
+            args[i++] = row.userId();
+            args[i++] = row.activityType() != null ? row.activityType().name() : null;
+            args[i++] = row.description();
+            args[i++] = row.ipAddress();
+            args[i++] = row.userAgent();
+            args[i++] = row.createdAt();
+        }
+        jdbcTemplate.update(sql.toString(), args);
+    }
+
+    private static Counter dropped(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("activity.log.dropped")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private record Entry(Long userId, ActivityType activityType, String description,
+                         String ipAddress, String userAgent, LocalDateTime createdAt) {
+    }
+}
@@ -0,0 +1,212 @@
+package com.bookgoblin.service;
+
+import com.bookgoblin.event.ActivityLoggedEvent;
+import com.bookgoblin.event.ReadingProgressEvent;
+import com.bookgoblin.model.dto.response.ActivityTimeseriesPoint;
+import com.bookgoblin.model.entity.ActivityRollup;
+import com.bookgoblin.model.enums.ActivityType;
+import com.bookgoblin.model.enums.RollupGranularity;
+import com.bookgoblin.repository.ActivityRollupRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Folds activity and reading progress events into hourly and daily rollups. Increments are merged in
+ * memory and flushed periodically as update-then-insert upserts, so trend queries read a handful of
+ * bucket rows instead of scanning activity_logs.
+ */
+@Component
+@Slf4j
+public class ActivityRollupService {
+
+    private static final String UPDATE_SQL = "UPDATE activity_rollups SET event_count = event_count + ?, " +
+            "pages_read = pages_read + ?, updated_at = ? " +
+            "WHERE granularity = ? AND user_id = ? AND bucket_start = ? AND activity_type = ?";
+    private static final String INSERT_SQL = "INSERT INTO activity_rollups (granularity, user_id, bucket_start, " +
+            "activity_type, event_count, pages_read, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final ActivityRollupRepository activityRollupRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<RollupKey, Increment> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+    private final Counter upserted;
+    private final Timer flushDuration;
+
+    @Value("${activity.rollup.max-buckets:2000}")
+    private long maxBuckets;
+
+    public ActivityRollupService(ActivityRollupRepository activityRollupRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 MeterRegistry meterRegistry) {
+        this.activityRollupRepository = activityRollupRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+
+        meterRegistry.gaugeMapSize("activity.rollup.pending", List.of(), pending);
+        this.upserted = Counter.builder("activity.rollup.upserted").register(meterRegistry);
+        this.flushDuration = Timer.builder("activity.rollup.flush.duration").register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivityLogged(ActivityLoggedEvent event) {
+        for (ActivityLoggedEvent.Activity activity : event.activities()) {
+            if (activity.type() != null) {
+                record(activity.userId(), activity.type(), activity.createdAt(), 0);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReadingProgress(ReadingProgressEvent event) {
+        for (ReadingProgressEvent.Progress progress : event.updates()) {
+            record(progress.userId(), ActivityType.READING_PROGRESS_UPDATED, progress.recordedAt(),
+                    progress.pagesRead());
+        }
+    }
+
+    /**
+     * Returns the rollup rows for {@code [start, end)}, aligned to bucket boundaries. Without a
+     * {@code userId} the totals across all users are returned.
+     */
+    public List<ActivityTimeseriesPoint> getTimeseries(LocalDateTime start, LocalDateTime end,
+                                                       RollupGranularity granularity,
+                                                       ActivityType type, Long userId) {
+        LocalDateTime from = granularity.bucketStart(start);
+        if (!end.isAfter(from)) {
+            throw new RuntimeException("End must be after start");
+        }
+        long buckets = Duration.between(from, end).dividedBy(granularity == RollupGranularity.HOUR
+                ? Duration.ofHours(1) : Duration.ofDays(1));
+        if (buckets > maxBuckets) {
+            throw new RuntimeException("Range spans " + buckets + " " + granularity + " buckets; at most "
+                    + maxBuckets + " are allowed");
+        }
+
+        Long rollupUser = userId != null ? userId : ActivityRollup.ALL_USERS;
+        List<ActivityRollup> rollups = type != null
+                ? activityRollupRepository.findSeriesByType(granularity, rollupUser, from, end, type)
+                : activityRollupRepository.findSeries(granularity, rollupUser, from, end);
+        return rollups.stream()
+                .map(rollup -> ActivityTimeseriesPoint.builder()
+                        .bucketStart(rollup.getBucketStart())
+                        .activityType(rollup.getActivityType())
+                        .count(rollup.getEventCount())
+                        .pagesRead(rollup.getPagesRead())
+                        .build())
+                .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${activity.rollup.flush-interval-ms:10000}")
+    public void flush() {
+        if (pending.isEmpty() || !flushing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Map<RollupKey, Increment> batch = drain();
+            if (!batch.isEmpty()) {
+                flushDuration.record(() -> write(batch));
+            }
+        } finally {
+            flushing.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void record(Long userId, ActivityType type, LocalDateTime time, int pages) {
+        LocalDateTime at = time != null ? time : LocalDateTime.now();
+        Increment increment = new Increment(1, pages);
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            LocalDateTime bucket = granularity.bucketStart(at);
+            pending.merge(new RollupKey(granularity, ActivityRollup.ALL_USERS, bucket, type), increment,
+                    Increment::plus);
+            if (userId != null) {
+                pending.merge(new RollupKey(granularity, userId, bucket, type), increment, Increment::plus);
+            }
+        }
+    }
+
+    private Map<RollupKey, Increment> drain() {
+        Map<RollupKey, Increment> batch = new HashMap<>();
+        for (RollupKey key : pending.keySet()) {
+            Increment increment = pending.remove(key);
+            if (increment != null) {
+                batch.put(key, increment);
+            }
+        }
+        return batch;
+    }
+
+    private void write(Map<RollupKey, Increment> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> upsert(batch));
+            upserted.increment(batch.size());
+        } catch (Exception e) {
+            // The transaction rolled back, so nothing was applied; merge the increments back for the next flush
+            log.warn("Failed to flush {} activity rollups: {}", batch.size(), e.getMessage());
+            batch.forEach((key, increment) -> pending.merge(key, increment, Increment::plus));
+        }
+    }
+
+    // Update-then-insert works on every database we run on, unlike ON DUPLICATE KEY / ON CONFLICT
+    private void upsert(Map<RollupKey, Increment> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        List<RollupKey> keys = new ArrayList<>(batch.keySet());
+        List<Object[]> updates = new ArrayList<>(keys.size());
+        for (RollupKey key : keys) {
+            Increment increment = batch.get(key);
+            updates.add(new Object[]{increment.events(), increment.pages(), now,
+                    key.granularity().name(), key.userId(), key.bucketStart(), key.type().name()});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (updated[i] == 0) {
+                RollupKey key = keys.get(i);
+                Increment increment = batch.get(key);
+                inserts.add(new Object[]{key.granularity().name(), key.userId(), key.bucketStart(),
+                        key.type().name(), increment.events(), increment.pages(), now});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            // A concurrent insert of the same bucket by another node fails the unique key and retries next flush
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+    }
+
+    private record RollupKey(RollupGranularity granularity, Long userId, LocalDateTime bucketStart,
+                             ActivityType type) {
+    }
+
+    private record Increment(long events, long pages) {
+
+        Increment plus(Increment other) {
+            return new Increment(events + other.events, pages + other.pages);
+        }
+    }
+}
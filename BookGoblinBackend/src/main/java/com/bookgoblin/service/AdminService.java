@@ -1,30 +1,33 @@
 package com.bookgoblin.service;
 
+import com.bookgoblin.event.UserDeletedEvent;
 import com.bookgoblin.exception.UnauthorizedException;
 import com.bookgoblin.model.dto.response.AdminStatsResponse;
 import com.bookgoblin.model.entity.User;
 import com.bookgoblin.model.enums.ActivityType;
 import com.bookgoblin.model.enums.Role;
-import com.bookgoblin.repository.ActivityLogRepository;
-import com.bookgoblin.repository.BookRepository;
-import com.bookgoblin.repository.UserBookRepository;
+import com.bookgoblin.repository.LibraryRepository;
 import com.bookgoblin.repository.UserRepository;
+import com.bookgoblin.security.AuthenticatedUserCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 
 @Service
 @RequiredArgsConstructor
 public class AdminService {
 
     private final UserRepository userRepository;
-    private final BookRepository bookRepository;
-    private final UserBookRepository userBookRepository;
-    private final ActivityLogRepository activityLogRepository;
+    private final LibraryRepository libraryRepository;
+    private final AdminStatsCounters adminStatsCounters;
+    private final ApplicationEventPublisher eventPublisher;
     private final ActivityLogService activityLogService;
+    private final AuthenticatedUserCache authenticatedUserCache;
 
     public void checkAdmin(User user) {
         if (user.getRole() != Role.ADMIN) {
@@ -33,31 +36,7 @@ public class AdminService {
     }
 
     public AdminStatsResponse getStats() {
-        LocalDateTime todayStart = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime now = LocalDateTime.now();
-
-        Long totalUsers = userRepository.count();
-        Long newUsersToday = userRepository.countByCreatedAtBetween(todayStart, now);
-        Long activeUsersToday = activityLogRepository.countSince(todayStart);
-        Long totalBooks = bookRepository.count();
-        Long booksAddedToday = userBookRepository.countByAddedAtBetween(todayStart, now);
-        Long totalActivities = activityLogRepository.count();
-        Long activitiesToday = activityLogRepository.countSince(todayStart);
-
-        // Calculate average rating (this would need a proper query in real implementation)
-        Double averageRating = 4.5; // Placeholder
-
-        return AdminStatsResponse.builder()
-                .totalUsers(totalUsers)
-                .newUsersToday(newUsersToday)
-                .activeUsersToday(activeUsersToday)
-                .totalBooks(totalBooks)
-                .booksAddedToday(booksAddedToday)
-                .totalActivities(totalActivities)
-                .activitiesToday(activitiesToday)
-                .totalReviews(0L) // Would need review repository
-                .averageRating(averageRating)
-                .build();
+        return adminStatsCounters.snapshot();
     }
 
     public Page<User> getAllUsersForAdmin(Pageable pageable, User admin) {
@@ -65,6 +44,7 @@ public class AdminService {
         return userRepository.findAll(pageable);
     }
 
+    @CacheEvict(value = "users", key = "#userId")
     public User updateUserRole(Long userId, Role newRole, User admin) {
         checkAdmin(admin);
 
@@ -72,7 +52,10 @@ public class AdminService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         user.setRole(newRole);
+        // Existing tokens carry the old role claim, so force a fresh login
+        user.revokeTokens();
         User updatedUser = userRepository.save(user);
+        authenticatedUserCache.evict(userId);
 
         activityLogService.logActivity(
                 admin,
@@ -83,6 +66,8 @@ public class AdminService {
         return updatedUser;
     }
 
+    @Transactional
+    @CacheEvict(value = "users", key = "#userId")
     public void deactivateUser(Long userId, User admin) {
         checkAdmin(admin);
 
@@ -90,7 +75,10 @@ public class AdminService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         // In a real app, you'd have an active field instead of deleting
+        libraryRepository.deleteByUserId(userId);
         userRepository.delete(user);
+        authenticatedUserCache.evict(userId);
+        eventPublisher.publishEvent(new UserDeletedEvent(userId));
 
         activityLogService.logActivity(
                 admin,
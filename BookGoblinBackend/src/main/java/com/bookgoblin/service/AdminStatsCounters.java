@@ -0,0 +1,452 @@
+package com.bookgoblin.service;
+
+import com.bookgoblin.event.ActivityLoggedEvent;
+import com.bookgoblin.event.ActivityPurgedEvent;
+import com.bookgoblin.event.BookAddedEvent;
+import com.bookgoblin.event.BookRatedEvent;
+import com.bookgoblin.event.UserDeletedEvent;
+import com.bookgoblin.event.UserRegisteredEvent;
+import com.bookgoblin.model.dto.response.AdminStatsResponse;
+import com.bookgoblin.model.entity.AdminDailyStats;
+import com.bookgoblin.model.entity.AdminStatTotal;
+import com.bookgoblin.model.entity.JobCheckpoint;
+import com.bookgoblin.repository.ActivityLogRepository;
+import com.bookgoblin.repository.AdminDailyStatsRepository;
+import com.bookgoblin.repository.AdminStatTotalRepository;
+import com.bookgoblin.repository.BookRepository;
+import com.bookgoblin.repository.JobCheckpointRepository;
+import com.bookgoblin.repository.UserBookRepository;
+import com.bookgoblin.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory dashboard counters, kept current by domain events delivered after commit; each day's
+ * figures are persisted to admin_daily_stats. Every node only sees its own events, so daily counts are
+ * written as increments that add up across nodes, and totals are kept in admin_stat_totals, where each
+ * node adds its changes and reads back everyone's. The source tables are only counted when a total has
+ * no row yet, and by a reconcile that one node runs on a long interval.
+ */
+@Component
+@Slf4j
+public class AdminStatsCounters {
+
+    private static final String RECONCILE_JOB = "admin-stats-reconcile";
+
+    private final UserRepository userRepository;
+    private final BookRepository bookRepository;
+    private final UserBookRepository userBookRepository;
+    private final ActivityLogRepository activityLogRepository;
+    private final AdminDailyStatsRepository adminDailyStatsRepository;
+    private final AdminStatTotalRepository adminStatTotalRepository;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Total totalUsers;
+    private final Total totalBooks;
+    private final Total totalActivities;
+    private final Total ratingSum;
+    private final Total ratingCount;
+    private final List<Total> totals;
+    private final AtomicReference<Day> today = new AtomicReference<>(new Day(LocalDate.now()));
+    // Days closed by a rollover, waiting for the next persist
+    private final Queue<Day> closedDays = new ConcurrentLinkedQueue<>();
+
+    @Value("${admin.stats.reconcile.interval-ms:86400000}")
+    private long reconcileIntervalMs;
+
+    @Value("${admin.stats.reconcile.exact-count-below:100000}")
+    private long exactCountBelow;
+
+    @Value("${admin.stats.reconcile.tolerance:0.25}")
+    private double tolerance;
+
+    public AdminStatsCounters(UserRepository userRepository,
+                              BookRepository bookRepository,
+                              UserBookRepository userBookRepository,
+                              ActivityLogRepository activityLogRepository,
+                              AdminDailyStatsRepository adminDailyStatsRepository,
+                              AdminStatTotalRepository adminStatTotalRepository,
+                              JobCheckpointRepository jobCheckpointRepository,
+                              JdbcTemplate jdbcTemplate) {
+        this.userRepository = userRepository;
+        this.bookRepository = bookRepository;
+        this.userBookRepository = userBookRepository;
+        this.activityLogRepository = activityLogRepository;
+        this.adminDailyStatsRepository = adminDailyStatsRepository;
+        this.adminStatTotalRepository = adminStatTotalRepository;
+        this.jobCheckpointRepository = jobCheckpointRepository;
+        this.jdbcTemplate = jdbcTemplate;
+
+        this.totalUsers = new Total("users", "users", true, userRepository::count);
+        this.totalBooks = new Total("books", "books", true, bookRepository::count);
+        this.totalActivities = new Total("activities", "activity_logs", true, activityLogRepository::count);
+        this.ratingSum = new Total("rating_sum", "user_books", false,
+                () -> userBookRepository.aggregateRatings().getTotal());
+        this.ratingCount = new Total("rating_count", "user_books", false,
+                () -> userBookRepository.aggregateRatings().getRatings());
+        this.totals = List.of(totalUsers, totalBooks, totalActivities, ratingSum, ratingCount);
+    }
+
+    public AdminStatsResponse snapshot() {
+        Day day = currentDay();
+        return AdminStatsResponse.builder()
+                .totalUsers(totalUsers.get())
+                .newUsersToday(day.newUsers.get())
+                .activeUsersToday((long) day.activeUsers.size())
+                .totalBooks(totalBooks.get())
+                .booksAddedToday(day.booksAdded.get())
+                .totalActivities(totalActivities.get())
+                .activitiesToday(day.activities.get())
+                .totalReviews(0L) // Would need review repository
+                .averageRating(averageRating())
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LocalDate date = LocalDate.now();
+        LocalDateTime start = date.atStartOfDay();
+        LocalDateTime end = start.plusDays(1);
+
+        Day day = new Day(date);
+        day.newUsers.set(userRepository.countByCreatedAtBetween(start, end));
+        day.booksAdded.set(userBookRepository.countByAddedAtBetween(start, end));
+        day.activities.set(activityLogRepository.countBetween(start, end));
+        activityLogRepository.findDistinctUserIdsBetween(start, end).stream()
+                .filter(Objects::nonNull)
+                .forEach(day.activeUsers::add);
+        // Whoever saw these before the restart already wrote them; only what happens from now on is added
+        day.persistedNewUsers.set(day.newUsers.get());
+        day.persistedBooksAdded.set(day.booksAdded.get());
+        day.persistedActivities.set(day.activities.get());
+        today.set(day);
+
+        Map<String, Long> stored = storedTotals();
+        for (Total total : totals) {
+            Long value = stored.get(total.name);
+            total.shared.set(value != null ? value : seed(total));
+        }
+        log.info("Admin stats rebuilt: {} users, {} books, {} activities", totalUsers.get(), totalBooks.get(),
+                totalActivities.get());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        totalUsers.add(1);
+        currentDay().newUsers.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        totalUsers.add(-1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookAdded(BookAddedEvent event) {
+        if (event.newBook()) {
+            totalBooks.add(1);
+        }
+        currentDay().booksAdded.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookRated(BookRatedEvent event) {
+        if (event.previousRating() != null) {
+            ratingSum.add(-event.previousRating());
+            ratingCount.add(-1);
+        }
+        if (event.rating() != null) {
+            ratingSum.add(event.rating());
+            ratingCount.add(1);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivityLogged(ActivityLoggedEvent event) {
+        totalActivities.add(event.activities().size());
+        Day day = currentDay();
+        day.activities.addAndGet(event.activities().size());
+        event.activities().stream()
+                .map(ActivityLoggedEvent.Activity::userId)
+                .filter(Objects::nonNull)
+                .forEach(day.activeUsers::add);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivityPurged(ActivityPurgedEvent event) {
+        totalActivities.add(-event.deleted());
+    }
+
+    @Scheduled(fixedDelayString = "${admin.stats.persist-interval-ms:300000}")
+    public void persistToday() {
+        Day day = currentDay();
+        try {
+            // Other nodes change the totals too; share ours and read theirs so every node writes the same figures
+            flushTotals();
+        } catch (Exception e) {
+            log.warn("Failed to sync admin stat totals: {}", e.getMessage());
+        }
+
+        List<Day> failed = new ArrayList<>();
+        Day closed;
+        while ((closed = closedDays.poll()) != null) {
+            if (!persist(closed)) {
+                failed.add(closed);
+            }
+        }
+        closedDays.addAll(failed);
+        persist(day);
+    }
+
+    /**
+     * Corrects drift the events cannot see (a crash between a write and its event, a manual DB edit).
+     * At most one node runs it per half interval. Small tables are counted exactly; for large ones the
+     * database's row estimate is checked first and the exact count only runs when a total is off by more
+     * than the tolerance. Rating totals have no estimate to check, so they are only recounted while
+     * user_books is small.
+     */
+    @Scheduled(fixedDelayString = "${admin.stats.reconcile.interval-ms:86400000}",
+            initialDelayString = "${admin.stats.reconcile.initial-delay-ms:3600000}")
+    public void reconcile() {
+        LocalDateTime now = LocalDateTime.now();
+        if (!claimReconcile(now)) {
+            log.debug("Admin stats reconcile ran recently on another node, skipping");
+            return;
+        }
+        flushTotals();
+        for (Total total : totals) {
+            try {
+                reconcile(total, now);
+            } catch (Exception e) {
+                log.warn("Failed to reconcile admin stat {}: {}", total.name, e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        persistToday();
+    }
+
+    private void reconcile(Total total, LocalDateTime now) {
+        Long rows = estimateRows(total.table);
+        boolean small = rows == null || rows < exactCountBelow;
+        boolean drifted = total.estimable && rows != null && Math.abs(rows - total.get()) > tolerance * rows;
+        if (!small && !drifted) {
+            return;
+        }
+        long counted = total.count.getAsLong();
+        long current = total.get();
+        if (counted != current) {
+            // Events counted since the flush above are already in the fresh count
+            adminStatTotalRepository.set(total.name, counted, now);
+            total.shared.set(counted);
+            total.pending.set(0);
+            log.info("Admin stat {} reconciled from {} to {}", total.name, current, counted);
+        }
+    }
+
+    // InnoDB's estimate from information_schema; null where the database offers none (the H2 dev database)
+    private Long estimateRows(String table) {
+        try {
+            return jdbcTemplate.queryForObject("SELECT TABLE_ROWS FROM information_schema.TABLES " +
+                    "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?", Long.class, table);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    // The reconcile row in job_checkpoints is the lock: whoever moves its timestamp forward runs
+    private boolean claimReconcile(LocalDateTime now) {
+        LocalDateTime staleBefore = now.minus(Duration.ofMillis(reconcileIntervalMs / 2));
+        if (jobCheckpointRepository.claim(RECONCILE_JOB, now, staleBefore) == 1) {
+            return true;
+        }
+        if (jobCheckpointRepository.existsById(RECONCILE_JOB)) {
+            return false;
+        }
+        try {
+            jobCheckpointRepository.save(JobCheckpoint.builder().name(RECONCILE_JOB).lastId(0L).updatedAt(now).build());
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private void flushTotals() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Total total : totals) {
+            long delta = total.pending.getAndSet(0);
+            if (delta == 0) {
+                continue;
+            }
+            try {
+                if (adminStatTotalRepository.add(total.name, delta, now) == 0) {
+                    // No row yet (the startup load failed); a fresh count already includes these changes
+                    total.shared.set(seed(total));
+                }
+            } catch (Exception e) {
+                total.pending.addAndGet(delta);
+                throw e;
+            }
+        }
+        Map<String, Long> stored = storedTotals();
+        for (Total total : totals) {
+            Long value = stored.get(total.name);
+            if (value != null) {
+                total.shared.set(value);
+            }
+        }
+    }
+
+    private Map<String, Long> storedTotals() {
+        return adminStatTotalRepository.findAll().stream()
+                .collect(Collectors.toMap(AdminStatTotal::getName, AdminStatTotal::getTotal));
+    }
+
+    // Only runs when a total has no row, i.e. on the first start against a database the migration did not seed
+    private long seed(Total total) {
+        long counted = total.count.getAsLong();
+        try {
+            adminStatTotalRepository.save(AdminStatTotal.builder()
+                    .name(total.name)
+                    .total(counted)
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+            return counted;
+        } catch (DataIntegrityViolationException e) {
+            // Another node seeded it first
+            return adminStatTotalRepository.findById(total.name).map(AdminStatTotal::getTotal).orElse(counted);
+        }
+    }
+
+    private Day currentDay() {
+        Day day = today.get();
+        LocalDate date = LocalDate.now();
+        if (day.date.equals(date)) {
+            return day;
+        }
+        Day next = new Day(date);
+        if (today.compareAndSet(day, next)) {
+            // Listeners run in after-commit callbacks, where a repository save would not commit; defer it
+            closedDays.add(day);
+            return next;
+        }
+        return today.get();
+    }
+
+    private boolean persist(Day day) {
+        // Only what was counted since the last successful write is added, so no node overwrites another's
+        long newUsers = day.newUsers.get() - day.persistedNewUsers.get();
+        long booksAdded = day.booksAdded.get() - day.persistedBooksAdded.get();
+        long activities = day.activities.get() - day.persistedActivities.get();
+        try {
+            LocalDateTime start = day.date.atStartOfDay();
+            long activeUsers = activityLogRepository.countDistinctUsersBetween(start, start.plusDays(1));
+            if (addToDay(day, newUsers, booksAdded, activities, activeUsers) == 0) {
+                try {
+                    adminDailyStatsRepository.save(AdminDailyStats.builder()
+                            .statDate(day.date)
+                            .newUsers(newUsers)
+                            .booksAdded(booksAdded)
+                            .activities(activities)
+                            .activeUsers(activeUsers)
+                            .totalUsers(totalUsers.get())
+                            .totalBooks(totalBooks.get())
+                            .totalActivities(totalActivities.get())
+                            .averageRating(averageRating())
+                            .build());
+                } catch (DataIntegrityViolationException e) {
+                    // Another node created the day's row first
+                    addToDay(day, newUsers, booksAdded, activities, activeUsers);
+                }
+            }
+            day.persistedNewUsers.addAndGet(newUsers);
+            day.persistedBooksAdded.addAndGet(booksAdded);
+            day.persistedActivities.addAndGet(activities);
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to persist admin stats for {}: {}", day.date, e.getMessage());
+            return false;
+        }
+    }
+
+    private int addToDay(Day day, long newUsers, long booksAdded, long activities, long activeUsers) {
+        return adminDailyStatsRepository.addToDay(day.date, newUsers, booksAdded, activities, activeUsers,
+                totalUsers.get(), totalBooks.get(), totalActivities.get(), averageRating(), LocalDateTime.now());
+    }
+
+    private Double averageRating() {
+        long count = ratingCount.get();
+        return count > 0 ? (double) ratingSum.get() / count : 0.0;
+    }
+
+    /**
+     * A shared total as last read from admin_stat_totals, plus this node's changes not yet added to it.
+     */
+    private static final class Total {
+        private final String name;
+        private final String table;
+        // Whether the table's row estimate approximates this total
+        private final boolean estimable;
+        private final LongSupplier count;
+        private final AtomicLong shared = new AtomicLong();
+        private final AtomicLong pending = new AtomicLong();
+
+        private Total(String name, String table, boolean estimable, LongSupplier count) {
+            this.name = name;
+            this.table = table;
+            this.estimable = estimable;
+            this.count = count;
+        }
+
+        private long get() {
+            return shared.get() + pending.get();
+        }
+
+        private void add(long delta) {
+            pending.addAndGet(delta);
+        }
+    }
+
+    private static final class Day {
+        private final LocalDate date;
+        private final AtomicLong newUsers = new AtomicLong();
+        private final AtomicLong booksAdded = new AtomicLong();
+        private final AtomicLong activities = new AtomicLong();
+        private final Set<Long> activeUsers = ConcurrentHashMap.newKeySet();
+        // Portion of the counts above already added to admin_daily_stats
+        private final AtomicLong persistedNewUsers = new AtomicLong();
+        private final AtomicLong persistedBooksAdded = new AtomicLong();
+        private final AtomicLong persistedActivities = new AtomicLong();
+
+        private Day(LocalDate date) {
+            this.date = date;
+        }
+    }
+}
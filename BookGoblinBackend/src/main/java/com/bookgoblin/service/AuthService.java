@@ -1,5 +1,6 @@
 package com.bookgoblin.service;
 
+import com.bookgoblin.event.UserRegisteredEvent;
 import com.bookgoblin.model.dto.request.LoginRequest;
 import com.bookgoblin.model.dto.request.RegisterRequest;
 import com.bookgoblin.model.dto.response.AuthResponse;
@@ -8,6 +9,7 @@ import com.bookgoblin.model.entity.User;
 import com.bookgoblin.repository.LibraryRepository;
 import com.bookgoblin.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -22,6 +24,7 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final ApplicationEventPublisher eventPublisher;
 
     public AuthResponse register(RegisterRequest request) {
         // Check if user already exists
@@ -47,6 +50,7 @@ public class AuthService {
                 .user(user)
                 .build();
         libraryRepository.save(library);
+        eventPublisher.publishEvent(new UserRegisteredEvent(user.getId()));
 
         // Generate token
         String jwtToken = jwtService.generateToken(user);
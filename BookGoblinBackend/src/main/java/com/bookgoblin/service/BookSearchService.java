@@ -0,0 +1,108 @@
+package com.bookgoblin.service;
+
+import com.bookgoblin.model.dto.response.BookResponse;
+import com.bookgoblin.search.BookSearchIndex;
+import com.bookgoblin.util.Validator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Book search that answers from the local index first and only asks OpenLibrary for the part of a
+ * page the books table cannot fill.
+ */
+@Service
+public class BookSearchService {
+
+    private final BookSearchIndex bookSearchIndex;
+    private final OpenLibraryService openLibraryService;
+    private final Counter localOnly;
+    private final Counter upstreamFill;
+
+    @Value("${books.search.local.enabled:true}")
+    private boolean localEnabled;
+
+    public BookSearchService(BookSearchIndex bookSearchIndex,
+                             OpenLibraryService openLibraryService,
+                             MeterRegistry meterRegistry) {
+        this.bookSearchIndex = bookSearchIndex;
+        this.openLibraryService = openLibraryService;
+        this.localOnly = Counter.builder("books.search.requests").tag("source", "local").register(meterRegistry);
+        this.upstreamFill = Counter.builder("books.search.requests").tag("source", "openlibrary").register(meterRegistry);
+    }
+
+    /**
+     * Pages through one stream: every local hit first, then OpenLibrary's results in its own order with
+     * the books already listed locally left out. Upstream results keep their upstream position, so a page
+     * whose slice held such duplicates comes back short instead of shifting every later page.
+     */
+    public List<BookResponse> searchBooks(String query, int page, int limit) {
+        if (!localEnabled || !bookSearchIndex.isReady()) {
+            upstreamFill.increment();
+            return openLibraryService.searchBooks(query, page, limit);
+        }
+
+        int offset = Math.max(page - 1, 0) * limit;
+        List<BookResponse> local = bookSearchIndex.search(query, offset + limit);
+        if (local.size() >= offset + limit) {
+            localOnly.increment();
+            return local.subList(offset, offset + limit);
+        }
+
+        // Fewer hits than asked for means this is every local hit, and the upstream part starts at 0
+        List<BookResponse> results = new ArrayList<>(local.subList(Math.min(offset, local.size()), local.size()));
+        Set<String> listedLocally = new HashSet<>();
+        local.forEach(book -> listedLocally.addAll(identities(book)));
+
+        upstreamFill.increment();
+        int upstreamFrom = Math.max(offset - local.size(), 0);
+        int upstreamTo = offset + limit - local.size();
+        for (BookResponse book : upstreamRange(query, upstreamFrom, upstreamTo, limit)) {
+            if (identities(book).stream().noneMatch(listedLocally::contains)) {
+                results.add(book);
+            }
+        }
+        return results;
+    }
+
+    // Reads [from, to) of OpenLibrary's results through the same cached pages the upstream-only path uses
+    private List<BookResponse> upstreamRange(String query, int from, int to, int pageSize) {
+        int firstPage = from / pageSize;
+        int lastPage = (to - 1) / pageSize;
+        List<BookResponse> window = new ArrayList<>();
+        for (int page = firstPage; page <= lastPage; page++) {
+            List<BookResponse> books = openLibraryService.searchBooks(query, page + 1, pageSize);
+            window.addAll(books);
+            if (books.size() < pageSize) {
+                break;
+            }
+        }
+        int start = from - firstPage * pageSize;
+        return start >= window.size() ? List.of() : window.subList(start, Math.min(to - firstPage * pageSize,
+                window.size()));
+    }
+
+    // Local rows keep the edition key from an ISBN lookup while search returns work keys, so one key
+    // matching is enough: the upstream key, the ISBN or the title and author
+    private static List<String> identities(BookResponse book) {
+        List<String> keys = new ArrayList<>(3);
+        if (book.getOpenLibraryId() != null) {
+            keys.add("ol:" + book.getOpenLibraryId());
+        }
+        String isbn = Validator.normalizeIsbn(book.getIsbn());
+        if (isbn != null) {
+            keys.add("isbn:" + isbn);
+        }
+        if (book.getTitle() != null) {
+            keys.add("title:" + (book.getTitle() + "|" + book.getAuthor()).toLowerCase(Locale.ROOT));
+        }
+        return keys;
+    }
+}
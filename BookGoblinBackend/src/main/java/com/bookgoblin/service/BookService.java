@@ -1,22 +1,38 @@
 package com.bookgoblin.service;
 
+import com.bookgoblin.event.BookAddedEvent;
+import com.bookgoblin.event.BookRatedEvent;
+import com.bookgoblin.event.ReadingProgressEvent;
 import com.bookgoblin.model.dto.request.BookRequest;
+import com.bookgoblin.model.dto.request.RateBookRequest;
 import com.bookgoblin.model.dto.request.UpdateProgressRequest;
 import com.bookgoblin.model.dto.response.BookResponse;
+import com.bookgoblin.model.dto.response.CursorPage;
+import com.bookgoblin.model.dto.response.LibraryBookSummary;
 import com.bookgoblin.model.entity.Book;
-import com.bookgoblin.model.entity.Library;
 import com.bookgoblin.model.entity.User;
 import com.bookgoblin.model.entity.UserBook;
 import com.bookgoblin.model.enums.BookStatus;
+import com.bookgoblin.model.enums.Genre;
+import com.bookgoblin.model.enums.LibrarySort;
 import com.bookgoblin.repository.BookRepository;
-import com.bookgoblin.repository.LibraryRepository;
+import com.bookgoblin.repository.LibraryPageQuery;
 import com.bookgoblin.repository.UserBookRepository;
+import com.bookgoblin.util.Constants;
+import com.bookgoblin.util.Validator;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -25,23 +41,30 @@ public class BookService {
 
     private final BookRepository bookRepository;
     private final UserBookRepository userBookRepository;
-    private final LibraryRepository libraryRepository;
     private final OpenLibraryService openLibraryService;
+    private final LibraryStatsService libraryStatsService;
+    private final ReadingProgressBuffer readingProgressBuffer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${library.rating.max-attempts:5}")
+    private int ratingMaxAttempts;
 
     @Transactional
     public Book addBookToLibrary(BookRequest request, User user) {
-        // Try to find book by ISBN first
+        // Try to find book by ISBN first; stored bare, like the importer does, so either spelling finds it
         Book book = null;
-        if (request.getIsbn() != null && !request.getIsbn().isEmpty()) {
-            book = bookRepository.findByIsbn(request.getIsbn())
+        String isbn = Validator.normalizeIsbn(request.getIsbn());
+        if (isbn != null) {
+            book = bookRepository.findByIsbn(isbn)
                     .orElseGet(() -> {
                         // Try to fetch from OpenLibrary
-                        BookResponse openLibraryBook = openLibraryService.getBookByISBN(request.getIsbn());
+                        BookResponse openLibraryBook = openLibraryService.getBookByISBN(isbn);
                         if (openLibraryBook != null) {
                             return Book.builder()
                                     .title(openLibraryBook.getTitle())
                                     .author(openLibraryBook.getAuthor())
-                                    .isbn(request.getIsbn())
+                                    .isbn(isbn)
                                     .coverId(openLibraryBook.getCoverId())
                                     .pages(openLibraryBook.getPages())
                                     .publishedYear(openLibraryBook.getPublishedYear())
@@ -58,14 +81,15 @@ public class BookService {
             book = Book.builder()
                     .title(request.getTitle())
                     .author(request.getAuthor())
-                    .isbn(request.getIsbn())
+                    .isbn(isbn)
                     .pages(request.getPages())
                     .publishedYear(request.getPublishedYear())
                     .build();
         }
 
         // Save book if new
-        if (book.getId() == null) {
+        boolean newBook = book.getId() == null;
+        if (newBook) {
             book = bookRepository.save(book);
         }
 
@@ -87,7 +111,9 @@ public class BookService {
         userBookRepository.save(userBook);
 
         // Update library stats
-        updateLibraryStats(user.getId());
+        libraryStatsService.applyDelta(user.getId(),
+                LibraryStatsDelta.added(userBook.getStatus(), userBook.getCurrentPage()));
+        eventPublisher.publishEvent(new BookAddedEvent(user.getId(), book.getId(), newBook));
 
         return book;
     }
@@ -121,57 +147,135 @@ public class BookService {
                 .toList();
     }
 
+    /**
+     * One page of the user's library, continuing after {@code cursor} (null for the first page).
+     */
+    public CursorPage<LibraryBookSummary> getUserBooksPage(Long userId, BookStatus status, Genre genre,
+                                                           Integer minRating, LibrarySort sort, boolean ascending,
+                                                           String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, Constants.MAX_LIBRARY_PAGE_SIZE));
+        LibraryPageQuery.Cursor after = cursor != null && !cursor.isBlank()
+                ? decodeCursor(cursor, sort, ascending) : null;
+
+        // One extra row tells whether another page follows without a count query
+        List<LibraryBookSummary> rows = userBookRepository.findLibraryPage(userId,
+                new LibraryPageQuery(status, genre, minRating, sort, ascending, after, pageSize + 1));
+        if (rows.size() <= pageSize) {
+            return CursorPage.<LibraryBookSummary>builder().items(rows).build();
+        }
+        List<LibraryBookSummary> items = rows.subList(0, pageSize);
+        return CursorPage.<LibraryBookSummary>builder()
+                .items(items)
+                .nextCursor(encodeCursor(items.get(pageSize - 1), sort, ascending))
+                .build();
+    }
+
+    // The cursor names its sort and direction, so it cannot be replayed against a different order
+    private static String encodeCursor(LibraryBookSummary last, LibrarySort sort, boolean ascending) {
+        String value = String.join("|", sort.name(), ascending ? "ASC" : "DESC",
+                String.valueOf(last.getUserRating() != null ? last.getUserRating() : 0),
+                last.getAddedAt().toString(), last.getUserBookId().toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static LibraryPageQuery.Cursor decodeCursor(String cursor, LibrarySort sort, boolean ascending) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length == 5 && parts[0].equals(sort.name()) && parts[1].equals(ascending ? "ASC" : "DESC")) {
+                return new LibraryPageQuery.Cursor(Integer.parseInt(parts[2]), LocalDateTime.parse(parts[3]),
+                        Long.parseLong(parts[4]));
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // Reported below
+        }
+        throw new RuntimeException("Invalid cursor for this sort order");
+    }
+
+    public void recordReadingProgress(Long userId, Long userBookId, UpdateProgressRequest request) {
+        if (request.getCurrentPage() == null) {
+            throw new RuntimeException("Current page is required");
+        }
+        if (readingProgressBuffer.isEnabled()) {
+            readingProgressBuffer.submit(userId, userBookId, request.getCurrentPage());
+        } else {
+            updateReadingProgress(userId, userBookId, request);
+        }
+    }
+
     @Transactional
-    public void updateReadingProgress(Long userBookId, UpdateProgressRequest request) {
-        UserBook userBook = userBookRepository.findById(userBookId)
+    public void updateReadingProgress(Long userId, Long userBookId, UpdateProgressRequest request) {
+        UserBook userBook = userBookRepository.lockForProgress(List.of(userBookId)).stream()
+                .findFirst()
+                .filter(candidate -> candidate.getUser().getId().equals(userId))
                 .orElseThrow(() -> new RuntimeException("Book not found in library"));
 
+        BookStatus oldStatus = userBook.getStatus();
+        int oldPage = userBook.getCurrentPage() != null ? userBook.getCurrentPage() : 0;
+
         userBook.setCurrentPage(request.getCurrentPage());
 
         // Update status based on progress
-        Book book = userBook.getBook();
-        if (request.getCurrentPage() >= book.getPages()) {
-            userBook.setStatus(BookStatus.READ);
+        BookStatus newStatus = statusForProgress(oldStatus, request.getCurrentPage(), userBook.getBook().getPages());
+        userBook.setStatus(newStatus);
+        if (newStatus == BookStatus.READ) {
             userBook.setFinishedReading(LocalDateTime.now());
-        } else if (request.getCurrentPage() > 0) {
-            userBook.setStatus(BookStatus.READING);
-            if (userBook.getStartedReading() == null) {
-                userBook.setStartedReading(LocalDateTime.now());
-            }
+        } else if (newStatus == BookStatus.READING && userBook.getStartedReading() == null) {
+            userBook.setStartedReading(LocalDateTime.now());
         }
 
         userBookRepository.save(userBook);
-        updateLibraryStats(userBook.getUser().getId());
+        libraryStatsService.applyDelta(userBook.getUser().getId(),
+                LibraryStatsDelta.transition(oldStatus, oldPage, userBook.getStatus(), userBook.getCurrentPage()));
+        eventPublisher.publishEvent(new ReadingProgressEvent(List.of(new ReadingProgressEvent.Progress(
+                userBook.getUser().getId(), userBookId, userBook.getBook().getId(), oldPage,
+                userBook.getCurrentPage(), newStatus == BookStatus.READ && oldStatus != BookStatus.READ,
+                LocalDateTime.now()))));
+    }
+
+    /**
+     * Sets or clears the user's rating and folds the change into the book's average. Each attempt runs in
+     * a transaction of its own, so a compare-and-set lost to a concurrent change is retried on a fresh read.
+     */
+    public void rateBook(Long userId, Long userBookId, RateBookRequest request) {
+        for (int attempt = 1; ; attempt++) {
+            if (Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                    applyRating(userId, userBookId, request.getRating())))) {
+                return;
+            }
+            if (attempt >= ratingMaxAttempts) {
+                throw new RuntimeException("Rating was changed concurrently, please retry");
+            }
+        }
+    }
+
+    private boolean applyRating(Long userId, Long userBookId, Integer rating) {
+        UserBook userBook = userBookRepository.findById(userBookId)
+                .filter(candidate -> candidate.getUser().getId().equals(userId))
+                .orElseThrow(() -> new RuntimeException("Book not found in library"));
+
+        Integer previous = userBook.getRating();
+        if (Objects.equals(previous, rating)) {
+            return true;
+        }
+        // A concurrent change to the same rating would otherwise fold the same previous value out twice
+        if (userBookRepository.compareAndSetRating(userBookId, previous != null ? previous : 0, rating) == 0) {
+            return false;
+        }
+
+        int countDelta = (rating != null ? 1 : 0) - (previous != null ? 1 : 0);
+        int sumDelta = (rating != null ? rating : 0) - (previous != null ? previous : 0);
+        Long bookId = userBook.getBook().getId();
+        bookRepository.applyRatingDelta(bookId, countDelta, sumDelta);
+        eventPublisher.publishEvent(new BookRatedEvent(userId, bookId, previous, rating));
+        return true;
     }
 
-    private void updateLibraryStats(Long userId) {
-        Library library = libraryRepository.findByUserId(userId)
-                .orElseGet(() -> Library.builder().user(User.builder().id(userId).build()).build());
-
-        List<UserBook> userBooks = userBookRepository.findByUserId(userId);
-
-        long totalBooks = userBooks.size();
-        long booksRead = userBooks.stream()
-                .filter(ub -> ub.getStatus() == BookStatus.READ)
-                .count();
-        long booksReading = userBooks.stream()
-                .filter(ub -> ub.getStatus() == BookStatus.READING)
-                .count();
-        long booksToRead = userBooks.stream()
-                .filter(ub -> ub.getStatus() == BookStatus.WANT_TO_READ)
-                .count();
-
-        int totalPagesRead = userBooks.stream()
-                .filter(ub -> ub.getStatus() == BookStatus.READ)
-                .mapToInt(UserBook::getCurrentPage)
-                .sum();
-
-        library.setTotalBooks((int) totalBooks);
-        library.setBooksRead((int) booksRead);
-        library.setBooksReading((int) booksReading);
-        library.setBooksToRead((int) booksToRead);
-        library.setTotalPagesRead(totalPagesRead);
-
-        libraryRepository.save(library);
+    static BookStatus statusForProgress(BookStatus currentStatus, int currentPage, Integer totalPages) {
+        if (totalPages != null && currentPage >= totalPages) {
+            return BookStatus.READ;
+        } else if (currentPage > 0) {
+            return BookStatus.READING;
+        }
+        return currentStatus;
     }
-}
\ No newline at end of file
+}
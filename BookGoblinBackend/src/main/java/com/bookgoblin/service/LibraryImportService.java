@@ -0,0 +1,436 @@
+package com.bookgoblin.service;
+
+import com.bookgoblin.event.BookAddedEvent;
+import com.bookgoblin.model.dto.request.BookRequest;
+import com.bookgoblin.model.dto.response.BookResponse;
+import com.bookgoblin.model.dto.response.ImportRowResult;
+import com.bookgoblin.model.dto.response.ImportSummary;
+import com.bookgoblin.model.entity.Book;
+import com.bookgoblin.model.enums.BookStatus;
+import com.bookgoblin.repository.BookRepository;
+import com.bookgoblin.repository.UserBookRepository;
+import com.bookgoblin.repository.projection.LibraryBookKey;
+import com.bookgoblin.util.CsvReader;
+import com.bookgoblin.util.Validator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Adds many books to a library in one request. Rows are deduplicated against each other and the
+ * existing library, known books are resolved per chunk with one IN query, unknown ISBNs go to
+ * OpenLibrary in batched multi-ISBN calls, and user books are inserted in JDBC batches. Re-running an
+ * import skips everything already in the library, so a retried upload is harmless.
+ */
+@Service
+@Slf4j
+public class LibraryImportService {
+
+    public enum ImportFormat {
+        CSV,
+        NDJSON
+    }
+
+    /**
+     * A parsed input row; {@code error} is set when the row could not be read.
+     */
+    public record ImportRow(int row, BookRequest request, String error) {
+    }
+
+    private static final String INSERT_USER_BOOK = "INSERT INTO user_books (user_id, book_id, status, current_page, " +
+            "added_at, started_reading, finished_reading) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final BookRepository bookRepository;
+    private final UserBookRepository userBookRepository;
+    private final OpenLibraryService openLibraryService;
+    private final LibraryStatsService libraryStatsService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    @Value("${library.import.max-rows:10000}")
+    private int maxRows;
+
+    @Value("${library.import.chunk-size:500}")
+    private int chunkSize;
+
+    public LibraryImportService(BookRepository bookRepository,
+                                UserBookRepository userBookRepository,
+                                OpenLibraryService openLibraryService,
+                                LibraryStatsService libraryStatsService,
+                                JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                ApplicationEventPublisher eventPublisher,
+                                ObjectMapper objectMapper) {
+        this.bookRepository = bookRepository;
+        this.userBookRepository = userBookRepository;
+        this.openLibraryService = openLibraryService;
+        this.libraryStatsService = libraryStatsService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Reads the whole upload up front so the multipart part is not needed once streaming starts.
+     * The format is taken from the file name when not given.
+     */
+    public List<ImportRow> parse(MultipartFile file, ImportFormat format) throws IOException {
+        ImportFormat resolved = format != null ? format : detectFormat(file);
+        try (InputStream input = file.getInputStream()) {
+            List<ImportRow> rows = resolved == ImportFormat.CSV ? parseCsv(input) : parseNdjson(input);
+            if (rows.isEmpty()) {
+                throw new RuntimeException("Import file contains no rows");
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Imports the rows for a user and writes one NDJSON result per row to {@code out}, followed by a
+     * summary line. Results are flushed after every chunk.
+     */
+    public ImportSummary importBooks(Long userId, List<ImportRow> rows, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        ImportSummary summary = ImportSummary.builder().rows(rows.size()).build();
+
+        // Keys of everything already in the library, plus everything seen earlier in this file
+        Set<String> libraryKeys = new HashSet<>();
+        for (LibraryBookKey key : userBookRepository.findLibraryBookKeys(userId)) {
+            libraryKeys.add(titleKey(key.getTitle(), key.getAuthor()));
+            if (key.getIsbn() != null) {
+                libraryKeys.add(isbnKey(normalizeIsbn(key.getIsbn())));
+            }
+        }
+        Set<String> seen = new HashSet<>();
+
+        for (int from = 0; from < rows.size(); from += chunkSize) {
+            List<ImportRow> chunk = rows.subList(from, Math.min(from + chunkSize, rows.size()));
+            List<ImportRowResult> results = importChunk(userId, chunk, libraryKeys, seen);
+            for (ImportRowResult result : results) {
+                count(summary, result.getStatus());
+                out.write(objectMapper.writeValueAsBytes(result));
+                out.write('\n');
+            }
+            out.flush();
+        }
+
+        if (summary.getAdded() > 0) {
+            libraryStatsService.recompute(userId);
+        }
+        summary.setDurationMs(System.currentTimeMillis() - start);
+        out.write(objectMapper.writeValueAsBytes(Map.of("summary", summary)));
+        out.write('\n');
+        out.flush();
+        log.info("Imported {} of {} rows for user {} in {} ms", summary.getAdded(), summary.getRows(), userId,
+                summary.getDurationMs());
+        return summary;
+    }
+
+    private List<ImportRowResult> importChunk(Long userId, List<ImportRow> chunk,
+                                              Set<String> libraryKeys, Set<String> seen) {
+        List<ImportRowResult> results = new ArrayList<>(chunk.size());
+        List<Pending> pending = new ArrayList<>();
+
+        for (ImportRow row : chunk) {
+            if (row.error() != null) {
+                results.add(failed(row, row.error()));
+                continue;
+            }
+            BookRequest request = row.request();
+            String isbn = normalizeIsbn(request.getIsbn());
+            String key = isbn != null ? isbnKey(isbn) : titleKey(request.getTitle(), request.getAuthor());
+            if (isbn == null && (isBlank(request.getTitle()) || isBlank(request.getAuthor()))) {
+                results.add(failed(row, "Title and author are required without an ISBN"));
+            } else if (seen.contains(key)) {
+                // Checked first: rows from earlier chunks are in libraryKeys by now
+                results.add(result(row, ImportRowResult.Status.DUPLICATE, null, isbn, null,
+                        "Duplicate of an earlier row"));
+            } else if (libraryKeys.contains(key)
+                    || (!isBlank(request.getTitle()) && libraryKeys.contains(titleKey(request.getTitle(), request.getAuthor())))) {
+                results.add(result(row, ImportRowResult.Status.ALREADY_IN_LIBRARY, null, isbn, null, null));
+            } else {
+                seen.add(key);
+                pending.add(new Pending(row, isbn, key));
+            }
+        }
+        if (pending.isEmpty()) {
+            return sorted(results);
+        }
+
+        // Known books in one query, unknown ISBNs from OpenLibrary
+        List<String> isbns = pending.stream().map(Pending::isbn).filter(Objects::nonNull).toList();
+        Map<String, Book> known = new HashMap<>();
+        if (!isbns.isEmpty()) {
+            bookRepository.findByIsbnIn(isbns).forEach(book -> known.put(book.getIsbn(), book));
+        }
+        Map<String, BookResponse> fetched = openLibraryService.lookupIsbns(
+                isbns.stream().filter(isbn -> !known.containsKey(isbn)).toList());
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    results.addAll(insert(userId, pending, known, fetched)));
+            pending.forEach(p -> libraryKeys.add(p.key()));
+        } catch (Exception e) {
+            log.warn("Import chunk of {} rows failed for user {}: {}", pending.size(), userId, e.getMessage());
+            pending.forEach(p -> results.add(failed(p.row(), "Could not save: " + e.getMessage())));
+        }
+        return sorted(results);
+    }
+
+    private List<ImportRowResult> insert(Long userId, List<Pending> pending,
+                                         Map<String, Book> known, Map<String, BookResponse> fetched) {
+        List<ImportRowResult> results = new ArrayList<>(pending.size());
+        List<Resolved> resolved = new ArrayList<>(pending.size());
+        List<Book> newBooks = new ArrayList<>();
+
+        for (Pending p : pending) {
+            Book book = p.isbn() != null ? known.get(p.isbn()) : null;
+            if (book != null) {
+                resolved.add(new Resolved(p.row(), book, false));
+                continue;
+            }
+            book = newBook(p.row().request(), p.isbn(), p.isbn() != null ? fetched.get(p.isbn()) : null);
+            if (book == null) {
+                results.add(failed(p.row(), "Book not found for ISBN " + p.isbn() + " and no title/author given"));
+                continue;
+            }
+            newBooks.add(book);
+            resolved.add(new Resolved(p.row(), book, true));
+        }
+        // Flushed now because the user_books rows below are plain JDBC and reference these ids
+        bookRepository.saveAllAndFlush(newBooks);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> userBooks = new ArrayList<>(resolved.size());
+        for (Resolved r : resolved) {
+            BookStatus status = r.row().request().getStatus() != null
+                    ? r.row().request().getStatus() : BookStatus.WANT_TO_READ;
+            userBooks.add(new Object[]{userId, r.book().getId(), status.name(), 0, now,
+                    status == BookStatus.READING ? now : null, status == BookStatus.READ ? now : null});
+        }
+        jdbcTemplate.batchUpdate(INSERT_USER_BOOK, userBooks);
+
+        for (Resolved r : resolved) {
+            Book book = r.book();
+            eventPublisher.publishEvent(new BookAddedEvent(userId, book.getId(), r.newBook()));
+            results.add(result(r.row(), ImportRowResult.Status.ADDED, book.getId(), book.getIsbn(), book.getTitle(),
+                    null));
+        }
+        return results;
+    }
+
+    private static Book newBook(BookRequest request, String isbn, BookResponse openLibraryBook) {
+        if (openLibraryBook != null && !isBlank(openLibraryBook.getTitle())) {
+            return Book.builder()
+                    .title(openLibraryBook.getTitle())
+                    .author(openLibraryBook.getAuthor())
+                    .isbn(isbn)
+                    .coverId(openLibraryBook.getCoverId())
+                    .pages(openLibraryBook.getPages())
+                    .publishedYear(openLibraryBook.getPublishedYear())
+                    .description(openLibraryBook.getDescription())
+                    .openLibraryId(openLibraryBook.getOpenLibraryId())
+                    .build();
+        }
+        if (isBlank(request.getTitle()) || isBlank(request.getAuthor())) {
+            return null;
+        }
+        return Book.builder()
+                .title(request.getTitle())
+                .author(request.getAuthor())
+                .isbn(isbn)
+                .pages(request.getPages())
+                .publishedYear(request.getPublishedYear())
+                .build();
+    }
+
+    private List<ImportRow> parseCsv(InputStream input) throws IOException {
+        CsvReader csv = new CsvReader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+        List<String> header = csv.next();
+        if (header == null) {
+            return List.of();
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(header.get(i).toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", ""), i);
+        }
+        if (!columns.containsKey("title") && !columns.containsKey("isbn") && !columns.containsKey("isbn13")) {
+            throw new RuntimeException("CSV header must contain a title or isbn column");
+        }
+
+        List<ImportRow> rows = new ArrayList<>();
+        List<String> record;
+        int row = 0;
+        while ((record = csv.next()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            checkRowLimit(++row);
+            try {
+                String isbn13 = normalizeIsbn(column(record, columns, "isbn13"));
+                rows.add(new ImportRow(row, BookRequest.builder()
+                        .title(column(record, columns, "title"))
+                        .author(column(record, columns, "author"))
+                        .isbn(isbn13 != null ? isbn13 : column(record, columns, "isbn"))
+                        .pages(intColumn(record, columns, "pages", "numberofpages"))
+                        .publishedYear(intColumn(record, columns, "publishedyear", "yearpublished",
+                                "originalpublicationyear"))
+                        .status(status(column(record, columns, "status", "exclusiveshelf", "shelf")))
+                        .build(), null));
+            } catch (RuntimeException e) {
+                rows.add(new ImportRow(row, null, e.getMessage()));
+            }
+        }
+        return rows;
+    }
+
+    private List<ImportRow> parseNdjson(InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        List<ImportRow> rows = new ArrayList<>();
+        String line;
+        int row = 0;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            checkRowLimit(++row);
+            try {
+                rows.add(new ImportRow(row, objectMapper.readValue(line, BookRequest.class), null));
+            } catch (JsonProcessingException e) {
+                rows.add(new ImportRow(row, null, "Invalid JSON: " + e.getOriginalMessage()));
+            }
+        }
+        return rows;
+    }
+
+    private void checkRowLimit(int row) {
+        if (row > maxRows) {
+            throw new RuntimeException("Import is limited to " + maxRows + " rows");
+        }
+    }
+
+    private static ImportFormat detectFormat(MultipartFile file) {
+        String name = file.getOriginalFilename() != null ? file.getOriginalFilename().toLowerCase(Locale.ROOT) : "";
+        String contentType = file.getContentType() != null ? file.getContentType() : "";
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl") || contentType.contains("ndjson")) {
+            return ImportFormat.NDJSON;
+        }
+        return ImportFormat.CSV;
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String... names) {
+        for (String name : names) {
+            Integer index = columns.get(name);
+            if (index != null && index < record.size() && !record.get(index).isBlank()) {
+                return record.get(index).trim();
+            }
+        }
+        return null;
+    }
+
+    private static Integer intColumn(List<String> record, Map<String, Integer> columns, String... names) {
+        String value = column(record, columns, names);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid number '" + value + "'");
+        }
+    }
+
+    // Accepts our own status names as well as Goodreads shelf names
+    private static BookStatus status(String value) {
+        if (value == null) {
+            return null;
+        }
+        return switch (value.toLowerCase(Locale.ROOT).replace('-', '_')) {
+            case "read" -> BookStatus.READ;
+            case "reading", "currently_reading" -> BookStatus.READING;
+            case "to_read", "want_to_read" -> BookStatus.WANT_TO_READ;
+            default -> throw new RuntimeException("Unknown status '" + value + "'");
+        };
+    }
+
+    // Strips hyphens, spaces and spreadsheet quoting such as ="0439023483"; returns null unless 10 or 13 chars remain
+    static String normalizeIsbn(String isbn) {
+        String normalized = Validator.normalizeIsbn(isbn);
+        return normalized != null && (normalized.length() == 10 || normalized.length() == 13) ? normalized : null;
+    }
+
+    private static String isbnKey(String isbn) {
+        return "isbn:" + isbn;
+    }
+
+    private static String titleKey(String title, String author) {
+        return "title:" + (title != null ? title.trim().toLowerCase(Locale.ROOT) : "") + "|"
+                + (author != null ? author.trim().toLowerCase(Locale.ROOT) : "");
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static void count(ImportSummary summary, ImportRowResult.Status status) {
+        switch (status) {
+            case ADDED -> summary.setAdded(summary.getAdded() + 1);
+            case ALREADY_IN_LIBRARY -> summary.setAlreadyInLibrary(summary.getAlreadyInLibrary() + 1);
+            case DUPLICATE -> summary.setDuplicates(summary.getDuplicates() + 1);
+            case FAILED -> summary.setFailed(summary.getFailed() + 1);
+        }
+    }
+
+    private static List<ImportRowResult> sorted(List<ImportRowResult> results) {
+        results.sort((a, b) -> Integer.compare(a.getRow(), b.getRow()));
+        return results;
+    }
+
+    private static ImportRowResult result(ImportRow row, ImportRowResult.Status status, Long bookId,
+                                          String isbn, String title, String message) {
+        return ImportRowResult.builder()
+                .row(row.row())
+                .status(status)
+                .bookId(bookId)
+                .isbn(isbn)
+                .title(title != null ? title : row.request() != null ? row.request().getTitle() : null)
+                .message(message)
+                .build();
+    }
+
+    private static ImportRowResult failed(ImportRow row, String message) {
+        return result(row, ImportRowResult.Status.FAILED, null,
+                row.request() != null ? normalizeIsbn(row.request().getIsbn()) : null, null, message);
+    }
+
+    private record Pending(ImportRow row, String isbn, String key) {
+    }
+
+    private record Resolved(ImportRow row, Book book, boolean newBook) {
+    }
+}
@@ -2,7 +2,6 @@ package com.bookgoblin.service;
 
 import com.bookgoblin.model.dto.response.BookResponse;
 import com.bookgoblin.model.entity.Library;
-import com.bookgoblin.model.entity.User;
 import com.bookgoblin.model.enums.BookStatus;
 import com.bookgoblin.repository.LibraryRepository;
 import com.bookgoblin.repository.UserBookRepository;
@@ -18,14 +17,16 @@ public class LibraryService {
     private final LibraryRepository libraryRepository;
     private final UserBookRepository userBookRepository;
     private final BookService bookService;
+    private final ReadingSessionTracker readingSessionTracker;
+    private final LibraryStatsService libraryStatsService;
 
     public Library getUserLibrary(Long userId) {
         return libraryRepository.findByUserId(userId)
                 .orElseGet(() -> {
-                    Library newLibrary = Library.builder()
-                            .user(User.builder().id(userId).build())
-                            .build();
-                    return libraryRepository.save(newLibrary);
+                    // Counted from the shelf, since a user without a library row may already have books
+                    libraryStatsService.recompute(userId);
+                    return libraryRepository.findByUserId(userId)
+                            .orElseThrow(() -> new RuntimeException("Library not found"));
                 });
     }
 
@@ -49,13 +50,18 @@ public class LibraryService {
         return (double) library.getBooksRead() / library.getTotalBooks() * 100;
     }
 
-    public Map<String, Long> getReadingTrends(Long userId, int days) {
-        // This would typically query reading activity over time
-        // For now, return mock data
+    public Map<String, Object> getReadingTrends(Long userId, int days) {
+        ReadingSessionTracker.ReadingTrends trends = readingSessionTracker.getTrends(userId, days);
+
         return Map.of(
-                "totalBooksRead", (long) userBookRepository.findByUserIdAndStatus(userId, BookStatus.READ).size(),
-                "avgPagesPerDay", 50L,
-                "readingStreak", 7L
+                "totalBooksRead", getUserLibrary(userId).getBooksRead(),
+                "days", trends.days(),
+                "pagesRead", trends.pagesRead(),
+                "avgPagesPerDay", trends.avgPagesPerDay(),
+                "daysRead", trends.daysRead(),
+                "readingStreak", trends.readingStreak(),
+                "booksCompleted", trends.booksCompleted(),
+                "completionVelocity", trends.completionVelocity()
         );
     }
 
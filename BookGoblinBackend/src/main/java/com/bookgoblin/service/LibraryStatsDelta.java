@@ -0,0 +1,55 @@
+package com.bookgoblin.service;
+
+import com.bookgoblin.model.enums.BookStatus;
+import lombok.Value;
+
+@Value
+public class LibraryStatsDelta {
+
+    public static final LibraryStatsDelta NONE = new LibraryStatsDelta(0, 0, 0, 0, 0);
+
+    int totalBooks;
+    int booksRead;
+    int booksReading;
+    int booksToRead;
+    int totalPagesRead;
+
+    public static LibraryStatsDelta added(BookStatus status, int currentPage) {
+        return NONE.plus(contribution(status, currentPage, 1)).withTotalBooks(1);
+    }
+
+    public static LibraryStatsDelta transition(BookStatus oldStatus, int oldPage, BookStatus newStatus, int newPage) {
+        return contribution(oldStatus, oldPage, -1).plus(contribution(newStatus, newPage, 1));
+    }
+
+    // Pages only count towards totalPagesRead once a book is READ, mirroring the full recompute
+    private static LibraryStatsDelta contribution(BookStatus status, int currentPage, int sign) {
+        if (status == null) {
+            return NONE;
+        }
+        return switch (status) {
+            case READ -> new LibraryStatsDelta(0, sign, 0, 0, sign * currentPage);
+            case READING -> new LibraryStatsDelta(0, 0, sign, 0, 0);
+            case WANT_TO_READ -> new LibraryStatsDelta(0, 0, 0, sign, 0);
+            default -> NONE;
+        };
+    }
+
+    public LibraryStatsDelta plus(LibraryStatsDelta other) {
+        return new LibraryStatsDelta(
+                totalBooks + other.totalBooks,
+                booksRead + other.booksRead,
+                booksReading + other.booksReading,
+                booksToRead + other.booksToRead,
+                totalPagesRead + other.totalPagesRead);
+    }
+
+    public boolean isEmpty() {
+        return totalBooks == 0 && booksRead == 0 && booksReading == 0
+                && booksToRead == 0 && totalPagesRead == 0;
+    }
+
+    private LibraryStatsDelta withTotalBooks(int total) {
+        return new LibraryStatsDelta(total, booksRead, booksReading, booksToRead, totalPagesRead);
+    }
+}
@@ -0,0 +1,76 @@
+package com.bookgoblin.service;
+
+import com.bookgoblin.repository.LibraryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LibraryStatsReconciler {
+
+    private final LibraryRepository libraryRepository;
+    private final LibraryStatsService libraryStatsService;
+
+    @Value("${library.stats.reconcile.batch-size:200}")
+    private int batchSize;
+
+    // Incremental updates are exact, but a crash between writes or a manual DB edit can still leave drift
+    @Scheduled(fixedDelayString = "${library.stats.reconcile.interval-ms:3600000}",
+            initialDelayString = "${library.stats.reconcile.initial-delay-ms:300000}")
+    public void reconcile() {
+        int checked = 0;
+        int repaired = 0;
+
+        Pageable pageable = PageRequest.of(0, batchSize);
+        Slice<Long> userIds;
+        do {
+            userIds = libraryRepository.findUserIds(pageable);
+            for (Long userId : userIds) {
+                try {
+                    if (libraryStatsService.recompute(userId)) {
+                        repaired++;
+                    }
+                } catch (Exception e) {
+                    log.warn("Failed to reconcile library stats for user {}: {}", userId, e.getMessage());
+                }
+                checked++;
+            }
+            pageable = userIds.nextPageable();
+        } while (userIds.hasNext());
+
+        // Users registered before libraries were provisioned have no row for the pass above to find
+        int provisioned = 0;
+        List<Long> missing;
+        long afterId = 0;
+        do {
+            missing = libraryRepository.findUserIdsWithoutLibrary(afterId, PageRequest.of(0, batchSize));
+            for (Long userId : missing) {
+                try {
+                    libraryStatsService.recompute(userId);
+                    provisioned++;
+                } catch (Exception e) {
+                    log.warn("Failed to provision library stats for user {}: {}", userId, e.getMessage());
+                }
+                afterId = userId;
+            }
+        } while (missing.size() == batchSize);
+
+        if (provisioned > 0) {
+            log.info("Library stats reconciliation provisioned {} missing libraries", provisioned);
+        }
+        if (repaired > 0) {
+            log.info("Library stats reconciliation repaired {} of {} libraries", repaired, checked);
+        } else {
+            log.debug("Library stats reconciliation checked {} libraries, no drift", checked);
+        }
+    }
+}
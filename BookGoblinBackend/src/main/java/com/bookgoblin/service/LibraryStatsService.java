@@ -0,0 +1,124 @@
+package com.bookgoblin.service;
+
+import com.bookgoblin.model.entity.Library;
+import com.bookgoblin.model.entity.User;
+import com.bookgoblin.repository.LibraryRepository;
+import com.bookgoblin.repository.UserBookRepository;
+import com.bookgoblin.repository.projection.StatusCount;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Objects;
+
+@Service
+@Slf4j
+public class LibraryStatsService {
+
+    private final LibraryRepository libraryRepository;
+    private final UserBookRepository userBookRepository;
+    private final TransactionTemplate newTransaction;
+    private final int maxAttempts;
+
+    public LibraryStatsService(LibraryRepository libraryRepository,
+                               UserBookRepository userBookRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${library.stats.recompute.max-attempts:3}") int maxAttempts) {
+        this.libraryRepository = libraryRepository;
+        this.userBookRepository = userBookRepository;
+        // Each attempt must read the row afresh, so it cannot share the caller's transaction
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    @Transactional
+    public void applyDelta(Long userId, LibraryStatsDelta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+
+        int updated = libraryRepository.applyDelta(userId,
+                delta.getTotalBooks(),
+                delta.getBooksRead(),
+                delta.getBooksReading(),
+                delta.getBooksToRead(),
+                delta.getTotalPagesRead());
+
+        // Users created before libraries were provisioned on registration have no row yet
+        // (in this transaction, so the count includes the caller's uncommitted change)
+        if (updated == 0) {
+            recomputeOnce(userId);
+        }
+    }
+
+    /**
+     * Rebuilds the counters from a grouped aggregate in a transaction of its own, starting over when a
+     * concurrent delta bumps the library's version in between. Returns true when the stored values had drifted.
+     */
+    public boolean recompute(Long userId) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return Boolean.TRUE.equals(newTransaction.execute(status -> recomputeOnce(userId)));
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.debug("Library stats for user {} changed during recompute, retrying (attempt {})",
+                        userId, attempt);
+            }
+        }
+    }
+
+    private boolean recomputeOnce(Long userId) {
+        Library library = libraryRepository.findByUserId(userId)
+                .orElseGet(() -> Library.builder().user(User.builder().id(userId).build()).build());
+
+        int totalBooks = 0;
+        int booksRead = 0;
+        int booksReading = 0;
+        int booksToRead = 0;
+        int totalPagesRead = 0;
+
+        for (StatusCount count : userBookRepository.countByStatus(userId)) {
+            int books = count.getBooks().intValue();
+            totalBooks += books;
+            if (count.getStatus() == null) {
+                continue;
+            }
+            switch (count.getStatus()) {
+                case READ -> {
+                    booksRead = books;
+                    totalPagesRead = count.getPages().intValue();
+                }
+                case READING -> booksReading = books;
+                case WANT_TO_READ -> booksToRead = books;
+                default -> {
+                }
+            }
+        }
+
+        boolean drifted = library.getId() == null
+                || !Objects.equals(library.getTotalBooks(), totalBooks)
+                || !Objects.equals(library.getBooksRead(), booksRead)
+                || !Objects.equals(library.getBooksReading(), booksReading)
+                || !Objects.equals(library.getBooksToRead(), booksToRead)
+                || !Objects.equals(library.getTotalPagesRead(), totalPagesRead);
+
+        if (drifted) {
+            library.setTotalBooks(totalBooks);
+            library.setBooksRead(booksRead);
+            library.setBooksReading(booksReading);
+            library.setBooksToRead(booksToRead);
+            library.setTotalPagesRead(totalPagesRead);
+            libraryRepository.save(library);
+        }
+
+        return drifted;
+    }
+}
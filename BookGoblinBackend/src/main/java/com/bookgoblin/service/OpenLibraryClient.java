@@ -0,0 +1,169 @@
+package com.bookgoblin.service;
+
+import com.bookgoblin.exception.OpenLibraryUnavailableException;
+import com.bookgoblin.util.CircuitBreaker;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpMessageConverterExtractor;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Guarded access to openlibrary.org: calls run on a dedicated executor behind a per-operation
+ * bulkhead and a shared circuit breaker, and concurrent identical requests share one upstream call.
+ */
+@Component
+public class OpenLibraryClient {
+
+    public enum Operation {
+        SEARCH,
+        DETAILS,
+        ISBN
+    }
+
+    private final RestTemplate openLibraryRestTemplate;
+    private final ExecutorService openLibraryExecutor;
+    private final CircuitBreaker circuitBreaker;
+    private final Map<Operation, Semaphore> bulkheads = new EnumMap<>(Operation.class);
+    private final Map<String, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+    private final long callTimeoutMs;
+
+    public OpenLibraryClient(RestTemplate openLibraryRestTemplate,
+                             @Value("${openlibrary.api.executor.threads:32}") int executorThreads,
+                             @Value("${openlibrary.api.bulkhead.search:16}") int searchPermits,
+                             @Value("${openlibrary.api.bulkhead.details:8}") int detailsPermits,
+                             @Value("${openlibrary.api.bulkhead.isbn:8}") int isbnPermits,
+                             @Value("${openlibrary.api.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                             @Value("${openlibrary.api.circuit-breaker.open-ms:30000}") long openMs,
+                             @Value("${openlibrary.api.timeout.connect:5000}") long connectTimeout,
+                             @Value("${openlibrary.api.timeout.read:10000}") long readTimeout) {
+        this.openLibraryRestTemplate = openLibraryRestTemplate;
+        // Not a bean on purpose: exposing an Executor bean would replace Boot's default @Async executor
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.openLibraryExecutor = new ThreadPoolExecutor(executorThreads, executorThreads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread thread = new Thread(r, "openlibrary-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, Duration.ofMillis(openMs));
+        this.bulkheads.put(Operation.SEARCH, new Semaphore(searchPermits));
+        this.bulkheads.put(Operation.DETAILS, new Semaphore(detailsPermits));
+        this.bulkheads.put(Operation.ISBN, new Semaphore(isbnPermits));
+        this.callTimeoutMs = connectTimeout + readTimeout;
+    }
+
+    public <T> CompletableFuture<T> getJsonAsync(Operation operation, String url, Class<T> type) {
+        return getAsync(operation, url,
+                new HttpMessageConverterExtractor<>(type, openLibraryRestTemplate.getMessageConverters()));
+    }
+
+    public <T> CompletableFuture<T> getJsonAsync(Operation operation, String url, ParameterizedTypeReference<T> type) {
+        return getAsync(operation, url,
+                new HttpMessageConverterExtractor<>(type.getType(), openLibraryRestTemplate.getMessageConverters()));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> getAsync(Operation operation, String url, ResponseExtractor<T> extractor) {
+        String key = operation + " " + url;
+        CompletableFuture<T> future = new CompletableFuture<>();
+        CompletableFuture<T> existing = (CompletableFuture<T>) inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return existing;
+        }
+        future.whenComplete((result, error) -> inFlight.remove(key, future));
+
+        Semaphore bulkhead = bulkheads.get(operation);
+        if (!bulkhead.tryAcquire()) {
+            future.completeExceptionally(new OpenLibraryUnavailableException(
+                    "Too many concurrent OpenLibrary " + operation + " requests"));
+            return future;
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            bulkhead.release();
+            future.completeExceptionally(new OpenLibraryUnavailableException("OpenLibrary circuit is open"));
+            return future;
+        }
+
+        try {
+            openLibraryExecutor.execute(() -> {
+                try {
+                    T result = openLibraryRestTemplate.execute(url, HttpMethod.GET, null, extractor);
+                    circuitBreaker.onSuccess();
+                    future.complete(result);
+                } catch (HttpClientErrorException e) {
+                    // A 4xx means openlibrary answered; it says nothing about upstream health
+                    circuitBreaker.onSuccess();
+                    future.completeExceptionally(e);
+                } catch (Exception e) {
+                    circuitBreaker.onFailure();
+                    future.completeExceptionally(e);
+                } finally {
+                    bulkhead.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            bulkhead.release();
+            circuitBreaker.onIgnored();
+            future.completeExceptionally(new OpenLibraryUnavailableException("OpenLibrary executor rejected request", e));
+        }
+        return future;
+    }
+
+    public <T> T getJson(Operation operation, String url, Class<T> type) {
+        return await(getJsonAsync(operation, url, type));
+    }
+
+    public <T> T getJson(Operation operation, String url, ParameterizedTypeReference<T> type) {
+        return await(getJsonAsync(operation, url, type));
+    }
+
+    public <T> T get(Operation operation, String url, ResponseExtractor<T> extractor) {
+        return await(getAsync(operation, url, extractor));
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        openLibraryExecutor.shutdownNow();
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get(callTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new OpenLibraryUnavailableException("OpenLibrary request failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new OpenLibraryUnavailableException("OpenLibrary request timed out", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OpenLibraryUnavailableException("Interrupted waiting for OpenLibrary", e);
+        }
+    }
+}
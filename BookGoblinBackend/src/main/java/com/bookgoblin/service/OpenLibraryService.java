@@ -1,127 +1,353 @@
 package com.bookgoblin.service;
 
+import com.bookgoblin.cache.CachedValue;
+import com.bookgoblin.cache.LookupCache;
 import com.bookgoblin.model.dto.response.BookResponse;
+import com.bookgoblin.model.entity.Book;
+import com.bookgoblin.repository.BookRepository;
+import com.bookgoblin.util.BookMapper;
+import com.bookgoblin.util.OpenLibrarySearchDecoder;
+import com.bookgoblin.util.Validator;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class OpenLibraryService {
 
-    private final RestTemplate restTemplate;
+    static final String SEARCH_CACHE = "bookSearch";
+    static final String DETAILS_CACHE = "bookDetails";
+    static final String ISBN_CACHE = "bookByIsbn";
+    private static final Pattern YEAR = Pattern.compile("\\b(\\d{4})\\b");
+    private static final Pattern COVER_ID = Pattern.compile("/b/id/(\\d+)-");
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_OBJECT = new ParameterizedTypeReference<>() {
+    };
+
+    private final OpenLibraryClient openLibraryClient;
+    private final OpenLibrarySearchDecoder openLibrarySearchDecoder;
+    private final BookRepository bookRepository;
+    private final BookMapper bookMapper;
+    private final LookupCache lookupCache;
+    private final MeterRegistry meterRegistry;
 
     @Value("${openlibrary.api.base-url}")
     private String baseUrl;
 
-    @Cacheable(value = "bookSearch", key = "#query + #page + #limit")
+    @Value("${openlibrary.api.isbn-batch.size:50}")
+    private int isbnBatchSize;
+
+    @Value("${openlibrary.api.isbn-batch.concurrency:2}")
+    private int isbnBatchConcurrency;
+
     public List<BookResponse> searchBooks(String query, int page, int limit) {
-        String url = UriComponentsBuilder.fromHttpUrl(baseUrl + "/search.json")
+        List<BookResponse> books = lookupCache.get(SEARCH_CACHE, query + "|" + page + "|" + limit, () -> {
+            List<BookResponse> found = fetchSearch(query, page, limit);
+            // An empty result is remembered for the shorter negative TTL
+            return found == null || found.isEmpty() ? null : found;
+        });
+        return books != null ? books : List.of();
+    }
+
+    /**
+     * Searches OpenLibrary directly, bypassing the cache; throws when OpenLibrary cannot be reached.
+     */
+    List<BookResponse> fetchSearch(String query, int page, int limit) {
+        return openLibraryClient.get(OpenLibraryClient.Operation.SEARCH, searchUrl(query, page, limit),
+                searchExtractor());
+    }
+
+    public CompletableFuture<List<BookResponse>> searchBooksAsync(String query, int page, int limit) {
+        return openLibraryClient.getAsync(OpenLibraryClient.Operation.SEARCH, searchUrl(query, page, limit),
+                searchExtractor());
+    }
+
+    private ResponseExtractor<List<BookResponse>> searchExtractor() {
+        return response -> openLibrarySearchDecoder.decode(response.getBody());
+    }
+
+    private String searchUrl(String query, int page, int limit) {
+        return UriComponentsBuilder.fromHttpUrl(baseUrl + "/search.json")
                 .queryParam("q", query)
                 .queryParam("page", page)
                 .queryParam("limit", limit)
                 .queryParam("fields", "key,title,author_name,cover_i,first_publish_year,edition_count,number_of_pages_median,subject,language,isbn,ia,ratings_average,ratings_count")
                 .toUriString();
+    }
 
-        try {
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
-            List<Map<String, Object>> docs = (List<Map<String, Object>>) response.get("docs");
-
-            List<BookResponse> books = new ArrayList<>();
-            for (Map<String, Object> doc : docs) {
-                BookResponse book = BookResponse.builder()
-                        .title((String) doc.get("title"))
-                        .author(doc.get("author_name") != null ?
-                                ((List<String>) doc.get("author_name")).get(0) : "Unknown Author")
-                        .genre(doc.get("subject") != null ?
-                                ((List<String>) doc.get("subject")).get(0) : "General")
-                        .publishedYear((Integer) doc.get("first_publish_year"))
-                        .pages((Integer) doc.get("number_of_pages_median"))
-                        .coverId(doc.get("cover_i") != null ?
-                                doc.get("cover_i").toString() : null)
-                        .isbn(doc.get("isbn") != null ?
-                                ((List<String>) doc.get("isbn")).get(0) : null)
-                        .rating(doc.get("ratings_average") != null ?
-                                (Double) doc.get("ratings_average") : 0.0)
-                        .ratingCount(doc.get("ratings_count") != null ?
-                                (Integer) doc.get("ratings_count") : 0)
-                        .language(doc.get("language") != null ?
-                                ((List<String>) doc.get("language")).get(0) : "en")
-                        .availableOnline(doc.get("ia") != null &&
-                                ((List<String>) doc.get("ia")).size() > 0)
-                        .openLibraryId((String) doc.get("key"))
-                        .build();
-                books.add(book);
+    public BookResponse getBookDetails(String bookId) {
+        return lookupCache.get(DETAILS_CACHE, bookId, () -> {
+            try {
+                return toBookDetails(openLibraryClient.getJson(
+                        OpenLibraryClient.Operation.DETAILS, baseUrl + bookId + ".json", JSON_OBJECT), bookId);
+            } catch (HttpClientErrorException.NotFound e) {
+                return null;
             }
-            return books;
-        } catch (Exception e) {
-            log.error("Error searching books: {}", e.getMessage());
-            return List.of();
-        }
+        });
     }
 
-    @Cacheable(value = "bookDetails", key = "#bookId")
-    public BookResponse getBookDetails(String bookId) {
-        String url = baseUrl + bookId + ".json";
+    public CompletableFuture<BookResponse> getBookDetailsAsync(String bookId) {
+        return openLibraryClient.getJsonAsync(OpenLibraryClient.Operation.DETAILS, baseUrl + bookId + ".json", JSON_OBJECT)
+                .thenApply(response -> toBookDetails(response, bookId));
+    }
+
+    private BookResponse toBookDetails(Map<String, Object> response, String bookId) {
+        return BookResponse.builder()
+                .title((String) response.get("title"))
+                .author(firstName(response.get("authors")) != null ? firstName(response.get("authors")) : "Unknown Author")
+                .description(getDescription(response))
+                .pages((Integer) response.get("number_of_pages"))
+                .publishedYear(getPublishedYear(response))
+                .isbn(getFirstIsbn(response))
+                .openLibraryId(bookId)
+                .build();
+    }
+
+    public BookResponse getBookByISBN(String isbn) {
+        return lookupCache.get(ISBN_CACHE, isbn, () -> fetchIsbn(isbn));
+    }
+
+    private BookResponse fetchIsbn(String isbn) {
         try {
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
-
-            return BookResponse.builder()
-                    .title((String) response.get("title"))
-                    .author(response.get("authors") != null ?
-                            ((List<Map<String, Object>>) response.get("authors")).get(0).get("name").toString() :
-                            "Unknown Author")
-                    .description(getDescription(response))
-                    .pages((Integer) response.get("number_of_pages"))
-                    .publishedYear(getPublishedYear(response))
-                    .isbn(getFirstIsbn(response))
-                    .openLibraryId(bookId)
-                    .build();
-        } catch (Exception e) {
-            log.error("Error fetching book details: {}", e.getMessage());
+            return toIsbnBook(openLibraryClient.getJson(
+                    OpenLibraryClient.Operation.ISBN, baseUrl + "/isbn/" + isbn + ".json", JSON_OBJECT), isbn);
+        } catch (HttpClientErrorException.NotFound e) {
             return null;
         }
     }
 
-    @Cacheable(value = "bookByIsbn", key = "#isbn")
-    public BookResponse getBookByISBN(String isbn) {
-        String url = baseUrl + "/isbn/" + isbn + ".json";
+    public CompletableFuture<BookResponse> getBookByIsbnAsync(String isbn) {
+        return openLibraryClient.getJsonAsync(OpenLibraryClient.Operation.ISBN, baseUrl + "/isbn/" + isbn + ".json", JSON_OBJECT)
+                .thenApply(response -> toIsbnBook(response, isbn));
+    }
+
+    private BookResponse toIsbnBook(Map<String, Object> response, String isbn) {
+        return BookResponse.builder()
+                .title((String) response.get("title"))
+                .author(firstName(response.get("authors")) != null ? firstName(response.get("authors")) : "Unknown Author")
+                .pages((Integer) response.get("number_of_pages"))
+                .coverId(response.get("covers") instanceof List<?> covers && !covers.isEmpty() ?
+                        String.valueOf(covers.get(0)) : null)
+                .isbn(isbn)
+                .publishedYear(getPublishedYear(response))
+                .description(getDescription(response))
+                .openLibraryId((String) response.get("key"))
+                .build();
+    }
+
+    /**
+     * Resolves many ISBNs at once: the ISBN cache first, then the books table with one IN query, then
+     * OpenLibrary's multi-key /api/books endpoint in chunks. ISBNs are normalized before any of these, so
+     * "0-306-40615-X" and "030640615x" are one lookup; blanks and repeats are dropped. Returns the books
+     * found keyed by the spelling each ISBN was first requested as, in request order; ISBNs OpenLibrary
+     * does not know are negative-cached and left out.
+     */
+    public Map<String, BookResponse> getBooksByIsbns(Collection<String> isbns) {
+        Map<String, String> spellings = spellings(isbns);
+        Map<String, BookResponse> found = new HashMap<>();
+        Set<String> remaining = resolveCached(spellings.keySet(), found);
+
+        if (!remaining.isEmpty()) {
+            int known = 0;
+            for (Book book : bookRepository.findByIsbnIn(remaining)) {
+                String isbn = Validator.normalizeIsbn(book.getIsbn());
+                if (!remaining.remove(isbn)) {
+                    continue;
+                }
+                BookResponse response = bookMapper.toResponse(book);
+                found.put(isbn, response);
+                lookupCache.put(ISBN_CACHE, isbn, response);
+                known++;
+            }
+            count("db", known);
+        }
+        found.putAll(fetchIsbns(remaining));
+        return bySpelling(spellings, found);
+    }
+
+    /**
+     * Like {@link #getBooksByIsbns} without the books table, for callers that have already looked there.
+     */
+    public Map<String, BookResponse> lookupIsbns(Collection<String> isbns) {
+        Map<String, String> spellings = spellings(isbns);
+        Map<String, BookResponse> found = new HashMap<>();
+        Set<String> remaining = resolveCached(spellings.keySet(), found);
+        found.putAll(fetchIsbns(remaining));
+        return bySpelling(spellings, found);
+    }
+
+    // Normalized ISBN -> the spelling it was first requested as, in request order
+    private static Map<String, String> spellings(Collection<String> isbns) {
+        Map<String, String> spellings = new LinkedHashMap<>();
+        for (String isbn : isbns) {
+            String normalized = Validator.normalizeIsbn(isbn);
+            if (normalized != null) {
+                spellings.putIfAbsent(normalized, isbn);
+            }
+        }
+        return spellings;
+    }
+
+    // Moves cache hits into found and returns the ISBNs that are neither cached nor known misses.
+    // Stale hits are served and refreshed one by one in the background; only real misses are batched.
+    private Set<String> resolveCached(Set<String> isbns, Map<String, BookResponse> found) {
+        Set<String> remaining = new LinkedHashSet<>();
+        int negative = 0;
+        long now = System.currentTimeMillis();
+        for (String isbn : isbns) {
+            CachedValue<BookResponse> cached = lookupCache.peek(ISBN_CACHE, isbn);
+            if (cached == null || (cached.isNegative() && !cached.isFresh(now))) {
+                remaining.add(isbn);
+                continue;
+            }
+            BookResponse book = lookupCache.get(ISBN_CACHE, isbn, () -> fetchIsbn(isbn));
+            if (book != null) {
+                found.put(isbn, book);
+            } else {
+                negative++;
+            }
+        }
+        count("cache", found.size());
+        count("negative-cache", negative);
+        return remaining;
+    }
+
+    // Fetches chunks of ISBNs with at most isbn-batch.concurrency upstream calls in flight
+    private Map<String, BookResponse> fetchIsbns(Set<String> isbns) {
+        Map<String, BookResponse> found = new HashMap<>();
+        if (isbns.isEmpty()) {
+            return found;
+        }
+        List<String> pending = new ArrayList<>(isbns);
+        Semaphore permits = new Semaphore(isbnBatchConcurrency);
+        Map<List<String>, CompletableFuture<Map<String, Object>>> calls = new LinkedHashMap<>();
         try {
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
-
-            return BookResponse.builder()
-                    .title((String) response.get("title"))
-                    .author(response.get("authors") != null ?
-                            ((List<Map<String, Object>>) response.get("authors")).get(0).get("name").toString() :
-                            "Unknown Author")
-                    .pages((Integer) response.get("number_of_pages"))
-                    .coverId(response.get("covers") != null ?
-                            ((List<Integer>) response.get("covers")).get(0).toString() : null)
-                    .isbn(isbn)
-                    .publishedYear(getPublishedYear(response))
-                    .description(getDescription(response))
-                    .openLibraryId((String) response.get("key"))
-                    .build();
-        } catch (Exception e) {
-            log.error("Error fetching book by ISBN: {}", e.getMessage());
+            for (int from = 0; from < pending.size(); from += isbnBatchSize) {
+                List<String> chunk = pending.subList(from, Math.min(from + isbnBatchSize, pending.size()));
+                permits.acquire();
+                calls.put(chunk, openLibraryClient.getJsonAsync(OpenLibraryClient.Operation.ISBN, bibkeysUrl(chunk), JSON_OBJECT)
+                        .whenComplete((response, error) -> permits.release()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        calls.forEach((chunk, call) -> {
+            Map<String, Object> response;
+            try {
+                response = call.join();
+            } catch (Exception e) {
+                // Upstream trouble says nothing about these ISBNs, so they are not negative-cached
+                log.warn("OpenLibrary batch lookup of {} ISBNs failed: {}", chunk.size(), e.getMessage());
+                return;
+            }
+            for (String isbn : chunk) {
+                Object data = response != null ? response.get("ISBN:" + isbn) : null;
+                if (data instanceof Map<?, ?> book) {
+                    BookResponse mapped = toBibkeyBook(book, isbn);
+                    found.put(isbn, mapped);
+                    lookupCache.put(ISBN_CACHE, isbn, mapped);
+                } else {
+                    lookupCache.put(ISBN_CACHE, isbn, null);
+                }
+            }
+        });
+        meterRegistry.counter("openlibrary.isbn.batch.calls").increment(calls.size());
+        count("upstream", found.size());
+        count("miss", pending.size() - found.size());
+        return found;
+    }
+
+    private String bibkeysUrl(List<String> isbns) {
+        return UriComponentsBuilder.fromHttpUrl(baseUrl + "/api/books")
+                .queryParam("bibkeys", "ISBN:" + String.join(",ISBN:", isbns))
+                .queryParam("format", "json")
+                .queryParam("jscmd", "data")
+                .toUriString();
+    }
+
+    private BookResponse toBibkeyBook(Map<?, ?> data, String isbn) {
+        return BookResponse.builder()
+                .title((String) data.get("title"))
+                .author(firstName(data.get("authors")) != null ? firstName(data.get("authors")) : "Unknown Author")
+                .genre(firstName(data.get("subjects")))
+                .pages(data.get("number_of_pages") instanceof Number pages ? pages.intValue() : null)
+                .coverId(coverId(data.get("cover")))
+                .isbn(isbn)
+                .publishedYear(year(data.get("publish_date")))
+                .description(getDescription(data.get("notes") != null ? Map.of("description", data.get("notes")) : Map.of()))
+                .openLibraryId((String) data.get("key"))
+                .build();
+    }
+
+    private static String firstName(Object values) {
+        if (values instanceof List<?> list && !list.isEmpty() && list.get(0) instanceof Map<?, ?> first) {
+            Object name = first.get("name");
+            return name != null ? name.toString() : null;
+        }
+        return null;
+    }
+
+    // Covers come back as image URLs such as https://covers.openlibrary.org/b/id/12345-M.jpg
+    private static String coverId(Object cover) {
+        if (cover instanceof Map<?, ?> sizes) {
+            for (Object url : sizes.values()) {
+                Matcher matcher = COVER_ID.matcher(String.valueOf(url));
+                if (matcher.find()) {
+                    return matcher.group(1);
+                }
+            }
+        }
+        return null;
+    }
+
+    // publish_date is free text ("June 2003", "2003-06-01", "c1999")
+    private static Integer year(Object publishDate) {
+        if (publishDate == null) {
             return null;
         }
+        Matcher matcher = YEAR.matcher(publishDate.toString());
+        return matcher.find() ? Integer.valueOf(matcher.group(1)) : null;
     }
 
-    public List<BookResponse> getTrendingBooks() {
-        return searchBooks("fantasy OR science fiction OR mystery", 1, 12);
+    private static Map<String, BookResponse> bySpelling(Map<String, String> spellings, Map<String, BookResponse> found) {
+        Map<String, BookResponse> ordered = new LinkedHashMap<>();
+        spellings.forEach((isbn, spelling) -> {
+            BookResponse book = found.get(isbn);
+            if (book != null) {
+                ordered.put(spelling, book);
+            }
+        });
+        return ordered;
     }
 
-    private String getDescription(Map<String, Object> response) {
+    private void count(String source, int isbns) {
+        if (isbns > 0) {
+            meterRegistry.counter("openlibrary.isbn.resolved", "source", source).increment(isbns);
+        }
+    }
+
+    private String getDescription(Map<?, ?> response) {
         if (response.get("description") instanceof Map) {
             return (String) ((Map<?, ?>) response.get("description")).get("value");
         } else if (response.get("description") instanceof String) {
@@ -143,13 +369,10 @@ public class OpenLibraryService {
     }
 
     private String getFirstIsbn(Map<String, Object> response) {
-        if (response.get("isbn_13") != null) {
-            List<String> isbns = (List<String>) response.get("isbn_13");
-            if (!isbns.isEmpty()) return isbns.get(0);
-        }
-        if (response.get("isbn_10") != null) {
-            List<String> isbns = (List<String>) response.get("isbn_10");
-            if (!isbns.isEmpty()) return isbns.get(0);
+        for (String field : List.of("isbn_13", "isbn_10")) {
+            if (response.get(field) instanceof List<?> isbns && !isbns.isEmpty()) {
+                return String.valueOf(isbns.get(0));
+            }
         }
         return null;
     }
@@ -0,0 +1,156 @@
+package com.bookgoblin.service;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pages read and books finished per day for one user over a rolling window, held in ring buffers
+ * indexed by epoch day. The current streak is maintained incrementally as days are recorded.
+ */
+final class ReadingCalendar {
+
+    static final int DAYS = 366;
+
+    // A lock rather than synchronized so a virtual thread waiting on it does not pin its carrier
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int[] pages = new int[DAYS];
+    private final int[] completions = new int[DAYS];
+    // Epoch day of the newest slot; everything older than DAYS before it has been overwritten
+    private long latestDay;
+    private long lastReadDay = -1;
+    private int streak;
+
+    ReadingCalendar(long today) {
+        this.latestDay = today;
+    }
+
+    void record(long day, int pagesRead, boolean completed) {
+        lock.lock();
+        try {
+            advanceTo(day);
+            if (day <= latestDay - DAYS) {
+                return;
+            }
+            int slot = slot(day);
+            if (completed) {
+                completions[slot]++;
+            }
+            if (pagesRead <= 0) {
+                return;
+            }
+            boolean firstReadOfDay = pages[slot] == 0;
+            pages[slot] += pagesRead;
+            if (!firstReadOfDay) {
+                return;
+            }
+            if (day == lastReadDay + 1) {
+                streak++;
+                lastReadDay = day;
+            } else if (day > lastReadDay) {
+                streak = 1;
+                lastReadDay = day;
+            } else {
+                // A late report for an earlier day may have closed a gap
+                recomputeStreak();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Consecutive days with reading that end today or yesterday; zero once a whole day is missed.
+     */
+    int currentStreak(long today) {
+        lock.lock();
+        try {
+            advanceTo(today);
+            return today - lastReadDay <= 1 ? streak : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long pagesRead(long today, int days) {
+        lock.lock();
+        try {
+            advanceTo(today);
+            return sum(pages, today, days);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long completions(long today, int days) {
+        lock.lock();
+        try {
+            advanceTo(today);
+            return sum(completions, today, days);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int daysRead(long today, int days) {
+        lock.lock();
+        try {
+            advanceTo(today);
+            int count = 0;
+            for (int i = 0; i < Math.min(days, DAYS); i++) {
+                if (pages[slot(today - i)] > 0) {
+                    count++;
+                }
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the streak from the window, for use after bulk loading out of order.
+     */
+    void recomputeStreak() {
+        lock.lock();
+        try {
+            lastReadDay = -1;
+            streak = 0;
+            for (long day = latestDay; day > latestDay - DAYS; day--) {
+                if (pages[slot(day)] > 0) {
+                    if (lastReadDay < 0) {
+                        lastReadDay = day;
+                    }
+                    streak++;
+                } else if (lastReadDay >= 0) {
+                    break;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long sum(int[] counters, long today, int days) {
+        long total = 0;
+        for (int i = 0; i < Math.min(days, DAYS); i++) {
+            total += counters[slot(today - i)];
+        }
+        return total;
+    }
+
+    private void advanceTo(long day) {
+        if (day <= latestDay) {
+            return;
+        }
+        long gap = Math.min(day - latestDay, DAYS);
+        for (long i = 1; i <= gap; i++) {
+            int slot = slot(latestDay + i);
+            pages[slot] = 0;
+            completions[slot] = 0;
+        }
+        latestDay = day;
+    }
+
+    private static int slot(long day) {
+        return (int) Math.floorMod(day, (long) DAYS);
+    }
+}
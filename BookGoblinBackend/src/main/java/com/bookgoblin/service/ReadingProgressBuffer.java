@@ -0,0 +1,259 @@
+package com.bookgoblin.service;
+
+import com.bookgoblin.event.ReadingProgressEvent;
+import com.bookgoblin.model.enums.BookStatus;
+import com.bookgoblin.repository.UserBookRepository;
+import com.bookgoblin.repository.projection.ProgressSnapshot;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Write-behind buffer for reading progress. E-reader clients report progress every few pages,
+ * so only the latest page per user book is kept and flushed in JDBC batches.
+ */
+@Component
+@Slf4j
+public class ReadingProgressBuffer {
+
+    private static final String UPDATE_SQL = "UPDATE user_books SET current_page = ?, status = ?, " +
+            "started_reading = COALESCE(started_reading, ?), finished_reading = COALESCE(?, finished_reading) " +
+            "WHERE id = ?";
+
+    private final UserBookRepository userBookRepository;
+    private final LibraryStatsService libraryStatsService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, PendingProgress> pending = new ConcurrentHashMap<>();
+    // A user book never changes owner, so its owner is looked up once rather than on every report
+    private final Cache<Long, Long> owners;
+    private final AtomicBoolean flushing = new AtomicBoolean();
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "progress-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Timer flushLag;
+    private final Timer flushDuration;
+    private final Counter coalesced;
+    private final Counter flushed;
+    private final Counter dropped;
+
+    @Value("${library.progress.write-behind.enabled:true}")
+    private boolean enabled;
+
+    @Value("${library.progress.write-behind.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Value("${library.progress.write-behind.max-attempts:3}")
+    private int maxAttempts;
+
+    public ReadingProgressBuffer(UserBookRepository userBookRepository,
+                                 LibraryStatsService libraryStatsService,
+                                 JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 ApplicationEventPublisher eventPublisher,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${library.progress.write-behind.owner-cache-size:100000}") long ownerCacheSize) {
+        this.userBookRepository = userBookRepository;
+        this.libraryStatsService = libraryStatsService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.owners = Caffeine.newBuilder().maximumSize(ownerCacheSize).build();
+
+        meterRegistry.gaugeMapSize("library.progress.pending", List.of(), pending);
+        this.flushLag = Timer.builder("library.progress.flush.lag")
+                .description("Time from the first buffered update of a user book until it is written")
+                .register(meterRegistry);
+        this.flushDuration = Timer.builder("library.progress.flush.duration")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("library.progress.coalesced")
+                .description("Progress updates overwritten by a newer page before being flushed")
+                .register(meterRegistry);
+        this.flushed = Counter.builder("library.progress.flushed")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("library.progress.dropped")
+                .description("Progress updates given up on after failing to write max-attempts times")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Buffers the latest page for a user book, rejecting it up front, like the synchronous path does,
+     * when the user book does not exist or belongs to someone else.
+     */
+    public void submit(Long userId, Long userBookId, int currentPage) {
+        Long ownerId = owners.getIfPresent(userBookId);
+        if (ownerId == null) {
+            ownerId = userBookRepository.findOwnerId(userBookId).orElse(null);
+            if (ownerId != null) {
+                owners.put(userBookId, ownerId);
+            }
+        }
+        if (!userId.equals(ownerId)) {
+            throw new RuntimeException("Book not found in library");
+        }
+
+        pending.merge(userBookId, new PendingProgress(currentPage, System.nanoTime(), 0), (previous, latest) -> {
+            coalesced.increment();
+            // Keep the original enqueue time so the lag metric reflects the oldest unflushed write
+            return new PendingProgress(latest.currentPage(), previous.queuedAt(), previous.attempts());
+        });
+
+        if (pending.size() >= maxBatchSize && !flushing.get()) {
+            flushExecutor.execute(this::flush);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${library.progress.write-behind.flush-interval-ms:2000}")
+    public void flush() {
+        if (!flushing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            while (!pending.isEmpty()) {
+                Map<Long, PendingProgress> batch = drain();
+                if (batch.isEmpty()) {
+                    break;
+                }
+                flushDuration.record(() -> write(batch));
+            }
+        } finally {
+            flushing.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdown();
+        try {
+            flushExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private Map<Long, PendingProgress> drain() {
+        Map<Long, PendingProgress> batch = new HashMap<>();
+        for (Long userBookId : pending.keySet()) {
+            PendingProgress progress = pending.remove(userBookId);
+            if (progress != null) {
+                batch.put(userBookId, progress);
+            }
+            if (batch.size() >= maxBatchSize) {
+                break;
+            }
+        }
+        return batch;
+    }
+
+    private void write(Map<Long, PendingProgress> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(batch));
+            written(batch);
+            return;
+        } catch (Exception e) {
+            log.error("Failed to flush {} reading progress updates, retrying one by one: {}", batch.size(),
+                    e.getMessage());
+        }
+
+        // Write the rows on their own so one bad row cannot hold back the rest of the batch
+        batch.forEach((userBookId, progress) -> {
+            Map<Long, PendingProgress> single = Map.of(userBookId, progress);
+            try {
+                transactionTemplate.executeWithoutResult(status -> apply(single));
+                written(single);
+            } catch (Exception e) {
+                retryLater(userBookId, progress, e);
+            }
+        });
+    }
+
+    private void retryLater(Long userBookId, PendingProgress progress, Exception cause) {
+        int attempts = progress.attempts() + 1;
+        if (attempts >= maxAttempts) {
+            dropped.increment();
+            log.warn("Dropping reading progress for user book {} after {} failed attempts: {}", userBookId,
+                    attempts, cause.getMessage());
+            return;
+        }
+        // Re-queue without clobbering anything newer that arrived while we were writing
+        pending.putIfAbsent(userBookId, new PendingProgress(progress.currentPage(), progress.queuedAt(), attempts));
+    }
+
+    private void written(Map<Long, PendingProgress> batch) {
+        long now = System.nanoTime();
+        batch.values().forEach(progress -> flushLag.record(now - progress.queuedAt(), TimeUnit.NANOSECONDS));
+        flushed.increment(batch.size());
+    }
+
+    private void apply(Map<Long, PendingProgress> batch) {
+        userBookRepository.lockForProgress(batch.keySet());
+        List<ProgressSnapshot> snapshots = userBookRepository.findProgressSnapshots(batch.keySet());
+        if (snapshots.size() < batch.size()) {
+            log.debug("Dropping {} progress updates for user books that no longer exist",
+                    batch.size() - snapshots.size());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(snapshots.size());
+        Map<Long, LibraryStatsDelta> deltas = new HashMap<>();
+        List<ReadingProgressEvent.Progress> updates = new ArrayList<>(snapshots.size());
+
+        for (ProgressSnapshot snapshot : snapshots) {
+            int newPage = batch.get(snapshot.getId()).currentPage();
+            int oldPage = snapshot.getCurrentPage() != null ? snapshot.getCurrentPage() : 0;
+            BookStatus newStatus = BookService.statusForProgress(snapshot.getStatus(), newPage, snapshot.getPages());
+
+            LocalDateTime startedReading = newStatus == BookStatus.READING ? now : null;
+            LocalDateTime finishedReading = newStatus == BookStatus.READ ? now : null;
+
+            rows.add(new Object[]{newPage, newStatus != null ? newStatus.name() : null,
+                    startedReading, finishedReading, snapshot.getId()});
+            deltas.merge(snapshot.getUserId(),
+                    LibraryStatsDelta.transition(snapshot.getStatus(), oldPage, newStatus, newPage),
+                    LibraryStatsDelta::plus);
+            updates.add(new ReadingProgressEvent.Progress(snapshot.getUserId(), snapshot.getId(),
+                    snapshot.getBookId(), oldPage, newPage,
+                    newStatus == BookStatus.READ && snapshot.getStatus() != BookStatus.READ, now));
+        }
+
+        jdbcTemplate.batchUpdate(UPDATE_SQL, rows);
+        deltas.forEach(libraryStatsService::applyDelta);
+        if (!updates.isEmpty()) {
+            eventPublisher.publishEvent(new ReadingProgressEvent(updates));
+        }
+    }
+
+    private record PendingProgress(int currentPage, long queuedAt, int attempts) {
+    }
+}
@@ -0,0 +1,145 @@
+package com.bookgoblin.service;
+
+import com.bookgoblin.event.ReadingProgressEvent;
+import com.bookgoblin.model.entity.ReadingSession;
+import com.bookgoblin.repository.ReadingSessionRepository;
+import com.bookgoblin.repository.UserBookRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Records every reading progress change as a reading session and keeps a {@link ReadingCalendar}
+ * per active user. Calendars are loaded on first use from the sessions and finish dates of the last
+ * year, updated in place as progress arrives and evicted once the user goes idle.
+ */
+@Component
+@Slf4j
+public class ReadingSessionTracker {
+
+    private static final String INSERT_SQL = "INSERT INTO reading_sessions (user_id, user_book_id, book_id, " +
+            "start_page, end_page, pages_read, completed, recorded_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final ReadingSessionRepository readingSessionRepository;
+    private final UserBookRepository userBookRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+    private final Cache<Long, ReadingCalendar> calendars;
+
+    public ReadingSessionTracker(ReadingSessionRepository readingSessionRepository,
+                                 UserBookRepository userBookRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${library.reading.calendar.max-size:10000}") long maxSize,
+                                 @Value("${library.reading.calendar.idle-ms:1800000}") long idleMs,
+                                 @Value("${library.reading.calendar.reload-ms:21600000}") long reloadMs) {
+        this.readingSessionRepository = readingSessionRepository;
+        this.userBookRepository = userBookRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        // Listeners run after the publishing transaction committed, so the inserts need their own
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.calendars = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofMillis(idleMs))
+                // Reloading now and then repairs any update that raced with the initial load
+                .expireAfterWrite(Duration.ofMillis(reloadMs))
+                .build();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReadingProgress(ReadingProgressEvent event) {
+        List<ReadingSession> sessions = event.updates().stream()
+                .filter(progress -> progress.currentPage() != progress.previousPage() || progress.completed())
+                .map(progress -> ReadingSession.builder()
+                        .userId(progress.userId())
+                        .userBookId(progress.userBookId())
+                        .bookId(progress.bookId())
+                        .startPage(progress.previousPage())
+                        .endPage(progress.currentPage())
+                        .pagesRead(progress.pagesRead())
+                        .completed(progress.completed())
+                        .recordedAt(progress.recordedAt())
+                        .build())
+                .toList();
+        if (sessions.isEmpty()) {
+            return;
+        }
+
+        try {
+            newTransaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, sessions.stream()
+                    .map(session -> new Object[]{session.getUserId(), session.getUserBookId(), session.getBookId(),
+                            session.getStartPage(), session.getEndPage(), session.getPagesRead(),
+                            session.getCompleted(), session.getRecordedAt()})
+                    .toList()));
+        } catch (Exception e) {
+            log.warn("Failed to record {} reading sessions: {}", sessions.size(), e.getMessage());
+            return;
+        }
+
+        // Only calendars already in memory are updated; the others pick the sessions up when loaded
+        for (ReadingSession session : sessions) {
+            ReadingCalendar calendar = calendars.getIfPresent(session.getUserId());
+            if (calendar != null) {
+                calendar.record(session.getRecordedAt().toLocalDate().toEpochDay(), session.getPagesRead(),
+                        session.getCompleted());
+            }
+        }
+    }
+
+    public ReadingTrends getTrends(Long userId, int days) {
+        int window = Math.max(1, Math.min(days, ReadingCalendar.DAYS));
+        long today = LocalDate.now().toEpochDay();
+        ReadingCalendar calendar = calendars.getIfPresent(userId);
+        if (calendar == null) {
+            // Loaded outside the cache's compute, which would hold a map lock across the queries and pin a
+            // virtual thread; a racing load just loses to whichever calendar got in first
+            ReadingCalendar loaded = load(userId);
+            ReadingCalendar existing = calendars.asMap().putIfAbsent(userId, loaded);
+            calendar = existing != null ? existing : loaded;
+        }
+
+        long pagesRead = calendar.pagesRead(today, window);
+        long booksCompleted = calendar.completions(today, window);
+        return new ReadingTrends(
+                window,
+                pagesRead,
+                (double) pagesRead / window,
+                calendar.daysRead(today, window),
+                calendar.currentStreak(today),
+                booksCompleted,
+                booksCompleted * 30.0 / window);
+    }
+
+    private ReadingCalendar load(Long userId) {
+        LocalDate today = LocalDate.now();
+        LocalDateTime since = today.minusDays(ReadingCalendar.DAYS - 1).atStartOfDay();
+        ReadingCalendar calendar = new ReadingCalendar(today.toEpochDay());
+
+        readingSessionRepository.findPagesSince(userId, since).forEach(session ->
+                calendar.record(session.getRecordedAt().toLocalDate().toEpochDay(), session.getPagesRead(), false));
+        userBookRepository.findFinishedReadingSince(userId, since).forEach(finished ->
+                calendar.record(finished.toLocalDate().toEpochDay(), 0, true));
+        calendar.recomputeStreak();
+        return calendar;
+    }
+
+    /**
+     * Reading figures over the last {@code days} days. Velocity is books finished per 30 days.
+     */
+    public record ReadingTrends(int days, long pagesRead, double avgPagesPerDay, int daysRead,
+                                int readingStreak, long booksCompleted, double completionVelocity) {
+    }
+}
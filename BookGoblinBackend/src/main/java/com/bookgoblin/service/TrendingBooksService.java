@@ -0,0 +1,224 @@
+package com.bookgoblin.service;
+
+import com.bookgoblin.model.dto.response.BookResponse;
+import com.bookgoblin.model.entity.Book;
+import com.bookgoblin.repository.BookRepository;
+import com.bookgoblin.repository.UserBookRepository;
+import com.bookgoblin.repository.projection.BookPopularity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Serves the trending list from an immutable snapshot that a scheduled job rebuilds and swaps in.
+ * Each rebuild blends an OpenLibrary search with the books most added to libraries here recently,
+ * and writes the snapshot to disk so a restarted node serves the last list straight away.
+ */
+@Service
+@Slf4j
+public class TrendingBooksService {
+
+    private final OpenLibraryService openLibraryService;
+    private final UserBookRepository userBookRepository;
+    private final BookRepository bookRepository;
+    private final ObjectMapper objectMapper;
+    private final AtomicReference<TrendingSnapshot> snapshot = new AtomicReference<>(TrendingSnapshot.EMPTY);
+
+    @Value("${books.trending.size:12}")
+    private int size;
+
+    @Value("${books.trending.upstream.query:fantasy OR science fiction OR mystery}")
+    private String upstreamQuery;
+
+    @Value("${books.trending.upstream.weight:1.0}")
+    private double upstreamWeight;
+
+    @Value("${books.trending.local.window-days:7}")
+    private int localWindowDays;
+
+    @Value("${books.trending.local.weight:1.5}")
+    private double localWeight;
+
+    @Value("${books.trending.snapshot-file:data/trending-books.json}")
+    private String snapshotFile;
+
+    public TrendingBooksService(OpenLibraryService openLibraryService,
+                                UserBookRepository userBookRepository,
+                                BookRepository bookRepository,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry) {
+        this.openLibraryService = openLibraryService;
+        this.userBookRepository = userBookRepository;
+        this.bookRepository = bookRepository;
+        this.objectMapper = objectMapper;
+        meterRegistry.gauge("books.trending.snapshot.age.seconds", snapshot,
+                ref -> ref.get().computedAt() != null
+                        ? Instant.now().getEpochSecond() - ref.get().computedAt().getEpochSecond() : -1);
+    }
+
+    public List<BookResponse> getTrendingBooks() {
+        return snapshot.get().books();
+    }
+
+    @PostConstruct
+    void loadSnapshot() {
+        Path path = Paths.get(snapshotFile);
+        if (!Files.exists(path)) {
+            return;
+        }
+        try {
+            TrendingSnapshot loaded = objectMapper.readValue(path.toFile(), TrendingSnapshot.class);
+            snapshot.compareAndSet(TrendingSnapshot.EMPTY, loaded.normalized());
+            log.info("Loaded {} trending books computed at {}", loaded.books().size(), loaded.computedAt());
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable trending snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${books.trending.refresh-interval-ms:900000}",
+            initialDelayString = "${books.trending.initial-delay-ms:0}")
+    public void refresh() {
+        TrendingSnapshot previous = snapshot.get();
+        List<BookResponse> upstream;
+        try {
+            upstream = openLibraryService.fetchSearch(upstreamQuery, 1, size * 2);
+        } catch (Exception e) {
+            // Re-blend the last upstream list with fresh local counts rather than drop it
+            log.warn("Trending refresh could not reach OpenLibrary, reusing previous results: {}", e.getMessage());
+            upstream = previous.upstream();
+        }
+
+        List<Scored> local;
+        try {
+            local = localPopularity();
+        } catch (Exception e) {
+            log.warn("Trending refresh could not read local popularity: {}", e.getMessage());
+            local = List.of();
+        }
+
+        if (upstream.isEmpty() && local.isEmpty()) {
+            return;
+        }
+        TrendingSnapshot next = new TrendingSnapshot(blend(upstream, local), upstream, Instant.now()).normalized();
+        snapshot.set(next);
+        persist(next);
+    }
+
+    private List<Scored> localPopularity() {
+        List<BookPopularity> popular = userBookRepository.findMostAddedSince(
+                LocalDateTime.now().minusDays(localWindowDays), PageRequest.of(0, size * 2));
+        if (popular.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Book> books = bookRepository.findAllById(popular.stream().map(BookPopularity::getBookId).toList())
+                .stream().collect(Collectors.toMap(Book::getId, Function.identity()));
+        double mostAdds = popular.get(0).getAdds();
+        List<Scored> scored = new ArrayList<>();
+        for (BookPopularity entry : popular) {
+            Book book = books.get(entry.getBookId());
+            if (book != null) {
+                scored.add(new Scored(toResponse(book), localWeight * entry.getAdds() / mostAdds));
+            }
+        }
+        return scored;
+    }
+
+    // Upstream results score by rank, local ones by adds relative to the most added; a book in both gets both
+    private List<BookResponse> blend(List<BookResponse> upstream, List<Scored> local) {
+        Map<String, BookResponse> books = new LinkedHashMap<>();
+        Map<String, Double> scores = new HashMap<>();
+        for (Scored entry : local) {
+            String key = key(entry.book());
+            books.putIfAbsent(key, entry.book());
+            scores.merge(key, entry.score(), Double::sum);
+        }
+        for (int i = 0; i < upstream.size(); i++) {
+            String key = key(upstream.get(i));
+            // Prefer the local copy, which carries our id and ratings
+            books.putIfAbsent(key, upstream.get(i));
+            scores.merge(key, upstreamWeight * (upstream.size() - i) / upstream.size(), Double::sum);
+        }
+        return books.keySet().stream()
+                .sorted(Comparator.comparingDouble((String key) -> scores.get(key)).reversed())
+                .limit(size)
+                .map(books::get)
+                .toList();
+    }
+
+    private static String key(BookResponse book) {
+        if (book.getIsbn() != null && !book.getIsbn().isBlank()) {
+            return book.getIsbn();
+        }
+        return (book.getTitle() + "|" + book.getAuthor()).toLowerCase(Locale.ROOT);
+    }
+
+    private static BookResponse toResponse(Book book) {
+        // List views do not show the description, so the snapshot does not carry it
+        return BookResponse.builder()
+                .id(book.getId())
+                .title(book.getTitle())
+                .author(book.getAuthor())
+                .genre(book.getGenre() != null ? book.getGenre().name() : null)
+                .publishedYear(book.getPublishedYear())
+                .pages(book.getPages())
+                .coverId(book.getCoverId())
+                .isbn(book.getIsbn())
+                .rating(book.getRating())
+                .ratingCount(book.getRatingCount())
+                .openLibraryId(book.getOpenLibraryId())
+                .build();
+    }
+
+    private void persist(TrendingSnapshot next) {
+        Path path = Paths.get(snapshotFile);
+        try {
+            Path directory = path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            // Write aside and rename, so a crash mid-write never leaves a truncated snapshot behind
+            Path temp = Files.createTempFile(directory, "trending", ".tmp");
+            objectMapper.writeValue(temp.toFile(), next);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to persist trending snapshot to {}: {}", path, e.getMessage());
+        }
+    }
+
+    private record Scored(BookResponse book, double score) {
+    }
+
+    /**
+     * The trending list as served, plus the raw upstream results it was blended from.
+     */
+    record TrendingSnapshot(List<BookResponse> books, List<BookResponse> upstream, Instant computedAt) {
+
+        static final TrendingSnapshot EMPTY = new TrendingSnapshot(List.of(), List.of(), null);
+
+        TrendingSnapshot normalized() {
+            return new TrendingSnapshot(books != null ? List.copyOf(books) : List.of(),
+                    upstream != null ? List.copyOf(upstream) : List.of(), computedAt);
+        }
+    }
+}
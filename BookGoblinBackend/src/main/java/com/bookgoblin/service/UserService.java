@@ -1,22 +1,35 @@
 package com.bookgoblin.service;
 
+import com.bookgoblin.event.UserDeletedEvent;
 import com.bookgoblin.exception.UserNotFoundException;
+import com.bookgoblin.model.dto.response.ActivityLogResponse;
 import com.bookgoblin.model.dto.response.UserResponse;
-import com.bookgoblin.model.entity.ActivityLog;
+import com.bookgoblin.model.entity.Library;
 import com.bookgoblin.model.entity.User;
 import com.bookgoblin.repository.ActivityLogRepository;
 import com.bookgoblin.repository.LibraryRepository;
 import com.bookgoblin.repository.UserRepository;
+import com.bookgoblin.repository.projection.ActivityAggregate;
+import com.bookgoblin.search.UserSearchIndex;
+import com.bookgoblin.security.AuthenticatedUserCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -27,6 +40,9 @@ public class UserService {
     private final ActivityLogRepository activityLogRepository;
     private final PasswordEncoder passwordEncoder;
     private final ActivityLogService activityLogService;
+    private final AuthenticatedUserCache authenticatedUserCache;
+    private final UserSearchIndex userSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Cacheable(value = "users", key = "#id")
     public User getUserById(Long id) {
@@ -40,18 +56,33 @@ public class UserService {
                 .orElseThrow(() -> new UserNotFoundException("username", username));
     }
 
-    public Page<User> getAllUsers(Pageable pageable) {
-        return userRepository.findAll(pageable);
+    public Page<UserResponse> getAllUserResponses(Pageable pageable) {
+        Page<User> users = userRepository.findAll(pageable);
+        return new PageImpl<>(toUserResponses(users.getContent()), pageable, users.getTotalElements());
     }
 
-    public List<User> searchUsers(String query) {
-        return userRepository.findAll().stream()
-                .filter(user -> user.getUsername().toLowerCase().contains(query.toLowerCase()) ||
-                        user.getEmail().toLowerCase().contains(query.toLowerCase()))
+    public Page<UserResponse> searchUsers(String query, Pageable pageable) {
+        // Until the index has been built at startup, fall back to a (slow but bounded) LIKE query
+        Page<Long> ids = userSearchIndex.isReady()
+                ? userSearchIndex.search(query, pageable)
+                : userRepository.searchIds(query.trim().toLowerCase(), pageable);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.getTotalElements());
+        }
+
+        // The IN query returns rows in arbitrary order, so restore the index's ranking
+        Map<Long, UserResponse> byId = userRepository
+                .findUserResponses(ids.getContent(), LocalDateTime.now().minusDays(30)).stream()
+                .collect(Collectors.toMap(UserResponse::getId, Function.identity()));
+        List<UserResponse> users = ids.getContent().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .toList();
+        return new PageImpl<>(users, pageable, ids.getTotalElements());
     }
 
     @Transactional
+    @CacheEvict(value = "users", key = "#userId")
     public User updateUser(Long userId, User updatedUser) {
         User user = getUserById(userId);
 
@@ -74,6 +105,7 @@ public class UserService {
         }
 
         User savedUser = userRepository.save(user);
+        authenticatedUserCache.evict(userId);
 
         activityLogService.logActivity(
                 savedUser,
@@ -85,6 +117,7 @@ public class UserService {
     }
 
     @Transactional
+    @CacheEvict(value = "users", key = "#userId")
     public void updatePassword(Long userId, String oldPassword, String newPassword) {
         User user = getUserById(userId);
 
@@ -93,7 +126,9 @@ public class UserService {
         }
 
         user.setPassword(passwordEncoder.encode(newPassword));
+        user.revokeTokens();
         userRepository.save(user);
+        authenticatedUserCache.evict(userId);
 
         activityLogService.logActivity(
                 user,
@@ -103,9 +138,13 @@ public class UserService {
     }
 
     @Transactional
+    @CacheEvict(value = "users", key = "#userId")
     public void deleteUser(Long userId) {
         User user = getUserById(userId);
+        libraryRepository.deleteByUserId(userId);
         userRepository.delete(user);
+        authenticatedUserCache.evict(userId);
+        eventPublisher.publishEvent(new UserDeletedEvent(userId));
 
         activityLogService.logActivity(
                 user,
@@ -115,21 +154,40 @@ public class UserService {
     }
 
     // ADD THIS METHOD - it was missing
-    public Page<ActivityLog> getUserActivities(Long userId, Pageable pageable) {
+    public Page<ActivityLogResponse> getUserActivities(Long userId, Pageable pageable) {
         // First check if user exists
         if (!userRepository.existsById(userId)) {
             throw new UserNotFoundException(userId);
         }
 
-        return activityLogRepository.findByUserId(userId, pageable);
+        return activityLogService.getUserActivities(userId, pageable);
     }
 
     public UserResponse toUserResponse(User user) {
-        var library = libraryRepository.findByUserId(user.getId()).orElse(null);
-        var lastActivity = activityLogRepository.findByUserIdOrderByCreatedAtDesc(user.getId())
-                .stream()
-                .findFirst();
+        return toUserResponses(List.of(user)).get(0);
+    }
+
+    /**
+     * Builds responses for a batch of users with one library query and one activity aggregate,
+     * preserving the order of {@code users}.
+     */
+    public List<UserResponse> toUserResponses(Collection<User> users) {
+        if (users.isEmpty()) {
+            return List.of();
+        }
+        List<Long> userIds = users.stream().map(User::getId).toList();
+        Map<Long, Library> libraries = libraryRepository.findByUserIdIn(userIds).stream()
+                .collect(Collectors.toMap(library -> library.getUser().getId(), Function.identity()));
+        Map<Long, ActivityAggregate> activity = activityLogRepository
+                .aggregateByUser(userIds, LocalDateTime.now().minusDays(30)).stream()
+                .collect(Collectors.toMap(ActivityAggregate::getUserId, Function.identity()));
+
+        return users.stream()
+                .map(user -> toUserResponse(user, libraries.get(user.getId()), activity.get(user.getId())))
+                .toList();
+    }
 
+    private UserResponse toUserResponse(User user, Library library, ActivityAggregate activity) {
         return UserResponse.builder()
                 .id(user.getId())
                 .username(user.getUsername())
@@ -143,8 +201,8 @@ public class UserService {
                 .booksReading(library != null ? library.getBooksReading() : 0)
                 .booksToRead(library != null ? library.getBooksToRead() : 0)
                 .totalPagesRead(library != null ? library.getTotalPagesRead() : 0)
-                .totalActivities(activityLogRepository.countSince(LocalDateTime.now().minusDays(30)))
-                .lastActivityAt(lastActivity.map(com.bookgoblin.model.entity.ActivityLog::getCreatedAt).orElse(null))
+                .totalActivities(activity != null ? activity.getRecentActivities() : 0L)
+                .lastActivityAt(activity != null ? activity.getLastActivityAt() : null)
                 .build();
     }
 }
\ No newline at end of file
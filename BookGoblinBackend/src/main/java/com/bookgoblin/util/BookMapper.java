@@ -14,6 +14,11 @@ public interface BookMapper {
 
     @Mapping(source = "genre", target = "genre")
     @Mapping(source = "id", target = "id")
+    // Library fields; a bare book has none
+    @Mapping(target = "status", ignore = true)
+    @Mapping(target = "currentPage", ignore = true)
+    @Mapping(target = "userRating", ignore = true)
+    @Mapping(target = "review", ignore = true)
     BookResponse toResponse(Book book);
 
     @Mapping(source = "book.id", target = "id")
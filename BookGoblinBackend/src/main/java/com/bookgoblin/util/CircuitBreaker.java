@@ -0,0 +1,64 @@
+package com.bookgoblin.util;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Consecutive-failure circuit breaker. After {@code failureThreshold} failures in a row the circuit
+ * opens and rejects calls for {@code openDuration}; then a single trial call decides whether it closes.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openedAt = new AtomicLong(-1);
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+    }
+
+    public State getState() {
+        long opened = openedAt.get();
+        if (opened < 0) {
+            return State.CLOSED;
+        }
+        return System.nanoTime() - opened >= openDurationNanos ? State.HALF_OPEN : State.OPEN;
+    }
+
+    public boolean tryAcquire() {
+        return switch (getState()) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> trialInFlight.compareAndSet(false, true);
+        };
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        openedAt.set(-1);
+        trialInFlight.set(false);
+    }
+
+    public void onFailure() {
+        if (trialInFlight.getAndSet(false) || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt.set(System.nanoTime());
+        }
+    }
+
+    // A call that never reached the upstream (e.g. rejected elsewhere) must not leave the trial slot taken
+    public void onIgnored() {
+        trialInFlight.set(false);
+    }
+}
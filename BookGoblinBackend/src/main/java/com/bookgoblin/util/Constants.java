@@ -33,6 +33,8 @@ public class Constants {
     public static final int MAX_SEARCH_RESULTS = 100;
     public static final int DEFAULT_SEARCH_LIMIT = 10;
     public static final int MAX_TRENDING_BOOKS = 20;
+    public static final int MAX_ISBNS_PER_REQUEST = 100;
+    public static final int MAX_LIBRARY_PAGE_SIZE = 100;
 
     // Date formats
     public static final String DATE_FORMAT = "yyyy-MM-dd";
@@ -0,0 +1,109 @@
+package com.bookgoblin.util;
+
+import com.bookgoblin.model.dto.response.BookResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Decodes /search.json responses with the streaming parser, reading only the fields we map
+ * straight into BookResponse builders and skipping every other subtree.
+ */
+@Component
+public class OpenLibrarySearchDecoder {
+
+    private final JsonFactory jsonFactory;
+
+    public OpenLibrarySearchDecoder(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    public List<BookResponse> decode(InputStream body) throws IOException {
+        List<BookResponse> books = new ArrayList<>();
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return books;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("docs".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        books.add(readDoc(parser));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return books;
+    }
+
+    private BookResponse readDoc(JsonParser parser) throws IOException {
+        // Defaults match what the Map-based mapping produced for missing fields
+        BookResponse.BookResponseBuilder book = BookResponse.builder()
+                .author("Unknown Author")
+                .genre("General")
+                .rating(0.0)
+                .ratingCount(0)
+                .language("en")
+                .availableOnline(false);
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (field) {
+                case "key" -> book.openLibraryId(parser.getText());
+                case "title" -> book.title(parser.getText());
+                case "author_name" -> setIfPresent(firstString(parser), book::author);
+                case "subject" -> setIfPresent(firstString(parser), book::genre);
+                case "isbn" -> book.isbn(firstString(parser));
+                case "language" -> setIfPresent(firstString(parser), book::language);
+                case "first_publish_year" -> book.publishedYear(parser.getValueAsInt());
+                case "number_of_pages_median" -> book.pages(parser.getValueAsInt());
+                case "cover_i" -> book.coverId(parser.getText());
+                case "ratings_average" -> book.rating(parser.getValueAsDouble());
+                case "ratings_count" -> book.ratingCount(parser.getValueAsInt());
+                case "ia" -> book.availableOnline(firstString(parser) != null);
+                default -> parser.skipChildren();
+            }
+        }
+        return book.build();
+    }
+
+    // Returns the first element of a string array and consumes the rest of it
+    private String firstString(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            String value = parser.getValueAsString();
+            parser.skipChildren();
+            return value;
+        }
+        String first = null;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (first == null && token.isScalarValue()) {
+                first = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return first;
+    }
+
+    private static void setIfPresent(String value, Consumer<String> setter) {
+        if (value != null) {
+            setter.accept(value);
+        }
+    }
+}
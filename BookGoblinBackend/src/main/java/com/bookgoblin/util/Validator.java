@@ -6,6 +6,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.validation.Errors;
 import org.springframework.validation.ValidationUtils;
 
+import java.util.Locale;
 import java.util.regex.Pattern;
 
 @Component
@@ -60,6 +61,18 @@ public class Validator implements org.springframework.validation.Validator {
         }
     }
 
+    /**
+     * Strips an ISBN down to its digits and check character, so hyphenated and bare forms compare equal.
+     * Returns null when nothing is left.
+     */
+    public static String normalizeIsbn(String isbn) {
+        if (isbn == null) {
+            return null;
+        }
+        String normalized = isbn.replaceAll("[^0-9Xx]", "").toUpperCase(Locale.ROOT);
+        return normalized.isEmpty() ? null : normalized;
+    }
+
     public static boolean isValidIsbn(String isbn) {
         if (isbn == null || isbn.trim().isEmpty()) {
             return false;
@@ -0,0 +1,124 @@
+-- Schema as Hibernate's ddl-auto created it before migrations were introduced (MySQL 8).
+-- Databases that already have these tables are baselined at this version and skip this script.
+
+CREATE TABLE IF NOT EXISTS users (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    username      VARCHAR(255) NOT NULL,
+    email         VARCHAR(255) NOT NULL,
+    password      VARCHAR(255) NOT NULL,
+    avatar_url    VARCHAR(255),
+    role          VARCHAR(255),
+    token_version INT,
+    created_at    DATETIME(6),
+    updated_at    DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS books (
+    id               BIGINT       NOT NULL AUTO_INCREMENT,
+    title            VARCHAR(255) NOT NULL,
+    author           VARCHAR(255) NOT NULL,
+    open_library_id  VARCHAR(255),
+    isbn             VARCHAR(255),
+    genre            VARCHAR(255),
+    published_year   INT,
+    pages            INT,
+    cover_id         VARCHAR(255),
+    rating           DOUBLE,
+    rating_count     INT,
+    description      TEXT,
+    language         VARCHAR(255),
+    available_online BOOLEAN,
+    created_at       DATETIME(6),
+    updated_at       DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_books_isbn UNIQUE (isbn)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS libraries (
+    id               BIGINT NOT NULL AUTO_INCREMENT,
+    user_id          BIGINT NOT NULL,
+    total_books      INT,
+    books_read       INT,
+    books_reading    INT,
+    books_to_read    INT,
+    total_pages_read INT,
+    created_at       DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_libraries_user UNIQUE (user_id),
+    CONSTRAINT fk_libraries_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS user_books (
+    id               BIGINT NOT NULL AUTO_INCREMENT,
+    user_id          BIGINT NOT NULL,
+    book_id          BIGINT NOT NULL,
+    status           VARCHAR(255),
+    current_page     INT,
+    rating           INT,
+    review           TEXT,
+    started_reading  DATETIME(6),
+    finished_reading DATETIME(6),
+    added_at         DATETIME(6),
+    PRIMARY KEY (id),
+    INDEX idx_user_books_user_added (user_id, added_at, id),
+    CONSTRAINT fk_user_books_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_user_books_book FOREIGN KEY (book_id) REFERENCES books (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS activity_logs (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    user_id       BIGINT,
+    activity_type VARCHAR(255),
+    description   TEXT,
+    ip_address    VARCHAR(255),
+    user_agent    VARCHAR(255),
+    created_at    DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_activity_logs_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS activity_rollups (
+    id            BIGINT      NOT NULL AUTO_INCREMENT,
+    granularity   VARCHAR(8)  NOT NULL,
+    user_id       BIGINT      NOT NULL,
+    bucket_start  DATETIME(6) NOT NULL,
+    activity_type VARCHAR(50) NOT NULL,
+    event_count   BIGINT      NOT NULL,
+    pages_read    BIGINT      NOT NULL,
+    updated_at    DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_activity_rollups_bucket UNIQUE (granularity, user_id, bucket_start, activity_type)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS admin_daily_stats (
+    id               BIGINT NOT NULL AUTO_INCREMENT,
+    stat_date        DATE   NOT NULL,
+    total_users      BIGINT,
+    new_users        BIGINT,
+    active_users     BIGINT,
+    total_books      BIGINT,
+    books_added      BIGINT,
+    activities       BIGINT,
+    total_activities BIGINT,
+    average_rating   DOUBLE,
+    updated_at       DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_admin_daily_stats_date UNIQUE (stat_date)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS reading_sessions (
+    id           BIGINT      NOT NULL AUTO_INCREMENT,
+    user_id      BIGINT      NOT NULL,
+    user_book_id BIGINT      NOT NULL,
+    book_id      BIGINT,
+    start_page   INT         NOT NULL,
+    end_page     INT         NOT NULL,
+    pages_read   INT         NOT NULL,
+    completed    BOOLEAN     NOT NULL,
+    recorded_at  DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_reading_sessions_user_time (user_id, recorded_at)
+) ENGINE = InnoDB;
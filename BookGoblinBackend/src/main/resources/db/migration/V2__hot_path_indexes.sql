@@ -0,0 +1,127 @@
+-- Composite indexes behind the per-user library lookups and the time-ranged activity queries.
+-- Databases created by ddl-auto may already have some of them, so each is created only if missing.
+
+-- Databases baselined at V1 were built by ddl-auto before these tables existed and skipped V1, so they
+-- are created here when missing (same definitions as V1) before the clean-up below relies on them.
+CREATE TABLE IF NOT EXISTS activity_rollups (
+    id            BIGINT      NOT NULL AUTO_INCREMENT,
+    granularity   VARCHAR(8)  NOT NULL,
+    user_id       BIGINT      NOT NULL,
+    bucket_start  DATETIME(6) NOT NULL,
+    activity_type VARCHAR(50) NOT NULL,
+    event_count   BIGINT      NOT NULL,
+    pages_read    BIGINT      NOT NULL,
+    updated_at    DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_activity_rollups_bucket UNIQUE (granularity, user_id, bucket_start, activity_type)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS admin_daily_stats (
+    id               BIGINT NOT NULL AUTO_INCREMENT,
+    stat_date        DATE   NOT NULL,
+    total_users      BIGINT,
+    new_users        BIGINT,
+    active_users     BIGINT,
+    total_books      BIGINT,
+    books_added      BIGINT,
+    activities       BIGINT,
+    total_activities BIGINT,
+    average_rating   DOUBLE,
+    updated_at       DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_admin_daily_stats_date UNIQUE (stat_date)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS reading_sessions (
+    id           BIGINT      NOT NULL AUTO_INCREMENT,
+    user_id      BIGINT      NOT NULL,
+    user_book_id BIGINT      NOT NULL,
+    book_id      BIGINT,
+    start_page   INT         NOT NULL,
+    end_page     INT         NOT NULL,
+    pages_read   INT         NOT NULL,
+    completed    BOOLEAN     NOT NULL,
+    recorded_at  DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_reading_sessions_user_time (user_id, recorded_at)
+) ENGINE = InnoDB;
+
+DROP PROCEDURE IF EXISTS create_index_if_missing;
+
+DELIMITER //
+CREATE PROCEDURE create_index_if_missing(IN table_name_in VARCHAR(64), IN index_name_in VARCHAR(64),
+                                         IN ddl VARCHAR(512))
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = table_name_in AND index_name = index_name_in) THEN
+        SET @ddl = ddl;
+        PREPARE statement FROM @ddl;
+        EXECUTE statement;
+        DEALLOCATE PREPARE statement;
+    END IF;
+END //
+DELIMITER ;
+
+-- The unique key needs duplicate shelf entries gone. The oldest row of each (user, book) pair is kept,
+-- the others' reading sessions move to it and the owners' library counters are rebuilt afterwards.
+CREATE TEMPORARY TABLE user_book_duplicates (
+    duplicate_id BIGINT NOT NULL,
+    kept_id      BIGINT NOT NULL,
+    user_id      BIGINT NOT NULL,
+    PRIMARY KEY (duplicate_id)
+);
+
+INSERT INTO user_book_duplicates (duplicate_id, kept_id, user_id)
+SELECT duplicate.id, MIN(kept.id), duplicate.user_id
+FROM user_books duplicate
+    JOIN user_books kept ON kept.user_id = duplicate.user_id AND kept.book_id = duplicate.book_id
+        AND kept.id < duplicate.id
+GROUP BY duplicate.id, duplicate.user_id;
+
+UPDATE reading_sessions rs
+    JOIN user_book_duplicates d ON d.duplicate_id = rs.user_book_id
+SET rs.user_book_id = d.kept_id;
+
+DELETE duplicate FROM user_books duplicate
+    JOIN user_book_duplicates d ON d.duplicate_id = duplicate.id;
+
+-- Same figures as LibraryStatsService.recompute; pages only count for books that are READ
+UPDATE libraries l
+    JOIN (SELECT ub.user_id,
+                 COUNT(*) AS total_books,
+                 SUM(ub.status = 'READ') AS books_read,
+                 SUM(ub.status = 'READING') AS books_reading,
+                 SUM(ub.status = 'WANT_TO_READ') AS books_to_read,
+                 COALESCE(SUM(CASE WHEN ub.status = 'READ' THEN ub.current_page END), 0) AS total_pages_read
+          FROM user_books ub
+          WHERE ub.user_id IN (SELECT user_id FROM user_book_duplicates)
+          GROUP BY ub.user_id) counts ON counts.user_id = l.user_id
+SET l.total_books      = counts.total_books,
+    l.books_read       = counts.books_read,
+    l.books_reading    = counts.books_reading,
+    l.books_to_read    = counts.books_to_read,
+    l.total_pages_read = counts.total_pages_read;
+
+DROP TEMPORARY TABLE user_book_duplicates;
+
+-- findByUserIdAndBookId, existsByUserIdAndBookId
+CALL create_index_if_missing('user_books', 'uk_user_books_user_book',
+    'ALTER TABLE user_books ADD CONSTRAINT uk_user_books_user_book UNIQUE (user_id, book_id)');
+-- findByUserIdAndStatus, countByStatus
+CALL create_index_if_missing('user_books', 'idx_user_books_user_status',
+    'CREATE INDEX idx_user_books_user_status ON user_books (user_id, status)');
+-- countByAddedAtBetween, findMostAddedSince
+CALL create_index_if_missing('user_books', 'idx_user_books_added',
+    'CREATE INDEX idx_user_books_added ON user_books (added_at)');
+-- findLibraryPage keyset scans (declared since the paged listing, repeated for older databases)
+CALL create_index_if_missing('user_books', 'idx_user_books_user_added',
+    'CREATE INDEX idx_user_books_user_added ON user_books (user_id, added_at, id)');
+
+-- countSince, countBetween, countDistinctUsersBetween, retention and rollup range scans
+CALL create_index_if_missing('activity_logs', 'idx_activity_logs_created',
+    'CREATE INDEX idx_activity_logs_created ON activity_logs (created_at)');
+-- findByUserId(Pageable) ordered by createdAt, aggregateByUser
+CALL create_index_if_missing('activity_logs', 'idx_activity_logs_user_created',
+    'CREATE INDEX idx_activity_logs_user_created ON activity_logs (user_id, created_at)');
+
+DROP PROCEDURE create_index_if_missing;
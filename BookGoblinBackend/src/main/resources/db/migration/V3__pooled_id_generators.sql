@@ -0,0 +1,21 @@
+-- Row per entity for the pooled table generators on books, users and libraries (see IdGenerators).
+-- Each row is seeded two allocation blocks past the table's highest id, so the first block handed
+-- out clears every existing row whichever way the generator reads the stored value.
+
+CREATE TABLE IF NOT EXISTS id_generators (
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val      BIGINT,
+    PRIMARY KEY (sequence_name)
+) ENGINE = InnoDB;
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'books', COALESCE(MAX(id), 0) + 100 FROM books
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'users', COALESCE(MAX(id), 0) + 100 FROM users
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'libraries', COALESCE(MAX(id), 0) + 100 FROM libraries
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
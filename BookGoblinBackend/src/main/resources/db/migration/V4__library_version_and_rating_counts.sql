@@ -0,0 +1,5 @@
+-- Optimistic lock column for the library counters, bumped by every delta as well as by entity saves.
+ALTER TABLE libraries ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- Rating aggregates are now adjusted in place, so they must never be null.
+UPDATE books SET rating = 0, rating_count = 0 WHERE rating IS NULL OR rating_count IS NULL;
@@ -0,0 +1,8 @@
+-- Resume points for chunked background jobs (see JobCheckpoint).
+
+CREATE TABLE IF NOT EXISTS job_checkpoints (
+    name       VARCHAR(100) NOT NULL,
+    last_id    BIGINT       NOT NULL,
+    updated_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (name)
+) ENGINE = InnoDB;
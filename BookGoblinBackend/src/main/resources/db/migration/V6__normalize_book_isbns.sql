@@ -0,0 +1,14 @@
+-- Books are now stored with bare ISBNs (digits and X, see Validator.normalizeIsbn); rewrite the rows
+-- added by hand with hyphens or spaces. When two spellings of one ISBN already exist, or the bare form
+-- is taken, only the lowest id is rewritten and the others are left alone rather than merged.
+
+UPDATE books b
+    JOIN (SELECT MIN(id) AS id, UPPER(REGEXP_REPLACE(isbn, '[^0-9Xx]', '')) AS normalized
+          FROM books
+          WHERE isbn IS NOT NULL
+          GROUP BY normalized) keep ON keep.id = b.id
+    LEFT JOIN books taken ON taken.isbn = keep.normalized AND taken.id <> b.id
+SET b.isbn = keep.normalized
+WHERE b.isbn <> keep.normalized
+  AND keep.normalized <> ''
+  AND taken.id IS NULL;
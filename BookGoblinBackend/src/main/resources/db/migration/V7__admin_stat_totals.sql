@@ -0,0 +1,19 @@
+-- Cluster-wide dashboard totals (see AdminStatsCounters). Nodes add the changes they see instead of
+-- recounting the source tables, so the full counts run once here.
+CREATE TABLE IF NOT EXISTS admin_stat_totals (
+    name       VARCHAR(50) NOT NULL,
+    total      BIGINT      NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (name)
+) ENGINE = InnoDB;
+
+INSERT INTO admin_stat_totals (name, total, updated_at)
+SELECT 'users', COUNT(*), CURRENT_TIMESTAMP(6) FROM users
+UNION ALL
+SELECT 'books', COUNT(*), CURRENT_TIMESTAMP(6) FROM books
+UNION ALL
+SELECT 'activities', COUNT(*), CURRENT_TIMESTAMP(6) FROM activity_logs
+UNION ALL
+SELECT 'rating_sum', COALESCE(SUM(rating), 0), CURRENT_TIMESTAMP(6) FROM user_books
+UNION ALL
+SELECT 'rating_count', COUNT(rating), CURRENT_TIMESTAMP(6) FROM user_books;
@@ -0,0 +1,12 @@
+-- Book ratings are now kept as an integer sum next to the count and the average is derived from the two
+-- (BookRepository.applyRatingDelta). All three are rebuilt from the shelf ratings, which also drops any
+-- error the running average had picked up.
+ALTER TABLE books ADD COLUMN rating_sum INT NOT NULL DEFAULT 0;
+
+UPDATE books b
+    LEFT JOIN (SELECT book_id, COUNT(rating) AS ratings, COALESCE(SUM(rating), 0) AS total
+               FROM user_books
+               GROUP BY book_id) r ON r.book_id = b.id
+SET b.rating       = CASE WHEN COALESCE(r.ratings, 0) = 0 THEN 0 ELSE CAST(r.total AS DOUBLE) / r.ratings END,
+    b.rating_sum   = COALESCE(r.total, 0),
+    b.rating_count = COALESCE(r.ratings, 0);
@@ -0,0 +1,65 @@
+-- One-off conversion of activity_logs to monthly RANGE COLUMNS partitions (MySQL 8).
+-- Run during a maintenance window, then set activity.log.partitioning.enabled=true so
+-- ActivityLogPartitionManager keeps future months split off p_future and drops expired ones.
+--
+-- MySQL does not allow foreign keys on partitioned tables and requires the partitioning column in
+-- every unique key, so the user_id foreign key is dropped and created_at joins the primary key.
+-- The foreign key is looked up by what it references rather than by name: V1 calls it
+-- fk_activity_logs_user, but tables Hibernate created before migrations carry a generated name.
+
+DROP PROCEDURE IF EXISTS partition_activity_logs;
+
+DELIMITER //
+CREATE PROCEDURE partition_activity_logs()
+BEGIN
+    DECLARE fk_name VARCHAR(64);
+    DECLARE first_month DATE;
+    DECLARE last_month DATE;
+    DECLARE month_start DATE;
+    DECLARE partitions TEXT DEFAULT '';
+
+    SELECT constraint_name INTO fk_name
+    FROM information_schema.referential_constraints
+    WHERE constraint_schema = DATABASE() AND table_name = 'activity_logs' AND referenced_table_name = 'users'
+    LIMIT 1;
+    IF fk_name IS NOT NULL THEN
+        SET @ddl = CONCAT('ALTER TABLE activity_logs DROP FOREIGN KEY `', fk_name, '`');
+        PREPARE statement FROM @ddl;
+        EXECUTE statement;
+        DEALLOCATE PREPARE statement;
+    END IF;
+
+    -- Rows without a timestamp cannot be placed in a month; they are kept, aged from now
+    UPDATE activity_logs SET created_at = CURRENT_TIMESTAMP(6) WHERE created_at IS NULL;
+
+    ALTER TABLE activity_logs
+        MODIFY created_at DATETIME(6) NOT NULL,
+        DROP PRIMARY KEY,
+        ADD PRIMARY KEY (id, created_at);
+
+    -- One partition per month from the oldest row through the current month, named p<yyyyMM> like the
+    -- ones ActivityLogPartitionManager creates and drops; later months are split off p_future by it
+    SET last_month = DATE_FORMAT(CURRENT_DATE, '%Y-%m-01');
+    SELECT COALESCE(DATE_FORMAT(MIN(created_at), '%Y-%m-01'), last_month) INTO first_month FROM activity_logs;
+    IF first_month > last_month THEN
+        SET first_month = last_month;
+    END IF;
+
+    SET month_start = first_month;
+    WHILE month_start <= last_month DO
+        SET partitions = CONCAT(partitions,
+            'PARTITION p', DATE_FORMAT(month_start, '%Y%m'),
+            ' VALUES LESS THAN (''', DATE_FORMAT(month_start + INTERVAL 1 MONTH, '%Y-%m-%d'), '''), ');
+        SET month_start = month_start + INTERVAL 1 MONTH;
+    END WHILE;
+
+    SET @ddl = CONCAT('ALTER TABLE activity_logs PARTITION BY RANGE COLUMNS (created_at) (', partitions,
+        'PARTITION p_future VALUES LESS THAN (MAXVALUE))');
+    PREPARE statement FROM @ddl;
+    EXECUTE statement;
+    DEALLOCATE PREPARE statement;
+END //
+DELIMITER ;
+
+CALL partition_activity_logs();
+DROP PROCEDURE partition_activity_logs;
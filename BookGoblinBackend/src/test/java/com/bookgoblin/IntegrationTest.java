@@ -0,0 +1,31 @@
+package com.bookgoblin;
+
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Clock;
+
+/**
+ * Base for tests that run the whole application against the dev profile's in-memory H2. Subclasses share
+ * one context. Scheduled jobs are handed a scheduler that never runs them, so the only database traffic
+ * is the test's own.
+ */
+@SpringBootTest(classes = {BookGoblinApplication.class, IntegrationTest.NoScheduling.class})
+@ActiveProfiles({"dev", "test"})
+public abstract class IntegrationTest {
+
+    @TestConfiguration
+    static class NoScheduling {
+
+        @Bean
+        TaskScheduler taskScheduler() {
+            TaskScheduler scheduler = Mockito.mock(TaskScheduler.class);
+            Mockito.when(scheduler.getClock()).thenReturn(Clock.systemDefaultZone());
+            return scheduler;
+        }
+    }
+}
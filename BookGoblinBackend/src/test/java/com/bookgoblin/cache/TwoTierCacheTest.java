@@ -0,0 +1,59 @@
+package com.bookgoblin.cache;
+
+import com.bookgoblin.model.dto.response.BookResponse;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class TwoTierCacheTest {
+
+    private final ConcurrentMapCache remote = new ConcurrentMapCache("bookDetails");
+    private final TwoTierCache cache = new TwoTierCache("bookDetails",
+            Caffeine.newBuilder().<String, byte[]>build(),
+            remote,
+            RedisCacheConfiguration.defaultCacheConfig().getValueSerializationPair(),
+            mock(CacheInvalidationPublisher.class),
+            new SimpleMeterRegistry());
+
+    @Test
+    void callersChangingAnL1HitDoNotChangeTheCachedValue() {
+        cache.put("OL1W", book("Original"));
+
+        cache.get("OL1W", BookResponse.class).setTitle("Changed by a caller");
+
+        assertThat(cache.get("OL1W", BookResponse.class).getTitle()).isEqualTo("Original");
+    }
+
+    @Test
+    void changingAValueAfterPuttingItDoesNotReachL1() {
+        BookResponse book = book("Original");
+        cache.put("OL1W", book);
+        book.setTitle("Changed after put");
+        // Only L1 is checked: the in-memory stand-in for Redis keeps the reference it was given
+        remote.clear();
+
+        assertThat(cache.get("OL1W", BookResponse.class).getTitle()).isEqualTo("Original");
+    }
+
+    @Test
+    void l2HitsBackfillL1WithACopy() {
+        remote.put("OL1W", book("From Redis"));
+
+        BookResponse first = cache.get("OL1W", BookResponse.class);
+        first.setTitle("Changed by a caller");
+        remote.clear();
+
+        BookResponse second = cache.get("OL1W", BookResponse.class);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getTitle()).isEqualTo("From Redis");
+    }
+
+    private static BookResponse book(String title) {
+        return BookResponse.builder().title(title).author("Author").openLibraryId("OL1W").build();
+    }
+}
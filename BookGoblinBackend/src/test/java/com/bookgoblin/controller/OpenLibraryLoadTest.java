@@ -0,0 +1,198 @@
+package com.bookgoblin.controller;
+
+import com.bookgoblin.BookGoblinApplication;
+import com.sun.net.httpserver.HttpServer;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load harness for the virtual-thread mode: boots the application on platform Tomcat workers and then on
+ * virtual threads, points OpenLibrary at a local stub that answers every call after a delay, and fires
+ * CONCURRENCY uncached book-detail lookups at once. Logs throughput, latency and the JFR pinned-thread
+ * events seen under load for each mode.
+ * <p>
+ * Run with OPENLIBRARY_LOAD_TEST=true and Redis up as configured (without it every cache miss waits on
+ * a failed Redis call). OPENLIBRARY_LOAD_TEST_CONCURRENCY (default 1000) and OPENLIBRARY_LOAD_TEST_DELAY_MS
+ * (default 500) tune it.
+ */
+@EnabledIfEnvironmentVariable(named = "OPENLIBRARY_LOAD_TEST", matches = "true")
+@Slf4j
+class OpenLibraryLoadTest {
+
+    private static final int CONCURRENCY = intEnv("OPENLIBRARY_LOAD_TEST_CONCURRENCY", 1000);
+    private static final int DELAY_MS = intEnv("OPENLIBRARY_LOAD_TEST_DELAY_MS", 500);
+    private static final int WARM_UP = 50;
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    @Test
+    void slowUpstreamCallsOnPlatformAndVirtualThreads() throws Exception {
+        HttpServer stub = startStub();
+        try {
+            Map<String, String> results = new LinkedHashMap<>();
+            for (boolean virtual : new boolean[]{false, true}) {
+                String mode = virtual ? "virtual threads" : "platform threads";
+                try (ConfigurableApplicationContext app = start(stub, virtual)) {
+                    int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+                    results.put(mode, run(mode, port));
+                }
+            }
+            log.info("OpenLibrary load test, {} concurrent calls, {} ms upstream delay:", CONCURRENCY, DELAY_MS);
+            results.forEach((mode, result) -> log.info("  {}: {}", mode, result));
+        } finally {
+            stub.stop(0);
+        }
+    }
+
+    // The OpenLibrary executor, bulkhead and connection pool are raised above the concurrency,
+    // so the request threads are the only limit being compared
+    private static ConfigurableApplicationContext start(HttpServer stub, boolean virtual) {
+        int limit = CONCURRENCY + WARM_UP;
+        return new SpringApplicationBuilder(BookGoblinApplication.class)
+                .profiles("dev", "test")
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        // Detail URLs are base-url + id + ".json"
+                        "--openlibrary.api.base-url=http://127.0.0.1:" + stub.getAddress().getPort() + "/works/",
+                        "--openlibrary.api.executor.threads=" + limit,
+                        "--openlibrary.api.bulkhead.details=" + limit,
+                        "--openlibrary.api.pool.max-total=" + limit,
+                        "--openlibrary.api.pool.max-per-route=" + limit,
+                        "--openlibrary.api.timeout.read=60000");
+    }
+
+    private static String run(String mode, int port) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newCachedThreadPool())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        // Fresh ids each round, so every request misses the lookup cache and goes upstream
+        String round = UUID.randomUUID().toString().substring(0, 8);
+        fire(client, port, "warm" + round, WARM_UP);
+
+        Path jfr = Files.createTempFile("openlibrary-load", ".jfr");
+        List<Long> latencies;
+        long elapsedNanos;
+        try (Recording recording = new Recording()) {
+            recording.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(1)).withStackTrace();
+            recording.start();
+            long start = System.nanoTime();
+            latencies = fire(client, port, round, CONCURRENCY);
+            elapsedNanos = System.nanoTime() - start;
+            recording.stop();
+            recording.dump(jfr);
+        }
+
+        List<RecordedEvent> pinned = RecordingFile.readAllEvents(jfr).stream()
+                .filter(event -> event.getEventType().getName().equals(PINNED_EVENT))
+                .toList();
+        Files.deleteIfExists(jfr);
+        Map<String, Long> pinnedAt = pinned.stream().collect(Collectors.groupingBy(
+                OpenLibraryLoadTest::pinnedFrame, TreeMap::new, Collectors.counting()));
+        pinnedAt.forEach((frame, count) -> log.info("{}: pinned {} times at {}", mode, count, frame));
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        String result = String.format("%.0f req/s, %d ms total, p50 %d ms, p99 %d ms, max %d ms, %d pinned events",
+                CONCURRENCY / (elapsedNanos / 1e9), elapsedNanos / 1_000_000,
+                percentile(sorted, 50), percentile(sorted, 99), sorted[sorted.length - 1], pinned.size());
+        log.info("{}: {}", mode, result);
+
+        assertThat(latencies).hasSize(CONCURRENCY);
+        return result;
+    }
+
+    // Sends all requests at once and returns their latencies in ms; every one must succeed
+    private static List<Long> fire(HttpClient client, int port, String prefix, int requests) {
+        List<CompletableFuture<Long>> calls = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            HttpRequest request = HttpRequest.newBuilder(
+                            URI.create("http://127.0.0.1:" + port + "/api/books/OL" + prefix + i + "W"))
+                    .timeout(Duration.ofSeconds(120))
+                    .build();
+            long sent = System.nanoTime();
+            calls.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+                assertThat(response.statusCode()).as("status for %s", request.uri()).isEqualTo(200);
+                return (System.nanoTime() - sent) / 1_000_000;
+            }));
+        }
+        return calls.stream().map(CompletableFuture::join).toList();
+    }
+
+    private static String pinnedFrame(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "unknown";
+        }
+        // The first application or driver frame is more telling than the JDK's own parking frames
+        return event.getStackTrace().getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName())
+                .filter(name -> !name.startsWith("java.") && !name.startsWith("jdk.") && !name.startsWith("sun."))
+                .findFirst()
+                .orElse("jdk internal");
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+
+    private static HttpServer startStub() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), CONCURRENCY * 2);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.createContext("/", exchange -> {
+                try {
+                    Thread.sleep(DELAY_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = ("{\"title\":\"Slow " + exchange.getRequestURI().getPath() + "\"," +
+                        "\"authors\":[{\"name\":\"Stub Author\"}],\"number_of_pages\":100}")
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start the OpenLibrary stub", e);
+        }
+    }
+
+    private static int intEnv(String name, int defaultValue) {
+        String value = System.getenv(name);
+        return value != null && !value.isBlank() ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+}
@@ -0,0 +1,312 @@
+package com.bookgoblin.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Filter-query latency over a large activity_logs table (ROWS, default 50M, spread over MONTHS months).
+ * Each admin filter runs in the old {@code (? IS NULL OR ...)} form and in the form findWithFilters now
+ * builds, first on the plain table and again after db/mysql/activity_logs_partitioning.sql has converted
+ * it to monthly partitions. Median latencies are logged; the assertions pin that both forms return the
+ * same rows and that date-bounded queries on the partitioned table only read the months they cover.
+ * <p>
+ * Seeding and partitioning 50M rows takes a long while, so besides the throwaway schema HotPathIndexTest
+ * uses (MYSQL_TEST_URL, MYSQL_TEST_USER, MYSQL_TEST_PASSWORD; cleaned first) it needs
+ * ACTIVITY_LOG_BENCHMARK=true. ACTIVITY_LOG_BENCHMARK_ROWS scales it down.
+ */
+@EnabledIfEnvironmentVariable(named = "MYSQL_TEST_URL", matches = ".+")
+@EnabledIfEnvironmentVariable(named = "ACTIVITY_LOG_BENCHMARK", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class ActivityLogFilterBenchmarkTest {
+
+    private static final long ROWS = longEnv("ACTIVITY_LOG_BENCHMARK_ROWS", 50_000_000L);
+    private static final int MONTHS = 24;
+    private static final int USERS = 10_000;
+    private static final int SEED_ROWS = 100_000;
+    private static final int COPY_CHUNK = 1_000_000;
+    private static final int RUNS = 15;
+    private static final String[] TYPES = {"BOOK_ADDED", "READING_PROGRESS_UPDATED", "BOOK_RATED", "USER_LOGIN"};
+    private static final LocalDateTime NOW = LocalDateTime.now().withNano(0);
+
+    private static final String OLD_FILTER = "FROM activity_logs WHERE (? IS NULL OR user_id = ?) " +
+            "AND (? IS NULL OR activity_type = ?) AND (? IS NULL OR created_at >= ?) AND (? IS NULL OR created_at <= ?)";
+
+    private final String url = System.getenv("MYSQL_TEST_URL");
+    private final String user = System.getenv("MYSQL_TEST_USER");
+    private final String password = System.getenv("MYSQL_TEST_PASSWORD");
+
+    private Connection connection;
+
+    @BeforeAll
+    void migrateAndSeed() throws SQLException {
+        Flyway.configure().dataSource(url, user, password).cleanDisabled(false).load().clean();
+        Flyway.configure().dataSource(url, user, password).load().migrate();
+        connection = DriverManager.getConnection(url, user, password);
+        seed();
+    }
+
+    @AfterAll
+    void close() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void filterLatencyBeforeAndAfterPartitioning() throws SQLException, IOException {
+        Map<String, Filter> filters = new LinkedHashMap<>();
+        filters.put("last day", new Filter(null, null, NOW.minusDays(1), NOW));
+        filters.put("user, last 30 days", new Filter(42L, null, NOW.minusDays(30), NOW));
+        filters.put("type, last week", new Filter(null, "BOOK_RATED", NOW.minusDays(7), NOW));
+        filters.put("user, all time", new Filter(42L, null, null, null));
+
+        Map<String, String> plain = run("plain table", filters);
+
+        long start = System.nanoTime();
+        runScript("db/mysql/activity_logs_partitioning.sql");
+        analyze();
+        log.info("Partitioned {} rows in {} s", ROWS, (System.nanoTime() - start) / 1_000_000_000);
+        Map<String, String> partitioned = run("partitioned", filters);
+
+        for (Map.Entry<String, Filter> filter : filters.entrySet()) {
+            if (filter.getValue().from() != null) {
+                int months = (int) filter.getValue().from().toLocalDate().withDayOfMonth(1)
+                        .until(NOW.toLocalDate().withDayOfMonth(1), ChronoUnit.MONTHS) + 1;
+                assertThat(partitionsRead(filter.getValue())).as("partitions for %s", filter.getKey())
+                        .hasSizeLessThanOrEqualTo(months);
+            }
+        }
+        log.info("activity_logs filter latency over {} rows (median of {} runs, page + count):", ROWS, RUNS);
+        filters.keySet().forEach(name -> log.info("  {}: plain {} | partitioned {}",
+                name, plain.get(name), partitioned.get(name)));
+    }
+
+    private Map<String, String> run(String table, Map<String, Filter> filters) throws SQLException {
+        Map<String, String> results = new LinkedHashMap<>();
+        for (Map.Entry<String, Filter> entry : filters.entrySet()) {
+            Filter filter = entry.getValue();
+            assertThat(page(filter, false)).as("%s page", entry.getKey()).isEqualTo(page(filter, true));
+            assertThat(count(filter, false)).as("%s count", entry.getKey()).isEqualTo(count(filter, true));
+
+            double old = median(() -> {
+                page(filter, false);
+                count(filter, false);
+            });
+            double current = median(() -> {
+                page(filter, true);
+                count(filter, true);
+            });
+            String result = String.format("old %.1f ms, current %.1f ms", old, current);
+            log.info("{} / {}: {}", table, entry.getKey(), result);
+            results.put(entry.getKey(), result);
+        }
+        return results;
+    }
+
+    private List<Long> page(Filter filter, boolean current) throws SQLException {
+        String sql = "SELECT id " + (current ? currentFilter(filter) : OLD_FILTER) +
+                " ORDER BY created_at DESC, id DESC LIMIT 20";
+        try (PreparedStatement statement = bind(sql, filter, current); ResultSet result = statement.executeQuery()) {
+            List<Long> ids = new ArrayList<>();
+            while (result.next()) {
+                ids.add(result.getLong(1));
+            }
+            return ids;
+        }
+    }
+
+    private long count(Filter filter, boolean current) throws SQLException {
+        String sql = "SELECT COUNT(*) " + (current ? currentFilter(filter) : OLD_FILTER);
+        try (PreparedStatement statement = bind(sql, filter, current); ResultSet result = statement.executeQuery()) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    private List<String> partitionsRead(Filter filter) throws SQLException {
+        try (PreparedStatement statement = bind("EXPLAIN SELECT COUNT(*) " + currentFilter(filter), filter, true);
+             ResultSet plan = statement.executeQuery()) {
+            plan.next();
+            return Arrays.asList(plan.getString("partitions").split(","));
+        }
+    }
+
+    // The SQL findWithFilters generates: a predicate only for each filter that is set
+    private static String currentFilter(Filter filter) {
+        List<String> predicates = new ArrayList<>();
+        if (filter.userId() != null) {
+            predicates.add("user_id = ?");
+        }
+        if (filter.type() != null) {
+            predicates.add("activity_type = ?");
+        }
+        if (filter.from() != null) {
+            predicates.add("created_at >= ?");
+        }
+        if (filter.to() != null) {
+            predicates.add("created_at <= ?");
+        }
+        return "FROM activity_logs" + (predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates));
+    }
+
+    private PreparedStatement bind(String sql, Filter filter, boolean current) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        Object[] values = {filter.userId(), filter.type(),
+                filter.from() != null ? Timestamp.valueOf(filter.from()) : null,
+                filter.to() != null ? Timestamp.valueOf(filter.to()) : null};
+        int index = 1;
+        for (Object value : values) {
+            if (!current) {
+                statement.setObject(index++, value);
+                statement.setObject(index++, value);
+            } else if (value != null) {
+                statement.setObject(index++, value);
+            }
+        }
+        return statement;
+    }
+
+    private static double median(Query query) throws SQLException {
+        query.run();
+        double[] millis = new double[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            query.run();
+            millis[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(millis);
+        return millis[RUNS / 2];
+    }
+
+    // Seeds SEED_ROWS rows spread over MONTHS months, then copies existing rows in id chunks until ROWS
+    // are in; copies move to another user and a little earlier so the data does not collapse onto the seed
+    private void seed() throws SQLException {
+        long start = System.nanoTime();
+        connection.setAutoCommit(false);
+        batch("INSERT INTO users (id, username, email, password, role, token_version) VALUES (?, ?, ?, 'x', 'USER', 0)",
+                USERS, (statement, i) -> {
+                    statement.setLong(1, i + 1);
+                    statement.setString(2, "user" + i);
+                    statement.setString(3, "user" + i + "@example.com");
+                });
+        long spanMinutes = (long) MONTHS * 30 * 24 * 60;
+        batch("INSERT INTO activity_logs (user_id, activity_type, description, created_at) VALUES (?, ?, 'seed', ?)",
+                (int) Math.min(SEED_ROWS, ROWS), (statement, i) -> {
+                    statement.setLong(1, (i * 7919L) % USERS + 1);
+                    statement.setString(2, TYPES[i % TYPES.length]);
+                    statement.setTimestamp(3, Timestamp.valueOf(NOW.minusMinutes(i * spanMinutes / SEED_ROWS)));
+                });
+        connection.commit();
+
+        long rows = Math.min(SEED_ROWS, ROWS);
+        try (PreparedStatement copy = connection.prepareStatement("INSERT INTO activity_logs " +
+                "(user_id, activity_type, description, created_at) " +
+                "SELECT (user_id * 31 + id) % " + USERS + " + 1, activity_type, description, " +
+                "created_at - INTERVAL (id % 97) MINUTE FROM activity_logs WHERE id >= ? AND id < ? LIMIT ?")) {
+            long nextId = 1;
+            while (rows < ROWS) {
+                copy.setLong(1, nextId);
+                copy.setLong(2, nextId + COPY_CHUNK);
+                copy.setLong(3, Math.min(COPY_CHUNK, ROWS - rows));
+                rows += copy.executeUpdate();
+                connection.commit();
+                nextId += COPY_CHUNK;
+            }
+        }
+        connection.setAutoCommit(true);
+        analyze();
+        log.info("Seeded {} activity logs in {} s", rows, (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    private void analyze() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE TABLE activity_logs");
+        }
+    }
+
+    // Runs a mysql-client script over JDBC, honouring its DELIMITER switches
+    private void runScript(String resource) throws SQLException, IOException {
+        String script;
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(resource)) {
+            assertThat(in).as(resource).isNotNull();
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String delimiter = ";";
+        StringBuilder sql = new StringBuilder();
+        try (Statement statement = connection.createStatement()) {
+            for (String line : script.split("\n")) {
+                String trimmed = line.trim();
+                if (trimmed.startsWith("DELIMITER ")) {
+                    delimiter = trimmed.substring("DELIMITER ".length()).trim();
+                    continue;
+                }
+                if (sql.isEmpty() && (trimmed.isEmpty() || trimmed.startsWith("--"))) {
+                    continue;
+                }
+                sql.append(line).append('\n');
+                if (trimmed.endsWith(delimiter)) {
+                    String text = sql.toString().trim();
+                    statement.execute(text.substring(0, text.length() - delimiter.length()));
+                    sql.setLength(0);
+                }
+            }
+        }
+    }
+
+    private void batch(String sql, int rows, Binder binder) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < rows; i++) {
+                binder.bind(statement, i);
+                statement.addBatch();
+                if (i % 10_000 == 9_999) {
+                    statement.executeBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private static long longEnv(String name, long defaultValue) {
+        String value = System.getenv(name);
+        return value != null && !value.isBlank() ? Long.parseLong(value.trim()) : defaultValue;
+    }
+
+    private record Filter(Long userId, String type, LocalDateTime from, LocalDateTime to) {
+    }
+
+    @FunctionalInterface
+    private interface Query {
+        void run() throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface Binder {
+        void bind(PreparedStatement statement, int row) throws SQLException;
+    }
+}
@@ -0,0 +1,117 @@
+package com.bookgoblin.repository;
+
+import com.bookgoblin.BookGoblinApplication;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Upgrades a database that predates the migrations. ddl-auto had built users, books, libraries,
+ * user_books and activity_logs, without the keyset index, so Flyway baselines it at V1 and V1 never
+ * runs. The remaining migrations must still apply, and the application must then start with
+ * ddl-auto=validate against the result.
+ * Needs a throwaway schema, since it is cleaned first:
+ * MYSQL_TEST_URL=jdbc:mysql://localhost:3306/bookgoblin_test, MYSQL_TEST_USER, MYSQL_TEST_PASSWORD.
+ */
+@EnabledIfEnvironmentVariable(named = "MYSQL_TEST_URL", matches = ".+")
+class BaselinedSchemaMigrationTest {
+
+    private static final Set<String> PRE_SERIES_TABLES = Set.of("users", "books", "libraries", "user_books",
+            "activity_logs");
+
+    private final String url = System.getenv("MYSQL_TEST_URL");
+    private final String user = System.getenv("MYSQL_TEST_USER");
+    private final String password = System.getenv("MYSQL_TEST_PASSWORD");
+
+    @Test
+    void preSeriesSchemaIsBaselinedMigratedAndValidated() throws Exception {
+        Flyway.configure().dataSource(url, user, password).cleanDisabled(false).load().clean();
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            createPreSeriesSchema(connection);
+            execute(connection, "INSERT INTO users (id, username, email, password, role, token_version) " +
+                    "VALUES (1, 'reader', 'reader@example.com', 'x', 'USER', 0)");
+            execute(connection, "INSERT INTO books (id, title, author, isbn) VALUES (1, 'Book', 'Author', '0-306-40615-X')");
+            // The shelf entry stored twice, as the missing unique key allowed
+            execute(connection, "INSERT INTO user_books (user_id, book_id, status, current_page) " +
+                    "VALUES (1, 1, 'READ', 100), (1, 1, 'READ', 100)");
+            execute(connection, "INSERT INTO libraries (user_id, total_books, books_read, books_reading, books_to_read, " +
+                    "total_pages_read) VALUES (1, 2, 2, 0, 0, 200)");
+
+            MigrateResult result = Flyway.configure()
+                    .dataSource(url, user, password)
+                    .baselineOnMigrate(true)
+                    .baselineVersion("1")
+                    .load()
+                    .migrate();
+
+            assertThat(result.success).isTrue();
+            assertThat(result.migrations).extracting(migration -> migration.version).doesNotContain("1");
+            assertThat(queryLong(connection, "SELECT COUNT(*) FROM information_schema.tables " +
+                    "WHERE table_schema = DATABASE() AND table_name IN " +
+                    "('reading_sessions', 'activity_rollups', 'admin_daily_stats')")).isEqualTo(3);
+            assertThat(queryLong(connection, "SELECT COUNT(*) FROM user_books")).isEqualTo(1);
+            assertThat(queryLong(connection, "SELECT total_books FROM libraries WHERE user_id = 1")).isEqualTo(1);
+            assertThat(queryLong(connection, "SELECT COUNT(*) FROM books WHERE isbn = '030640615X'")).isEqualTo(1);
+        }
+
+        // ddl-auto=validate refuses to start when an entity and its table disagree
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(BookGoblinApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + url,
+                        "--spring.datasource.username=" + user,
+                        "--spring.datasource.password=" + (password != null ? password : ""))) {
+            assertThat(app.isRunning()).isTrue();
+        }
+    }
+
+    // V1's definitions of the tables ddl-auto had built, without the keyset index added since
+    private static void createPreSeriesSchema(Connection connection) throws IOException, SQLException {
+        List<String> statements = Arrays.stream(migration("V1__baseline_schema.sql").split(";"))
+                .filter(statement -> PRE_SERIES_TABLES.stream().anyMatch(table ->
+                        statement.contains("CREATE TABLE IF NOT EXISTS " + table + " (")))
+                .map(statement -> statement.replace("INDEX idx_user_books_user_added (user_id, added_at, id),", ""))
+                .toList();
+        assertThat(statements).hasSize(PRE_SERIES_TABLES.size());
+        for (String statement : statements) {
+            execute(connection, statement);
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static long queryLong(Connection connection, String query) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(query)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    private static String migration(String name) throws IOException {
+        try (InputStream input = BaselinedSchemaMigrationTest.class.getResourceAsStream("/db/migration/" + name)) {
+            assertThat(input).as(name).isNotNull();
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.bookgoblin.repository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The in-memory counterpart of {@link HotPathIndexTest}, run on every build. It loads V1 into H2 in MySQL
+ * mode and applies V2's index statements the way its create_index_if_missing procedure does, skipping
+ * indexes that already exist. It then checks that each hot-path query can be served by its index. H2
+ * runs neither the procedure nor V2's duplicate clean-up, picks between indexes by its own costs and
+ * never reads an index backwards, so the cleanup, the planner's choice and the sort-free scans are
+ * left to the MySQL test.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class HotPathIndexH2Test {
+
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+            "CALL create_index_if_missing\\('(\\w+)', '(\\w+)',\\s*'([^']+)'\\)");
+    private static final int USERS = 50;
+    private static final int SHELF_SIZE = 20;
+    private static final LocalDateTime NOW = LocalDateTime.now().withNano(0);
+
+    private Connection connection;
+
+    @BeforeAll
+    void migrateAndSeed() throws Exception {
+        connection = DriverManager.getConnection(
+                "jdbc:h2:mem:hot-path-indexes;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        for (String statement : migration("V1__baseline_schema.sql").split(";")) {
+            if (!statement.isBlank()) {
+                execute(statement);
+            }
+        }
+        Matcher calls = CREATE_INDEX.matcher(migration("V2__hot_path_indexes.sql"));
+        int indexes = 0;
+        while (calls.find()) {
+            if (!indexExists(calls.group(1), calls.group(2))) {
+                execute(calls.group(3));
+            }
+            indexes++;
+        }
+        assertThat(indexes).isEqualTo(6);
+        seed();
+        execute("ANALYZE");
+    }
+
+    @AfterAll
+    void close() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void shelfLookupUsesTheUniqueKey() throws SQLException {
+        assertUses("user_books", "WHERE user_id = 7 AND book_id = 50", "uk_user_books_user_book");
+    }
+
+    @Test
+    void shelfByStatusUsesTheStatusIndex() throws SQLException {
+        assertUses("user_books", "WHERE user_id = 7 AND status = 'READING'", "idx_user_books_user_status");
+    }
+
+    @Test
+    void addedCountUsesTheAddedIndex() throws SQLException {
+        assertUses("user_books", "WHERE added_at >= '" + Timestamp.valueOf(NOW.minusHours(1)) +
+                "' AND added_at < '" + Timestamp.valueOf(NOW) + "'", "idx_user_books_added");
+    }
+
+    @Test
+    void libraryPageUsesTheKeysetIndex() throws SQLException {
+        assertUses("user_books", "WHERE user_id = 7 ORDER BY added_at DESC, id DESC LIMIT 10",
+                "idx_user_books_user_added");
+    }
+
+    @Test
+    void activityRangeCountUsesTheCreatedIndex() throws SQLException {
+        assertUses("activity_logs", "WHERE created_at >= '" + Timestamp.valueOf(NOW.minusDays(1)) +
+                "' AND created_at < '" + Timestamp.valueOf(NOW) + "'", "idx_activity_logs_created");
+    }
+
+    @Test
+    void userActivityPageUsesTheUserIndex() throws SQLException {
+        assertUses("activity_logs", "WHERE user_id = 7 ORDER BY created_at DESC LIMIT 20",
+                "idx_activity_logs_user_created");
+    }
+
+    // H2's planner weighs the foreign key indexes differently from MySQL's, so the index is forced; the plan
+    // names the condition after the index only when the index can serve it
+    private void assertUses(String table, String condition, String index) throws SQLException {
+        String name = indexName(table, index);
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(
+                     "EXPLAIN SELECT * FROM " + table + " USE INDEX (\"" + name + "\") " + condition)) {
+            assertThat(result.next()).isTrue();
+            assertThat(result.getString(1).toLowerCase(Locale.ROOT)).as("plan for %s", condition)
+                    .contains("/* public." + name.toLowerCase(Locale.ROOT) + ": ");
+        }
+    }
+
+    // The index behind a unique constraint is named after the constraint, with an _INDEX_ suffix
+    private String indexName(String table, String index) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT index_name FROM information_schema.indexes " +
+                "WHERE table_name = ? AND (index_name = ? OR LOWER(index_name) LIKE ?)")) {
+            statement.setString(1, table);
+            statement.setString(2, index);
+            statement.setString(3, index + "_index_%");
+            try (ResultSet result = statement.executeQuery()) {
+                assertThat(result.next()).as("index %s on %s", index, table).isTrue();
+                return result.getString(1);
+            }
+        }
+    }
+
+    // The procedure looks in information_schema.statistics, which H2 splits into indexes and constraints
+    private boolean indexExists(String table, String index) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT (SELECT COUNT(*) FROM information_schema.indexes WHERE table_name = ? AND index_name = ?) " +
+                        "+ (SELECT COUNT(*) FROM information_schema.table_constraints " +
+                        "WHERE table_name = ? AND constraint_name = ?)")) {
+            statement.setString(1, table);
+            statement.setString(2, index);
+            statement.setString(3, table);
+            statement.setString(4, index);
+            try (ResultSet result = statement.executeQuery()) {
+                result.next();
+                return result.getLong(1) > 0;
+            }
+        }
+    }
+
+    // SYSTEM_RANGE names its column X in upper case, so it is quoted under DATABASE_TO_LOWER
+    private void seed() throws SQLException {
+        execute("INSERT INTO users (id, username, email, password, role, token_version) " +
+                "SELECT \"X\", 'user' || \"X\", 'user' || \"X\" || '@example.com', 'x', 'USER', 0 FROM SYSTEM_RANGE(1, " + USERS + ")");
+        execute("INSERT INTO books (id, title, author) " +
+                "SELECT \"X\", 'Book ' || \"X\", 'Author' FROM SYSTEM_RANGE(1, " + USERS * SHELF_SIZE + ")");
+        execute("INSERT INTO user_books (user_id, book_id, status, current_page, added_at) " +
+                "SELECT MOD(\"X\", " + USERS + ") + 1, \"X\", CASEWHEN(MOD(\"X\", 3) = 0, 'READING', 'READ'), 0, " +
+                "DATEADD('MINUTE', -\"X\", TIMESTAMP '" + Timestamp.valueOf(NOW) + "') " +
+                "FROM SYSTEM_RANGE(1, " + USERS * SHELF_SIZE + ")");
+        execute("INSERT INTO activity_logs (user_id, activity_type, description, created_at) " +
+                "SELECT MOD(\"X\", " + USERS + ") + 1, 'BOOK_ADDED', 'seed', " +
+                "DATEADD('MINUTE', -\"X\" * 5, TIMESTAMP '" + Timestamp.valueOf(NOW) + "') FROM SYSTEM_RANGE(1, 5000)");
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static String migration(String name) throws IOException {
+        try (InputStream input = HotPathIndexH2Test.class.getResourceAsStream("/db/migration/" + name)) {
+            assertThat(input).as(name).isNotNull();
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.bookgoblin.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Migrates a MySQL schema to V1, seeds it (duplicate shelf entries included), runs the remaining
+ * migrations and checks that V2 cleaned up after itself and that the hot-path queries use its indexes.
+ * Needs a throwaway schema, since it is cleaned first:
+ * MYSQL_TEST_URL=jdbc:mysql://localhost:3306/bookgoblin_test, MYSQL_TEST_USER, MYSQL_TEST_PASSWORD.
+ */
+@EnabledIfEnvironmentVariable(named = "MYSQL_TEST_URL", matches = ".+")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class HotPathIndexTest {
+
+    private static final int USERS = 200;
+    private static final int BOOKS = 2000;
+    private static final int SHELF_SIZE = 20;
+    private static final int DUPLICATED_USERS = 5;
+    private static final String[] STATUSES = {"READ", "READING", "WANT_TO_READ"};
+    private static final LocalDateTime NOW = LocalDateTime.now().withNano(0);
+
+    private final String url = System.getenv("MYSQL_TEST_URL");
+    private final String user = System.getenv("MYSQL_TEST_USER");
+    private final String password = System.getenv("MYSQL_TEST_PASSWORD");
+
+    private Connection connection;
+
+    @BeforeAll
+    void migrateAndSeed() throws SQLException {
+        Flyway.configure().dataSource(url, user, password).cleanDisabled(false).load().clean();
+        flyway("1").migrate();
+
+        connection = DriverManager.getConnection(url, user, password);
+        seed();
+        flyway(null).migrate();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE TABLE user_books, activity_logs");
+        }
+    }
+
+    @AfterAll
+    void close() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void duplicateShelfEntriesAreRemovedAndLibrariesRecounted() throws SQLException {
+        assertThat(queryLong("SELECT COUNT(*) FROM (SELECT user_id, book_id FROM user_books " +
+                "GROUP BY user_id, book_id HAVING COUNT(*) > 1) duplicates")).isZero();
+        for (long userId = 1; userId <= DUPLICATED_USERS + 1; userId++) {
+            assertThat(queryLong("SELECT total_books FROM libraries WHERE user_id = " + userId))
+                    .isEqualTo(SHELF_SIZE);
+            assertThat(queryLong("SELECT books_read FROM libraries WHERE user_id = " + userId))
+                    .isEqualTo(queryLong("SELECT COUNT(*) FROM user_books WHERE status = 'READ' AND user_id = " + userId));
+            assertThat(queryLong("SELECT total_pages_read FROM libraries WHERE user_id = " + userId))
+                    .isEqualTo(queryLong("SELECT COALESCE(SUM(current_page), 0) FROM user_books " +
+                            "WHERE status = 'READ' AND user_id = " + userId));
+        }
+        assertThat(queryLong("SELECT COUNT(*) FROM reading_sessions rs " +
+                "LEFT JOIN user_books ub ON ub.id = rs.user_book_id WHERE ub.id IS NULL")).isZero();
+    }
+
+    @Test
+    void shelfLookupUsesTheUniqueKey() throws SQLException {
+        assertUses("SELECT * FROM user_books WHERE user_id = 7 AND book_id = 50", "uk_user_books_user_book");
+    }
+
+    @Test
+    void shelfByStatusUsesTheStatusIndex() throws SQLException {
+        assertUses("SELECT * FROM user_books WHERE user_id = 7 AND status = 'READING'", "idx_user_books_user_status");
+    }
+
+    @Test
+    void addedCountUsesTheAddedIndex() throws SQLException {
+        assertUses("SELECT COUNT(*) FROM user_books WHERE added_at >= '" + Timestamp.valueOf(NOW.minusHours(1)) +
+                "' AND added_at < '" + Timestamp.valueOf(NOW) + "'", "idx_user_books_added");
+    }
+
+    @Test
+    void libraryPageScansTheKeysetIndexWithoutSorting() throws SQLException {
+        assertUses("SELECT * FROM user_books WHERE user_id = 7 ORDER BY added_at DESC, id DESC LIMIT 10",
+                "idx_user_books_user_added");
+    }
+
+    @Test
+    void activityRangeCountUsesTheCreatedIndex() throws SQLException {
+        assertUses("SELECT COUNT(*) FROM activity_logs WHERE created_at >= '" + Timestamp.valueOf(NOW.minusDays(1)) +
+                "' AND created_at < '" + Timestamp.valueOf(NOW) + "'", "idx_activity_logs_created");
+    }
+
+    @Test
+    void userActivityPageScansTheUserIndexWithoutSorting() throws SQLException {
+        assertUses("SELECT * FROM activity_logs WHERE user_id = 7 ORDER BY created_at DESC LIMIT 20",
+                "idx_activity_logs_user_created");
+    }
+
+    private void assertUses(String query, String index) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet plan = statement.executeQuery("EXPLAIN " + query)) {
+            assertThat(plan.next()).isTrue();
+            assertThat(plan.getString("key")).as("index for %s", query).isEqualTo(index);
+            assertThat(String.valueOf(plan.getString("Extra"))).as("extra for %s", query).doesNotContain("filesort");
+        }
+    }
+
+    private Flyway flyway(String target) {
+        var configuration = Flyway.configure().dataSource(url, user, password);
+        return (target != null ? configuration.target(target) : configuration).load();
+    }
+
+    private long queryLong(String query) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(query)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    private void seed() throws SQLException {
+        connection.setAutoCommit(false);
+        batch("INSERT INTO users (id, username, email, password, role, token_version) VALUES (?, ?, ?, 'x', 'USER', 0)",
+                USERS, (statement, i) -> {
+                    statement.setLong(1, i + 1);
+                    statement.setString(2, "user" + i);
+                    statement.setString(3, "user" + i + "@example.com");
+                });
+        batch("INSERT INTO books (id, title, author) VALUES (?, ?, 'Author')", BOOKS, (statement, i) -> {
+            statement.setLong(1, i + 1);
+            statement.setString(2, "Book " + i);
+        });
+
+        // The first users' first two shelf entries are stored twice, as the missing unique key allowed
+        int duplicates = DUPLICATED_USERS * 2;
+        batch("INSERT INTO user_books (user_id, book_id, status, current_page, added_at) VALUES (?, ?, ?, ?, ?)",
+                USERS * SHELF_SIZE + duplicates, (statement, i) -> {
+                    int duplicate = i - USERS * SHELF_SIZE;
+                    int row = duplicate < 0 ? i : duplicate / 2 * SHELF_SIZE + duplicate % 2;
+                    int userId = row / SHELF_SIZE + 1;
+                    int slot = row % SHELF_SIZE;
+                    statement.setLong(1, userId);
+                    statement.setLong(2, (userId * 7L + slot) % BOOKS + 1);
+                    statement.setString(3, duplicate < 0 ? STATUSES[slot % 3] : "READ");
+                    statement.setInt(4, slot * 10 + (duplicate < 0 ? 0 : 100));
+                    statement.setTimestamp(5, Timestamp.valueOf(NOW.minusMinutes(row)));
+                });
+        // Counters as the duplicates left them; the user after the duplicated ones must come out unchanged
+        batch("INSERT INTO libraries (user_id, total_books, books_read, books_reading, books_to_read, total_pages_read) " +
+                "SELECT user_id, COUNT(*), SUM(status = 'READ'), SUM(status = 'READING'), SUM(status = 'WANT_TO_READ'), " +
+                "COALESCE(SUM(CASE WHEN status = 'READ' THEN current_page END), 0) FROM user_books WHERE user_id = ? " +
+                "GROUP BY user_id", USERS, (statement, i) -> statement.setLong(1, i + 1));
+        batch("INSERT INTO reading_sessions (user_id, user_book_id, start_page, end_page, pages_read, completed, recorded_at) " +
+                "SELECT user_id, MAX(id), 0, 10, 10, FALSE, NOW() FROM user_books WHERE user_id = ?",
+                DUPLICATED_USERS, (statement, i) -> statement.setLong(1, i + 1));
+
+        batch("INSERT INTO activity_logs (user_id, activity_type, description, created_at) VALUES (?, 'BOOK_ADDED', 'seed', ?)",
+                USERS * 100, (statement, i) -> {
+                    statement.setLong(1, i % USERS + 1);
+                    statement.setTimestamp(2, Timestamp.valueOf(NOW.minusMinutes(i * 5L)));
+                });
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+
+    private void batch(String sql, int rows, Binder binder) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < rows; i++) {
+                binder.bind(statement, i);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Binder {
+        void bind(PreparedStatement statement, int row) throws SQLException;
+    }
+}
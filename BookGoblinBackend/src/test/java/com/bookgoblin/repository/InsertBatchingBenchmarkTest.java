@@ -0,0 +1,116 @@
+package com.bookgoblin.repository;
+
+import com.bookgoblin.IntegrationTest;
+import com.bookgoblin.model.entity.Book;
+import com.bookgoblin.model.entity.ReadingSession;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the three ways rows get inserted: Hibernate with pooled table ids (books, users, libraries),
+ * Hibernate with IDENTITY ids, and the plain JDBC batches used for the IDENTITY tables. Statement counts
+ * are asserted; timings are logged and only indicative on the in-memory database.
+ */
+@Slf4j
+class InsertBatchingBenchmarkTest extends IntegrationTest {
+
+    private static final int ROWS = 1000;
+    private static final String INSERT_SESSION = "INSERT INTO reading_sessions (user_id, user_book_id, book_id, " +
+            "start_page, end_page, pages_read, completed, recorded_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private ReadingSessionRepository readingSessionRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void pooledTableIdsLetHibernateBatchInserts() {
+        long statements = run("hibernate, pooled table ids", () -> bookRepository.saveAll(IntStream.range(0, ROWS)
+                .mapToObj(i -> Book.builder().title("Benchmark " + i).author("Author").build())
+                .toList()));
+
+        // Ids come from id_generators ahead of the flush, so the inserts share one batched statement
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+        assertThat(statements).isLessThan(ROWS / 5);
+    }
+
+    @Test
+    void identityIdsMakeHibernateInsertRowByRow() {
+        long statements = run("hibernate, identity ids", () ->
+                readingSessionRepository.saveAll(IntStream.range(0, ROWS).mapToObj(this::session).toList()));
+
+        // Each insert has to run on its own to read back the generated id
+        assertThat(statements).isGreaterThanOrEqualTo(ROWS);
+    }
+
+    @Test
+    void jdbcBatchesInsertIntoIdentityTables() {
+        List<Object[]> rows = IntStream.range(0, ROWS)
+                .mapToObj(this::session)
+                .map(session -> new Object[]{session.getUserId(), session.getUserBookId(), session.getBookId(),
+                        session.getStartPage(), session.getEndPage(), session.getPagesRead(), session.getCompleted(),
+                        session.getRecordedAt()})
+                .toList();
+
+        long before = count();
+        run("jdbc batch, identity ids", () -> jdbcTemplate.batchUpdate(INSERT_SESSION, rows));
+
+        assertThat(count() - before).isEqualTo(2 * ROWS);
+    }
+
+    // Runs the inserts once to warm up, then again measured
+    private long run(String name, Runnable inserts) {
+        transactionTemplate.executeWithoutResult(status -> inserts.run());
+        statistics.clear();
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> inserts.run());
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        long statements = statistics.getPrepareStatementCount();
+        log.info("{}: {} rows in {} ms, {} statements through Hibernate", name, ROWS, elapsedMs, statements);
+        return statements;
+    }
+
+    private ReadingSession session(int i) {
+        return ReadingSession.builder()
+                .userId(1L)
+                .userBookId(1L)
+                .bookId(1L)
+                .startPage(i)
+                .endPage(i + 10)
+                .pagesRead(10)
+                .completed(false)
+                .recordedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private long count() {
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reading_sessions", Long.class);
+        return rows != null ? rows : 0;
+    }
+}
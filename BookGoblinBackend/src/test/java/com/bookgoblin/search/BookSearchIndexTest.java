@@ -0,0 +1,150 @@
+package com.bookgoblin.search;
+
+import com.bookgoblin.IntegrationTest;
+import com.bookgoblin.cache.CacheInvalidationPublisher;
+import com.bookgoblin.model.dto.request.RateBookRequest;
+import com.bookgoblin.model.dto.response.BookResponse;
+import com.bookgoblin.model.entity.Book;
+import com.bookgoblin.model.entity.User;
+import com.bookgoblin.model.entity.UserBook;
+import com.bookgoblin.model.enums.BookStatus;
+import com.bookgoblin.repository.BookRepository;
+import com.bookgoblin.repository.UserBookRepository;
+import com.bookgoblin.repository.UserRepository;
+import com.bookgoblin.service.BookService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Changes made on another node reach this one only as a broadcast book id, or through the periodic
+ * rebuild when the broadcast was lost. Writing through JDBC stands in for that node: this node's
+ * JPA listener never sees the change. Ratings are the local case of the same gap: they reach the
+ * books table through a bulk update the listener never sees either.
+ */
+class BookSearchIndexTest extends IntegrationTest {
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private CacheInvalidationPublisher invalidationPublisher;
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserBookRepository userBookRepository;
+
+    @Test
+    void broadcastFromAnotherNodeReloadsTheBook() {
+        String word = uniqueWord();
+        Book book = bookRepository.save(Book.builder().title("Before " + word).author("Author").build());
+        assertThat(titles(word)).containsExactly("Before " + word);
+
+        jdbcTemplate.update("UPDATE books SET title = ? WHERE id = ?", "After " + word, book.getId());
+        assertThat(titles(word)).containsExactly("Before " + word);
+
+        bookSearchIndex.onMessage(broadcast(book.getId()), null);
+        assertThat(titles(word)).containsExactly("After " + word);
+    }
+
+    @Test
+    void broadcastForADeletedBookRemovesIt() {
+        String word = uniqueWord();
+        Book book = bookRepository.save(Book.builder().title("Gone " + word).author("Author").build());
+
+        jdbcTemplate.update("DELETE FROM books WHERE id = ?", book.getId());
+        bookSearchIndex.onMessage(broadcast(book.getId()), null);
+
+        assertThat(titles(word)).isEmpty();
+    }
+
+    @Test
+    void ownBroadcastsAreIgnored() {
+        String word = uniqueWord();
+        Book book = bookRepository.save(Book.builder().title("Mine " + word).author("Author").build());
+        jdbcTemplate.update("DELETE FROM books WHERE id = ?", book.getId());
+
+        bookSearchIndex.onMessage(message(invalidationPublisher.getNodeId(), book.getId()), null);
+
+        assertThat(titles(word)).containsExactly("Mine " + word);
+    }
+
+    @Test
+    void rebuildCatchesUpOnMissedChanges() {
+        String word = uniqueWord();
+        Book changed = bookRepository.save(Book.builder().title("Old " + word).author("Author").build());
+        Book deleted = bookRepository.save(Book.builder().title("Deleted " + word).author("Author").build());
+
+        jdbcTemplate.update("UPDATE books SET title = ? WHERE id = ?", "New " + word, changed.getId());
+        jdbcTemplate.update("DELETE FROM books WHERE id = ?", deleted.getId());
+        bookSearchIndex.rebuild();
+
+        assertThat(titles(word)).containsExactly("New " + word);
+    }
+
+    @Test
+    void isbnMatchesWithOrWithoutSeparators() {
+        String word = uniqueWord();
+        bookRepository.save(Book.builder().title("Isbn " + word).author("Author").isbn("0-306-40615-X").build());
+
+        assertThat(bookSearchIndex.search("030640615x " + word, 10)).extracting(BookResponse::getTitle)
+                .containsExactly("Isbn " + word);
+        assertThat(bookSearchIndex.search("0-306-40615-X " + word, 10)).extracting(BookResponse::getTitle)
+                .containsExactly("Isbn " + word);
+    }
+
+    @Test
+    void committedRatingsReachTheIndex() {
+        String word = uniqueWord();
+        Book book = bookRepository.save(Book.builder().title("Rated " + word).author("Author").build());
+        User reader = userRepository.save(User.builder()
+                .username("reader-" + word)
+                .email(word + "@example.com")
+                .password("not-a-real-hash")
+                .build());
+        UserBook shelf = userBookRepository.save(UserBook.builder()
+                .user(reader)
+                .book(book)
+                .status(BookStatus.READ)
+                .build());
+
+        bookService.rateBook(reader.getId(), shelf.getId(), new RateBookRequest(4));
+        assertThat(bookSearchIndex.search(word, 10)).singleElement()
+                .satisfies(indexed -> assertThat(indexed.getRating()).isEqualTo(4.0))
+                .satisfies(indexed -> assertThat(indexed.getRatingCount()).isEqualTo(1));
+
+        bookService.rateBook(reader.getId(), shelf.getId(), new RateBookRequest(null));
+        assertThat(bookSearchIndex.search(word, 10)).singleElement()
+                .satisfies(indexed -> assertThat(indexed.getRating()).isEqualTo(0.0))
+                .satisfies(indexed -> assertThat(indexed.getRatingCount()).isZero());
+    }
+
+    private List<String> titles(String word) {
+        return bookSearchIndex.search(word, 10).stream().map(BookResponse::getTitle).toList();
+    }
+
+    private static DefaultMessage broadcast(Long bookId) {
+        return message("other-node", bookId);
+    }
+
+    private static DefaultMessage message(String nodeId, Long bookId) {
+        return new DefaultMessage("cache-invalidation".getBytes(StandardCharsets.UTF_8),
+                (nodeId + "|" + BookSearchIndex.CHANNEL_NAME + "|" + bookId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String uniqueWord() {
+        return "w" + UUID.randomUUID().toString().replace("-", "");
+    }
+}
@@ -0,0 +1,90 @@
+package com.bookgoblin.search;
+
+import com.bookgoblin.IntegrationTest;
+import com.bookgoblin.model.entity.User;
+import com.bookgoblin.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares user substring search through the trigram {@link UserSearchIndex} with the
+ * {@code LIKE '%q%'} query it replaced (still the fallback while the index builds). Seeds USERS users and
+ * runs a selective, a broad, a short (below trigram length) and a missing query through both. Latencies
+ * are logged and only indicative on the in-memory database; the assertions pin that both return the
+ * same page and total.
+ */
+@Slf4j
+class UserSearchBenchmarkTest extends IntegrationTest {
+
+    private static final int USERS = 20_000;
+    private static final int INDEX_RUNS = 200;
+    private static final int LIKE_RUNS = 20;
+    private static final String[] WORDS = {"amber", "birch", "cedar", "dune", "ember", "fjord", "grove", "heath",
+            "inlet", "juniper"};
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void trigramIndexMatchesLikeSearch() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        for (int from = 0; from < USERS; from += 1000) {
+            int start = from;
+            transactionTemplate.executeWithoutResult(status -> userRepository.saveAll(IntStream
+                    .range(start, start + 1000)
+                    .mapToObj(i -> {
+                        String name = "b" + run + WORDS[i % WORDS.length] + i;
+                        return User.builder().username(name).email(name + "@bench.example").password("x").build();
+                    })
+                    .toList()));
+        }
+        assertThat(userSearchIndex.isReady()).isTrue();
+
+        List<String> queries = List.of(
+                "b" + run + "ember4",      // narrow
+                run + "cedar",             // one user in ten of this run
+                "du",                      // shorter than a trigram: the index scans its own keys
+                run + "nothing");          // no match
+        Pageable page = PageRequest.of(0, 20);
+        for (String query : queries) {
+            Page<Long> indexed = userSearchIndex.search(query, page);
+            Page<Long> like = userRepository.searchIds(query.toLowerCase(Locale.ROOT), page);
+            assertThat(indexed.getContent()).as("page for %s", query).isEqualTo(like.getContent());
+            assertThat(indexed.getTotalElements()).as("total for %s", query).isEqualTo(like.getTotalElements());
+
+            double index = time(INDEX_RUNS, query, q -> userSearchIndex.search(q, page));
+            double scan = time(LIKE_RUNS, query, q -> userRepository.searchIds(q.toLowerCase(Locale.ROOT), page));
+            log.info("'{}' ({} matches): trigram index {} ms, LIKE scan {} ms",
+                    query, indexed.getTotalElements(), String.format("%.3f", index), String.format("%.3f", scan));
+        }
+    }
+
+    // Mean latency in ms after a short warm-up
+    private static double time(int runs, String query, Function<String, Page<Long>> search) {
+        for (int i = 0; i < Math.max(5, runs / 10); i++) {
+            search.apply(query);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            search.apply(query);
+        }
+        return (System.nanoTime() - start) / 1e6 / runs;
+    }
+}
@@ -0,0 +1,87 @@
+package com.bookgoblin.security;
+
+import com.bookgoblin.IntegrationTest;
+import com.bookgoblin.model.entity.User;
+import com.bookgoblin.model.enums.Role;
+import com.bookgoblin.repository.UserRepository;
+import com.bookgoblin.service.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtAuthenticationFilterTest extends IntegrationTest {
+
+    @Autowired
+    private JwtAuthenticationFilter filter;
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AuthenticatedUserCache authenticatedUserCache;
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void eachRequestGetsItsOwnCopyOfTheCachedPrincipal() throws Exception {
+        String name = "principal-" + UUID.randomUUID();
+        User user = userRepository.save(User.builder()
+                .username(name)
+                .email(name + "@example.com")
+                .password("not-a-real-hash")
+                .build());
+        String token = jwtService.generateToken(user);
+
+        User first = authenticate(token);
+        // A service changing its principal must not hand the change to the user's other requests
+        first.setRole(Role.ADMIN);
+        first.setEmail("changed@example.com");
+        User second = authenticate(token);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getId()).isEqualTo(user.getId());
+        assertThat(second.getRole()).isEqualTo(Role.USER);
+        assertThat(second.getEmail()).isEqualTo(name + "@example.com");
+        assertThat(second.getPassword()).isNull();
+    }
+
+    @Test
+    void revokedTokensAreRejected() throws Exception {
+        String name = "revoked-" + UUID.randomUUID();
+        User user = userRepository.save(User.builder()
+                .username(name)
+                .email(name + "@example.com")
+                .password("not-a-real-hash")
+                .build());
+        String token = jwtService.generateToken(user);
+        assertThat(authenticate(token)).isNotNull();
+
+        // As the services that revoke tokens do
+        user.revokeTokens();
+        userRepository.save(user);
+        authenticatedUserCache.evict(user.getId());
+
+        assertThat(authenticate(token)).isNull();
+    }
+
+    private User authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? (User) authentication.getPrincipal() : null;
+    }
+}
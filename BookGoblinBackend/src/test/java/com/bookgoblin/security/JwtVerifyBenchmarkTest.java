@@ -0,0 +1,92 @@
+package com.bookgoblin.security;
+
+import com.bookgoblin.IntegrationTest;
+import com.bookgoblin.model.entity.User;
+import com.bookgoblin.model.enums.Role;
+import com.bookgoblin.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares per-request JWT handling before and after the verify-once change: rebuilding the key and
+ * parser for every parse (three parses per request, as the filter used to), one parse with the shared
+ * parser, and {@link JwtService#verify} with its cache of verified tokens. Throughput is logged and
+ * only indicative; the assertions pin that every path agrees and that a cached token is not re-parsed.
+ */
+@Slf4j
+class JwtVerifyBenchmarkTest extends IntegrationTest {
+
+    private static final int TOKENS = 100;
+    private static final int REQUESTS = 20_000;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Value("${jwt.secret-key}")
+    private String secretKey;
+
+    @Test
+    void verifyOnceBeatsParsingPerCheck() {
+        List<String> tokens = IntStream.range(0, TOKENS)
+                .mapToObj(i -> jwtService.generateToken(User.builder()
+                        .id((long) i)
+                        .username("bench" + i)
+                        .role(Role.USER)
+                        .tokenVersion(0)
+                        .build()))
+                .toList();
+
+        double rebuilt = run("rebuilt key and parser, 3 parses", tokens, token -> {
+            String subject = null;
+            for (int check = 0; check < 3; check++) {
+                subject = Jwts.parserBuilder()
+                        .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)))
+                        .build()
+                        .parseClaimsJws(token)
+                        .getBody()
+                        .getSubject();
+            }
+            return subject;
+        });
+        var sharedParser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)))
+                .build();
+        double shared = run("shared parser, 1 parse", tokens, token -> {
+            Claims claims = sharedParser.parseClaimsJws(token).getBody();
+            return claims.getSubject();
+        });
+        double verified = run("JwtService.verify, cached", tokens, token -> jwtService.verify(token).getSubject());
+        log.info("JWT verification: {} / {} / {} requests per second", (long) rebuilt, (long) shared, (long) verified);
+
+        // A repeated token is answered from the cache, not parsed into a new VerifiedToken
+        assertThat(jwtService.verify(tokens.get(0))).isSameAs(jwtService.verify(tokens.get(0)));
+    }
+
+    // Runs the requests once to warm up, then again measured; each request must resolve its own subject
+    private double run(String name, List<String> tokens, Function<String, String> subject) {
+        requests(tokens, subject);
+        long start = System.nanoTime();
+        requests(tokens, subject);
+        double perSecond = REQUESTS / ((System.nanoTime() - start) / 1e9);
+        log.info("{}: {} requests/s", name, (long) perSecond);
+        return perSecond;
+    }
+
+    private void requests(List<String> tokens, Function<String, String> subject) {
+        for (int i = 0; i < REQUESTS; i++) {
+            assertThat(subject.apply(tokens.get(i % TOKENS))).isEqualTo("bench" + (i % TOKENS));
+        }
+    }
+}
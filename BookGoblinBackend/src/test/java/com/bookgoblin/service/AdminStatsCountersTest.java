@@ -0,0 +1,114 @@
+package com.bookgoblin.service;
+
+import com.bookgoblin.IntegrationTest;
+import com.bookgoblin.event.UserRegisteredEvent;
+import com.bookgoblin.model.entity.AdminStatTotal;
+import com.bookgoblin.repository.AdminStatTotalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dashboard totals are shared through admin_stat_totals rather than recounted: each persist adds this
+ * node's changes and reads back the others', and only the reconcile counts the source tables.
+ * Rows inserted through JDBC stand in for changes no event reported.
+ */
+class AdminStatsCountersTest extends IntegrationTest {
+
+    @Autowired
+    private AdminStatsCounters adminStatsCounters;
+    @Autowired
+    private AdminStatTotalRepository adminStatTotalRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Start every test in sync with the table, with the reconcile free to run
+        jdbcTemplate.update("DELETE FROM job_checkpoints WHERE name = 'admin-stats-reconcile'");
+        adminStatsCounters.reconcile();
+        jdbcTemplate.update("DELETE FROM job_checkpoints WHERE name = 'admin-stats-reconcile'");
+    }
+
+    @Test
+    void persistAddsThisNodesChangesToTheSharedTotal() {
+        long shared = storedUsers();
+        long shown = totalUsers();
+
+        eventPublisher.publishEvent(new UserRegisteredEvent(1L));
+        assertThat(totalUsers()).isEqualTo(shown + 1);
+        assertThat(storedUsers()).isEqualTo(shared);
+
+        adminStatsCounters.persistToday();
+        assertThat(storedUsers()).isEqualTo(shared + 1);
+        assertThat(totalUsers()).isEqualTo(shown + 1);
+
+        // Reported once: a second persist adds nothing
+        adminStatsCounters.persistToday();
+        assertThat(storedUsers()).isEqualTo(shared + 1);
+    }
+
+    @Test
+    void persistReadsBackOtherNodesChanges() {
+        long shown = totalUsers();
+
+        adminStatTotalRepository.add("users", 5, LocalDateTime.now());
+        adminStatsCounters.persistToday();
+
+        assertThat(totalUsers()).isEqualTo(shown + 5);
+    }
+
+    @Test
+    void onlyTheReconcileCountsTheTable() {
+        long shown = totalUsers();
+        insertUserWithoutEvent();
+
+        adminStatsCounters.persistToday();
+        assertThat(totalUsers()).isEqualTo(shown);
+
+        adminStatsCounters.reconcile();
+        assertThat(totalUsers()).isEqualTo(shown + 1);
+        assertThat(storedUsers()).isEqualTo(shown + 1);
+    }
+
+    @Test
+    void reconcileRunsOncePerIntervalAcrossNodes() {
+        adminStatsCounters.reconcile();
+        long shown = totalUsers();
+        insertUserWithoutEvent();
+
+        // The claim taken by the run above is still fresh, as it would be for any other node
+        adminStatsCounters.reconcile();
+        assertThat(totalUsers()).isEqualTo(shown);
+
+        jdbcTemplate.update("UPDATE job_checkpoints SET updated_at = ? WHERE name = 'admin-stats-reconcile'",
+                LocalDateTime.now().minusDays(1));
+        adminStatsCounters.reconcile();
+        assertThat(totalUsers()).isEqualTo(shown + 1);
+    }
+
+    private long totalUsers() {
+        return adminStatsCounters.snapshot().getTotalUsers();
+    }
+
+    private long storedUsers() {
+        return adminStatTotalRepository.findById("users").map(AdminStatTotal::getTotal).orElseThrow();
+    }
+
+    private void insertUserWithoutEvent() {
+        String name = "unreported-" + UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, role, token_version) " +
+                        "VALUES (?, ?, ?, 'x', 'USER', 0)",
+                ThreadLocalRandom.current().nextLong(1_000_000_000L, 2_000_000_000L), name, name + "@example.com");
+    }
+}
@@ -0,0 +1,250 @@
+package com.bookgoblin.service;
+
+import com.bookgoblin.IntegrationTest;
+import com.bookgoblin.model.dto.request.BookRequest;
+import com.bookgoblin.model.dto.request.RateBookRequest;
+import com.bookgoblin.model.dto.request.UpdateProgressRequest;
+import com.bookgoblin.model.entity.Book;
+import com.bookgoblin.model.entity.Library;
+import com.bookgoblin.model.entity.User;
+import com.bookgoblin.model.entity.UserBook;
+import com.bookgoblin.model.enums.BookStatus;
+import com.bookgoblin.repository.BookRepository;
+import com.bookgoblin.repository.LibraryRepository;
+import com.bookgoblin.repository.UserBookRepository;
+import com.bookgoblin.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers the two counters that are updated in place rather than recomputed on read: the library
+ * totals (atomic deltas racing the optimistic recompute, and progress reports racing each other on the
+ * same shelf entries) and a book's rating aggregate (the per-shelf compare-and-set feeding the atomic
+ * rating delta). Afterwards both must match a count from scratch.
+ */
+class ConcurrentCounterUpdateTest extends IntegrationTest {
+
+    private static final int THREADS = 4;
+    private static final int BOOKS_PER_THREAD = 25;
+    private static final int RATERS = 10;
+    private static final int RATINGS_PER_THREAD = 50;
+    private static final int SHELF_SIZE = 5;
+    private static final int PAGES = 100;
+    private static final int PROGRESS_REPORTS = 120;
+
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private LibraryStatsService libraryStatsService;
+    @Autowired
+    private ReadingProgressBuffer readingProgressBuffer;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private UserBookRepository userBookRepository;
+    @Autowired
+    private LibraryRepository libraryRepository;
+
+    @Test
+    void libraryDeltasSurviveConcurrentRecomputes() throws Exception {
+        User reader = newUser();
+        libraryStatsService.recompute(reader.getId());
+
+        AtomicBoolean adding = new AtomicBoolean(true);
+        AtomicInteger recomputes = new AtomicInteger();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            tasks.add(() -> {
+                for (int i = 0; i < BOOKS_PER_THREAD; i++) {
+                    BookStatus status = BookStatus.values()[i % 3];
+                    bookService.addBookToLibrary(BookRequest.builder()
+                            .title("Concurrent " + thread + "-" + i)
+                            .author("Author")
+                            .status(status)
+                            .build(), reader);
+                }
+                return null;
+            });
+        }
+        tasks.add(() -> {
+            while (adding.get()) {
+                try {
+                    libraryStatsService.recompute(reader.getId());
+                    recomputes.incrementAndGet();
+                } catch (ObjectOptimisticLockingFailureException e) {
+                    // Gave up after its attempts; the deltas it lost to must still all be there
+                }
+            }
+            return null;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        try {
+            List<Future<Void>> adders = new ArrayList<>();
+            for (Callable<Void> task : tasks.subList(0, THREADS)) {
+                adders.add(executor.submit(task));
+            }
+            Future<Void> recomputer = executor.submit(tasks.get(THREADS));
+            for (Future<Void> adder : adders) {
+                adder.get(60, TimeUnit.SECONDS);
+            }
+            adding.set(false);
+            recomputer.get(60, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<UserBook> shelf = userBookRepository.findByUserId(reader.getId());
+        Library library = libraryRepository.findByUserId(reader.getId()).orElseThrow();
+        assertThat(recomputes.get()).isPositive();
+        assertThat(shelf).hasSize(THREADS * BOOKS_PER_THREAD);
+        assertThat(library.getTotalBooks()).isEqualTo(shelf.size());
+        assertThat(library.getBooksRead()).isEqualTo(count(shelf, BookStatus.READ));
+        assertThat(library.getBooksReading()).isEqualTo(count(shelf, BookStatus.READING));
+        assertThat(library.getBooksToRead()).isEqualTo(count(shelf, BookStatus.WANT_TO_READ));
+        // Nothing drifted, so a recompute from scratch has nothing to correct
+        assertThat(libraryStatsService.recompute(reader.getId())).isFalse();
+    }
+
+    @Test
+    void concurrentProgressReportsKeepTheLibraryExact() throws Exception {
+        User reader = newUser();
+        List<UserBook> shelf = new ArrayList<>();
+        for (int i = 0; i < SHELF_SIZE; i++) {
+            Book book = bookRepository.save(Book.builder().title("Progress " + i).author("Author").pages(PAGES).build());
+            shelf.add(userBookRepository.save(UserBook.builder()
+                    .user(reader)
+                    .book(book)
+                    .status(BookStatus.WANT_TO_READ)
+                    .build()));
+        }
+        libraryStatsService.recompute(reader.getId());
+
+        // Every shelf entry gets reports from both paths at once; pages past the end mark the book READ,
+        // later pages below it move it back to READING
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < PROGRESS_REPORTS; i++) {
+            int task = i;
+            tasks.add(() -> {
+                UserBook userBook = shelf.get(task % SHELF_SIZE);
+                int page = ThreadLocalRandom.current().nextInt(PAGES + 20);
+                if (task % 2 == 0) {
+                    bookService.updateReadingProgress(reader.getId(), userBook.getId(), new UpdateProgressRequest(page));
+                } else {
+                    readingProgressBuffer.submit(reader.getId(), userBook.getId(), page);
+                    readingProgressBuffer.flush();
+                }
+                return null;
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS * 2);
+        try {
+            for (Future<Void> result : executor.invokeAll(tasks, 60, TimeUnit.SECONDS)) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        readingProgressBuffer.flush();
+
+        List<UserBook> reported = userBookRepository.findByUserId(reader.getId());
+        Library library = libraryRepository.findByUserId(reader.getId()).orElseThrow();
+        assertThat(library.getTotalBooks()).isEqualTo(SHELF_SIZE);
+        assertThat(library.getBooksRead()).isEqualTo(count(reported, BookStatus.READ));
+        assertThat(library.getBooksReading()).isEqualTo(count(reported, BookStatus.READING));
+        assertThat(library.getBooksToRead()).isEqualTo(count(reported, BookStatus.WANT_TO_READ));
+        assertThat(library.getTotalPagesRead()).isEqualTo(reported.stream()
+                .filter(userBook -> userBook.getStatus() == BookStatus.READ)
+                .mapToInt(UserBook::getCurrentPage)
+                .sum());
+        assertThat(libraryStatsService.recompute(reader.getId())).isFalse();
+    }
+
+    @Test
+    void concurrentRatingsKeepTheBookAggregateExact() throws Exception {
+        Book book = bookRepository.save(Book.builder().title("Rated").author("Author").build());
+        List<UserBook> shelves = new ArrayList<>();
+        for (int i = 0; i < RATERS; i++) {
+            shelves.add(userBookRepository.save(UserBook.builder()
+                    .user(newUser())
+                    .book(book)
+                    .status(BookStatus.READ)
+                    .currentPage(0)
+                    .addedAt(LocalDateTime.now())
+                    .build()));
+        }
+
+        AtomicInteger exhausted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> raters = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                raters.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < RATINGS_PER_THREAD; i++) {
+                        UserBook shelf = shelves.get(random.nextInt(RATERS));
+                        int value = random.nextInt(6);
+                        try {
+                            bookService.rateBook(shelf.getUser().getId(), shelf.getId(),
+                                    new RateBookRequest(value == 0 ? null : value));
+                        } catch (RuntimeException e) {
+                            // Out of attempts: that rating is rejected as a whole, never half-applied
+                            exhausted.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> rater : raters) {
+                rater.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Integer> ratings = userBookRepository.findAllById(shelves.stream().map(UserBook::getId).toList())
+                .stream()
+                .map(UserBook::getRating)
+                .filter(Objects::nonNull)
+                .toList();
+        Book rated = bookRepository.findById(book.getId()).orElseThrow();
+        assertThat(exhausted.get()).isLessThan(THREADS * RATINGS_PER_THREAD / 10);
+        assertThat(rated.getRatingCount()).isEqualTo(ratings.size());
+        assertThat(rated.getRatingSum()).isEqualTo(ratings.stream().mapToInt(Integer::intValue).sum());
+        // Derived from the integer sum on every change, so it never drifts from a fresh average
+        assertThat(rated.getRating()).isEqualTo(ratings.stream().mapToInt(Integer::intValue).average().orElse(0.0));
+    }
+
+    private static int count(List<UserBook> shelf, BookStatus status) {
+        return (int) shelf.stream().filter(userBook -> userBook.getStatus() == status).count();
+    }
+
+    private User newUser() {
+        String name = "reader-" + UUID.randomUUID();
+        return userRepository.save(User.builder()
+                .username(name)
+                .email(name + "@example.com")
+                .password("not-a-real-hash")
+                .build());
+    }
+}
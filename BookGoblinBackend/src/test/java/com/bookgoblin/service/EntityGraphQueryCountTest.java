@@ -0,0 +1,196 @@
+package com.bookgoblin.service;
+
+import com.bookgoblin.IntegrationTest;
+import com.bookgoblin.controller.UserController;
+import com.bookgoblin.model.dto.response.ApiResponse;
+import com.bookgoblin.model.dto.response.ActivityLogResponse;
+import com.bookgoblin.model.dto.response.BookResponse;
+import com.bookgoblin.model.dto.response.UserResponse;
+import com.bookgoblin.model.entity.ActivityLog;
+import com.bookgoblin.model.entity.Book;
+import com.bookgoblin.model.entity.User;
+import com.bookgoblin.model.entity.UserBook;
+import com.bookgoblin.model.enums.ActivityType;
+import com.bookgoblin.model.enums.BookStatus;
+import com.bookgoblin.repository.ActivityLogRepository;
+import com.bookgoblin.repository.BookRepository;
+import com.bookgoblin.repository.UserBookRepository;
+import com.bookgoblin.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pins the number of statements each read use case issues, using Hibernate statistics. Every fixture
+ * has several rows behind the lazy associations, so a missing entity graph shows up as extra statements
+ * and entity fetches instead of passing by accident.
+ */
+class EntityGraphQueryCountTest extends IntegrationTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private UserBookRepository userBookRepository;
+    @Autowired
+    private ActivityLogRepository activityLogRepository;
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private LibraryService libraryService;
+    @Autowired
+    private ActivityLogService activityLogService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private LibraryStatsService libraryStatsService;
+    @Autowired
+    private UserController userController;
+
+    private Statistics statistics;
+    private User reader;
+    private List<User> others;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        reader = newUser();
+        for (int i = 0; i < 5; i++) {
+            Book book = bookRepository.save(Book.builder()
+                    .title("Book " + i)
+                    .author("Author " + i)
+                    .isbn(UUID.randomUUID().toString().replace("-", "").substring(0, 13))
+                    .build());
+            userBookRepository.save(UserBook.builder()
+                    .user(reader)
+                    .book(book)
+                    .status(i < 2 ? BookStatus.READING : BookStatus.WANT_TO_READ)
+                    .currentPage(i * 10)
+                    .addedAt(LocalDateTime.now())
+                    .build());
+        }
+
+        others = List.of(newUser(), newUser());
+        for (User user : List.of(reader, others.get(0), others.get(1))) {
+            libraryStatsService.recompute(user.getId());
+            for (int i = 0; i < 4; i++) {
+                activityLogRepository.save(ActivityLog.builder()
+                        .user(user)
+                        .activityType(ActivityType.BOOK_ADDED)
+                        .description("Added book " + i)
+                        .build());
+            }
+        }
+    }
+
+    @Test
+    void libraryListingLoadsBooksWithTheUserBooks() {
+        List<BookResponse> books = count(1, () -> bookService.getUserBooks(reader.getId(), null));
+
+        assertThat(books).hasSize(5).allSatisfy(book -> assertThat(book.getTitle()).startsWith("Book "));
+    }
+
+    @Test
+    void libraryListingByStatusLoadsBooksWithTheUserBooks() {
+        List<BookResponse> books = count(1, () -> bookService.getUserBooks(reader.getId(), BookStatus.READING));
+
+        assertThat(books).hasSize(2);
+    }
+
+    @Test
+    void currentlyReadingLoadsTheBookWithTheUserBook() {
+        BookResponse book = count(1, () -> libraryService.getCurrentlyReading(reader.getId()));
+
+        assertThat(book.getTitle()).startsWith("Book ");
+    }
+
+    @Test
+    void userActivityPageLoadsUsersWithTheLogs() {
+        // A full first page, so the count query runs too
+        Page<ActivityLogResponse> page = count(2, () ->
+                activityLogService.getUserActivities(reader.getId(), PageRequest.of(0, 3)));
+
+        assertThat(page.getTotalElements()).isEqualTo(4);
+        assertThat(page.getContent()).allSatisfy(log -> assertThat(log.getUsername()).isEqualTo(reader.getUsername()));
+    }
+
+    @Test
+    void adminActivityPageLoadsUsersWithTheLogs() {
+        Page<ActivityLogResponse> page = count(2, () -> activityLogService.getAllActivities(PageRequest.of(0, 10)));
+
+        assertThat(page.getContent()).hasSize(10).allSatisfy(log -> assertThat(log.getUsername()).isNotNull());
+    }
+
+    @Test
+    void filteredActivityPageLoadsUsersWithTheLogs() {
+        Page<ActivityLogResponse> page = count(2, () -> activityLogService.getActivitiesWithFilters(
+                null, ActivityType.BOOK_ADDED, null, null, PageRequest.of(0, 10)));
+
+        assertThat(page.getContent()).hasSize(10).allSatisfy(log -> assertThat(log.getUsername()).isNotNull());
+    }
+
+    @Test
+    void userByIdLoadsTheUserThenOneLibraryAndOneActivityQuery() {
+        // The user lookup, then the library and the activity aggregate; a cached user skips the first
+        UserResponse user = count(3, () -> userService.toUserResponse(userService.getUserById(reader.getId())));
+
+        assertThat(user.getUsername()).isEqualTo(reader.getUsername());
+        assertThat(user.getTotalBooks()).isEqualTo(5);
+        assertThat(user.getBooksReading()).isEqualTo(2);
+        assertThat(user.getTotalActivities()).isEqualTo(4);
+    }
+
+    @Test
+    void userResponsesForSeveralUsersShareTheirQueries() {
+        List<User> users = List.of(others.get(1), reader, others.get(0));
+        List<UserResponse> responses = count(2, () -> userService.toUserResponses(users));
+
+        assertThat(responses).extracting(UserResponse::getId)
+                .containsExactly(others.get(1).getId(), reader.getId(), others.get(0).getId());
+        assertThat(responses).allSatisfy(response -> assertThat(response.getTotalActivities()).isEqualTo(4));
+    }
+
+    @Test
+    void currentUserProfileUsesTheAuthenticatedPrincipal() {
+        // /api/users/me is handed the principal the JWT filter resolved, so only the profile queries run
+        ResponseEntity<ApiResponse> response = count(2, () -> userController.getCurrentUser(reader));
+
+        assertThat(response.getBody()).isNotNull();
+        assertThat(((UserResponse) response.getBody().getData()).getTotalBooks()).isEqualTo(5);
+    }
+
+    private <T> T count(long expectedStatements, Supplier<T> useCase) {
+        statistics.clear();
+        T result = useCase.get();
+        assertThat(statistics.getPrepareStatementCount()).as("statements").isEqualTo(expectedStatements);
+        assertThat(statistics.getEntityFetchCount()).as("lazy entity fetches").isZero();
+        assertThat(statistics.getCollectionFetchCount()).as("lazy collection fetches").isZero();
+        return result;
+    }
+
+    private User newUser() {
+        String name = "reader-" + UUID.randomUUID();
+        return userRepository.save(User.builder()
+                .username(name)
+                .email(name + "@example.com")
+                .password("not-a-real-hash")
+                .build());
+    }
+}
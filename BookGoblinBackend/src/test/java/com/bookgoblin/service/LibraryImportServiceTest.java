@@ -0,0 +1,238 @@
+package com.bookgoblin.service;
+
+import com.bookgoblin.IntegrationTest;
+import com.bookgoblin.model.dto.request.BookRequest;
+import com.bookgoblin.model.dto.response.ImportRowResult;
+import com.bookgoblin.model.dto.response.ImportSummary;
+import com.bookgoblin.model.entity.Book;
+import com.bookgoblin.model.entity.Library;
+import com.bookgoblin.model.entity.User;
+import com.bookgoblin.model.entity.UserBook;
+import com.bookgoblin.model.enums.BookStatus;
+import com.bookgoblin.repository.BookRepository;
+import com.bookgoblin.repository.LibraryRepository;
+import com.bookgoblin.repository.UserBookRepository;
+import com.bookgoblin.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs uploads through parse and import the way the controller does. Every ISBN in these files belongs
+ * to a book that is already stored, so nothing is looked up on OpenLibrary. The chunk size is lowered so
+ * each file spans several chunks.
+ */
+class LibraryImportServiceTest extends IntegrationTest {
+
+    private static final String GOODREADS_HEADER = "Book Id,Title,Author,ISBN,ISBN13,My Rating,Number of Pages," +
+            "Year Published,Original Publication Year,Exclusive Shelf";
+
+    @Autowired
+    private LibraryImportService libraryImportService;
+    @Autowired
+    private LibraryStatsService libraryStatsService;
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private UserBookRepository userBookRepository;
+    @Autowired
+    private LibraryRepository libraryRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private int chunkSize;
+
+    @BeforeEach
+    void smallChunks() {
+        chunkSize = (int) ReflectionTestUtils.getField(libraryImportService, "chunkSize");
+        ReflectionTestUtils.setField(libraryImportService, "chunkSize", 2);
+    }
+
+    @AfterEach
+    void restoreChunks() {
+        ReflectionTestUtils.setField(libraryImportService, "chunkSize", chunkSize);
+    }
+
+    @Test
+    void goodreadsCsvIsImportedOnceAndReRunsAddNothing() throws Exception {
+        User reader = newUser();
+        String word = uniqueWord();
+        Book thirteen = bookRepository.save(Book.builder().title("Thirteen " + word).author("Author")
+                .isbn(randomIsbn(13)).build());
+        Book ten = bookRepository.save(Book.builder().title("Ten " + word).author("Author")
+                .isbn(randomIsbn(10)).build());
+        String csv = String.join("\n",
+                GOODREADS_HEADER,
+                // Goodreads wraps ISBNs as ="..." so spreadsheets keep the leading zeros
+                "1,Thirteen " + word + ",Author,\"=\"\"\"\"\",\"=\"\"" + thirteen.getIsbn() + "\"\"\",4,,,,currently-reading",
+                "2,Ten " + word + ",Author,\"=\"\"" + ten.getIsbn() + "\"\"\",\"=\"\"\"\"\",0,,,,read",
+                "3,\"New, " + word + "\",Someone,\"=\"\"\"\"\",\"=\"\"\"\"\",0,321,2001,1999,to-read",
+                "4,Thirteen again,Author,,\"=\"\"" + thirteen.getIsbn() + "\"\"\",0,,,,read",
+                "5,\"NEW, " + word + "\",someone,,,0,,,,read",
+                "6,Dropped " + word + ",Someone,,,0,,,,abandoned");
+
+        List<ImportRowResult> first = run(reader, "goodreads_library_export.csv", csv);
+
+        assertThat(statuses(first)).containsExactly(
+                ImportRowResult.Status.ADDED,
+                ImportRowResult.Status.ADDED,
+                ImportRowResult.Status.ADDED,
+                ImportRowResult.Status.DUPLICATE,
+                ImportRowResult.Status.DUPLICATE,
+                ImportRowResult.Status.FAILED);
+        assertThat(first.get(0).getBookId()).isEqualTo(thirteen.getId());
+        assertThat(first.get(1).getBookId()).isEqualTo(ten.getId());
+        assertThat(first.get(5).getMessage()).contains("abandoned");
+
+        Map<Long, BookStatus> shelf = shelf(reader);
+        assertThat(shelf).hasSize(3)
+                .containsEntry(thirteen.getId(), BookStatus.READING)
+                .containsEntry(ten.getId(), BookStatus.READ)
+                .containsEntry(first.get(2).getBookId(), BookStatus.WANT_TO_READ);
+        Book created = bookRepository.findById(first.get(2).getBookId()).orElseThrow();
+        assertThat(created.getTitle()).isEqualTo("New, " + word);
+        assertThat(created.getPages()).isEqualTo(321);
+        assertThat(created.getPublishedYear()).isEqualTo(2001);
+
+        long version = library(reader).getVersion();
+        List<ImportRowResult> second = run(reader, "goodreads_library_export.csv", csv);
+
+        assertThat(statuses(second)).containsExactly(
+                ImportRowResult.Status.ALREADY_IN_LIBRARY,
+                ImportRowResult.Status.ALREADY_IN_LIBRARY,
+                ImportRowResult.Status.ALREADY_IN_LIBRARY,
+                ImportRowResult.Status.ALREADY_IN_LIBRARY,
+                ImportRowResult.Status.ALREADY_IN_LIBRARY,
+                ImportRowResult.Status.FAILED);
+        assertThat(shelf(reader)).isEqualTo(shelf);
+        // Nothing added, so the library stats are not recomputed
+        assertThat(library(reader).getVersion()).isEqualTo(version);
+    }
+
+    @Test
+    void ndjsonRowsAreCheckedAgainstTheLibraryAndStatsRecomputedOnce() throws Exception {
+        User reader = newUser();
+        String word = uniqueWord();
+        bookService.addBookToLibrary(BookRequest.builder()
+                .title("Owned " + word).author("Author").status(BookStatus.READ).build(), reader);
+        Book stored = bookRepository.save(Book.builder().title("Stored " + word).author("Author")
+                .isbn(randomIsbn(13)).build());
+        String hyphenated = stored.getIsbn().substring(0, 3) + "-" + stored.getIsbn().substring(3);
+        String ndjson = String.join("\n",
+                "{\"title\":\"owned " + word + "\",\"author\":\"AUTHOR\"}",
+                "{\"isbn\":\"" + hyphenated + "\",\"status\":\"READ\"}",
+                "",
+                "{\"title\":\"broken\"",
+                "{\"title\":\"Fresh " + word + "\",\"author\":\"Author\",\"status\":\"READING\"}",
+                "{\"title\":\"No author " + word + "\"}",
+                "{\"title\":\"Fresh " + word + "\",\"author\":\"Author\"}");
+        Library before = library(reader);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImportSummary summary = libraryImportService.importBooks(reader.getId(),
+                libraryImportService.parse(file("shelf.ndjson", ndjson), null), out);
+
+        List<ImportRowResult> results = results(out);
+        assertThat(results).extracting(ImportRowResult::getRow).containsExactly(1, 2, 3, 4, 5, 6);
+        assertThat(statuses(results)).containsExactly(
+                ImportRowResult.Status.ALREADY_IN_LIBRARY,
+                ImportRowResult.Status.ADDED,
+                ImportRowResult.Status.FAILED,
+                ImportRowResult.Status.ADDED,
+                ImportRowResult.Status.FAILED,
+                ImportRowResult.Status.DUPLICATE);
+        assertThat(results.get(1).getBookId()).isEqualTo(stored.getId());
+        assertThat(results.get(2).getMessage()).startsWith("Invalid JSON");
+        assertThat(summary.getRows()).isEqualTo(6);
+        assertThat(summary.getAdded()).isEqualTo(2);
+        assertThat(summary.getAlreadyInLibrary()).isEqualTo(1);
+        assertThat(summary.getDuplicates()).isEqualTo(1);
+        assertThat(summary.getFailed()).isEqualTo(2);
+
+        // The rows go in over JDBC in three chunks; the counters are fixed up by one recompute at the end
+        Library after = library(reader);
+        assertThat(after.getVersion()).isEqualTo(before.getVersion() + 1);
+        assertThat(after.getTotalBooks()).isEqualTo(3);
+        assertThat(after.getBooksRead()).isEqualTo(2);
+        assertThat(after.getBooksReading()).isEqualTo(1);
+        assertThat(libraryStatsService.recompute(reader.getId())).isFalse();
+    }
+
+    private List<ImportRowResult> run(User reader, String name, String content) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        libraryImportService.importBooks(reader.getId(), libraryImportService.parse(file(name, content), null), out);
+        return results(out);
+    }
+
+    // Every line but the trailing summary is a row result
+    private List<ImportRowResult> results(ByteArrayOutputStream out) throws Exception {
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines[lines.length - 1]).startsWith("{\"summary\"");
+        List<ImportRowResult> results = new ArrayList<>();
+        for (int i = 0; i < lines.length - 1; i++) {
+            results.add(objectMapper.readValue(lines[i], ImportRowResult.class));
+        }
+        return results;
+    }
+
+    private static List<ImportRowResult.Status> statuses(List<ImportRowResult> results) {
+        return results.stream().map(ImportRowResult::getStatus).toList();
+    }
+
+    private Map<Long, BookStatus> shelf(User reader) {
+        return userBookRepository.findByUserId(reader.getId()).stream()
+                .collect(Collectors.toMap(userBook -> userBook.getBook().getId(), UserBook::getStatus));
+    }
+
+    private Library library(User reader) {
+        return libraryRepository.findByUserId(reader.getId()).orElseThrow();
+    }
+
+    private User newUser() {
+        String name = "importer-" + UUID.randomUUID();
+        User user = userRepository.save(User.builder()
+                .username(name)
+                .email(name + "@example.com")
+                .password("not-a-real-hash")
+                .build());
+        libraryStatsService.recompute(user.getId());
+        return user;
+    }
+
+    private static MockMultipartFile file(String name, String content) {
+        return new MockMultipartFile("file", name, null, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Unchecked digits are enough: the import only normalizes ISBNs, it does not validate them
+    private static String randomIsbn(int length) {
+        StringBuilder isbn = new StringBuilder(length);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < length; i++) {
+            isbn.append(random.nextInt(10));
+        }
+        return isbn.toString();
+    }
+
+    private static String uniqueWord() {
+        return "w" + UUID.randomUUID().toString().replace("-", "");
+    }
+}
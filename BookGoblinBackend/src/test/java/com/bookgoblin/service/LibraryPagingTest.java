@@ -0,0 +1,130 @@
+package com.bookgoblin.service;
+
+import com.bookgoblin.IntegrationTest;
+import com.bookgoblin.model.dto.response.CursorPage;
+import com.bookgoblin.model.dto.response.LibraryBookSummary;
+import com.bookgoblin.model.entity.Book;
+import com.bookgoblin.model.entity.User;
+import com.bookgoblin.model.enums.LibrarySort;
+import com.bookgoblin.repository.BookRepository;
+import com.bookgoblin.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Walks a library page by page with a page size that puts boundaries inside runs of equal addedAt and
+ * equal rating, where the keyset has to fall back to the next column. Every order must come out
+ * complete, without repeats, and the same as sorting the rows in memory.
+ */
+class LibraryPagingTest extends IntegrationTest {
+
+    private static final int PAGE_SIZE = 2;
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2024, 3, 4, 9, 0);
+    private static final LocalDateTime TUESDAY = MONDAY.plusDays(1);
+
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User reader;
+    private final List<Row> rows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        String name = "pager-" + UUID.randomUUID();
+        reader = userRepository.save(User.builder()
+                .username(name)
+                .email(name + "@example.com")
+                .password("not-a-real-hash")
+                .build());
+        // Five rows share Monday, three of them also share a rating; unrated rows sort as 0
+        shelve(MONDAY, 4);
+        shelve(MONDAY, null);
+        shelve(TUESDAY, 4);
+        shelve(MONDAY, 4);
+        shelve(MONDAY, 2);
+        shelve(TUESDAY, null);
+        shelve(MONDAY, 4);
+    }
+
+    @Test
+    void everySortAndDirectionPagesThroughTiesWithoutGapsOrRepeats() {
+        for (LibrarySort sort : LibrarySort.values()) {
+            for (boolean ascending : new boolean[]{true, false}) {
+                Comparator<Row> order = Comparator.comparing(Row::addedAt).thenComparing(Row::id);
+                if (sort == LibrarySort.RATING) {
+                    order = Comparator.comparing(Row::sortRating).thenComparing(order);
+                }
+                List<Long> expected = rows.stream()
+                        .sorted(ascending ? order : order.reversed())
+                        .map(Row::id)
+                        .toList();
+
+                assertThat(walk(sort, ascending)).as("%s %s", sort, ascending ? "asc" : "desc")
+                        .containsExactlyElementsOf(expected);
+            }
+        }
+    }
+
+    @Test
+    void aCursorOnlyContinuesTheOrderItWasIssuedFor() {
+        String cursor = page(LibrarySort.ADDED, false, null).getNextCursor();
+        assertThat(cursor).isNotNull();
+
+        assertThatThrownBy(() -> page(LibrarySort.RATING, false, cursor))
+                .hasMessage("Invalid cursor for this sort order");
+        assertThatThrownBy(() -> page(LibrarySort.ADDED, true, cursor))
+                .hasMessage("Invalid cursor for this sort order");
+        assertThatThrownBy(() -> page(LibrarySort.ADDED, false, "not-a-cursor"))
+                .hasMessage("Invalid cursor for this sort order");
+    }
+
+    private List<Long> walk(LibrarySort sort, boolean ascending) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<LibraryBookSummary> page = page(sort, ascending, cursor);
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(PAGE_SIZE);
+            page.getItems().forEach(item -> ids.add(item.getUserBookId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private CursorPage<LibraryBookSummary> page(LibrarySort sort, boolean ascending, String cursor) {
+        return bookService.getUserBooksPage(reader.getId(), null, null, null, sort, ascending, cursor, PAGE_SIZE);
+    }
+
+    // Inserted directly: the entity stamps addedAt with the current time on persist
+    private void shelve(LocalDateTime addedAt, Integer rating) {
+        Book book = bookRepository.save(Book.builder().title("Paged " + rows.size()).author("Author").build());
+        jdbcTemplate.update("INSERT INTO user_books (user_id, book_id, status, current_page, rating, added_at) " +
+                "VALUES (?, ?, 'READ', 0, ?, ?)", reader.getId(), book.getId(), rating, addedAt);
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM user_books WHERE user_id = ? AND book_id = ?",
+                Long.class, reader.getId(), book.getId());
+        rows.add(new Row(id, addedAt, rating));
+    }
+
+    private record Row(Long id, LocalDateTime addedAt, Integer rating) {
+
+        int sortRating() {
+            return rating != null ? rating : 0;
+        }
+    }
+}
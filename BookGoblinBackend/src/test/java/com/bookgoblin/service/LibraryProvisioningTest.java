@@ -0,0 +1,105 @@
+package com.bookgoblin.service;
+
+import com.bookgoblin.IntegrationTest;
+import com.bookgoblin.model.dto.request.BookRequest;
+import com.bookgoblin.model.entity.Book;
+import com.bookgoblin.model.entity.Library;
+import com.bookgoblin.model.entity.User;
+import com.bookgoblin.model.entity.UserBook;
+import com.bookgoblin.model.enums.BookStatus;
+import com.bookgoblin.repository.BookRepository;
+import com.bookgoblin.repository.LibraryRepository;
+import com.bookgoblin.repository.UserBookRepository;
+import com.bookgoblin.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Users registered before libraries were provisioned have books but no library row. Whichever path
+ * creates the row must count the shelf rather than start from zero.
+ */
+class LibraryProvisioningTest extends IntegrationTest {
+
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private LibraryService libraryService;
+    @Autowired
+    private LibraryStatsReconciler libraryStatsReconciler;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private UserBookRepository userBookRepository;
+    @Autowired
+    private LibraryRepository libraryRepository;
+
+    private User reader;
+
+    @BeforeEach
+    void setUp() {
+        String name = "legacy-" + UUID.randomUUID();
+        reader = userRepository.save(User.builder()
+                .username(name)
+                .email(name + "@example.com")
+                .password("not-a-real-hash")
+                .build());
+        shelve(BookStatus.READ, 120);
+        shelve(BookStatus.READ, 80);
+        shelve(BookStatus.READING, 30);
+        shelve(BookStatus.WANT_TO_READ, 0);
+        assertThat(libraryRepository.findByUserId(reader.getId())).isEmpty();
+    }
+
+    @Test
+    void firstDeltaProvisionsTheLibraryFromTheShelf() {
+        bookService.addBookToLibrary(BookRequest.builder()
+                .title("Fifth " + UUID.randomUUID())
+                .author("Author")
+                .status(BookStatus.WANT_TO_READ)
+                .build(), reader);
+
+        assertCounts(5, 2, 1, 2, 200);
+    }
+
+    @Test
+    void reconcilerProvisionsUsersWithoutALibrary() {
+        libraryStatsReconciler.reconcile();
+
+        assertCounts(4, 2, 1, 1, 200);
+    }
+
+    @Test
+    void statsLookupProvisionsTheLibraryFromTheShelf() {
+        assertThat(libraryService.getLibraryStats(reader.getId())).containsEntry("totalBooks", 4);
+
+        assertCounts(4, 2, 1, 1, 200);
+    }
+
+    private void assertCounts(int total, int read, int reading, int toRead, int pagesRead) {
+        Library library = libraryRepository.findByUserId(reader.getId()).orElseThrow();
+        assertThat(library.getTotalBooks()).isEqualTo(total);
+        assertThat(library.getBooksRead()).isEqualTo(read);
+        assertThat(library.getBooksReading()).isEqualTo(reading);
+        assertThat(library.getBooksToRead()).isEqualTo(toRead);
+        assertThat(library.getTotalPagesRead()).isEqualTo(pagesRead);
+    }
+
+    private void shelve(BookStatus status, int currentPage) {
+        Book book = bookRepository.save(Book.builder().title("Shelved " + UUID.randomUUID()).author("Author").build());
+        userBookRepository.save(UserBook.builder()
+                .user(reader)
+                .book(book)
+                .status(status)
+                .currentPage(currentPage)
+                .addedAt(LocalDateTime.now())
+                .build());
+    }
+}
@@ -0,0 +1,168 @@
+package com.bookgoblin.service;
+
+import com.bookgoblin.exception.OpenLibraryUnavailableException;
+import com.bookgoblin.util.CircuitBreaker;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the client against a local stub: {@code /slow/*} answers once the test opens the gate,
+ * {@code /fail/*} answers 500 and anything else answers at once. The stub counts the calls it receives.
+ */
+class OpenLibraryClientTest {
+
+    private static final int DETAILS_PERMITS = 2;
+    private static final int FAILURE_THRESHOLD = 3;
+    private static final long OPEN_MS = 300;
+
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+    private final CountDownLatch gate = new CountDownLatch(1);
+    private HttpServer stub;
+    private OpenLibraryClient client;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+        stub.setExecutor(Executors.newCachedThreadPool());
+        stub.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            hits.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+            if (path.startsWith("/slow/")) {
+                try {
+                    gate.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            int status = path.startsWith("/fail/") ? 500 : 200;
+            byte[] body = ("{\"path\":\"" + path + "\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        stub.start();
+        baseUrl = "http://127.0.0.1:" + stub.getAddress().getPort();
+        client = new OpenLibraryClient(new RestTemplate(), 8, 4, DETAILS_PERMITS, 4, FAILURE_THRESHOLD, OPEN_MS,
+                1000, 5000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gate.countDown();
+        client.shutdown();
+        stub.stop(0);
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondItsPermits() {
+        List<CompletableFuture<Map>> running = new ArrayList<>();
+        for (int i = 0; i < DETAILS_PERMITS; i++) {
+            running.add(client.getJsonAsync(OpenLibraryClient.Operation.DETAILS, baseUrl + "/slow/" + i, Map.class));
+        }
+
+        assertThatThrownBy(() -> client.getJson(OpenLibraryClient.Operation.DETAILS, baseUrl + "/other", Map.class))
+                .isInstanceOf(OpenLibraryUnavailableException.class)
+                .hasMessageContaining("Too many concurrent");
+        assertThat(hits).doesNotContainKey("/other");
+        // Each operation has its own bulkhead
+        assertThat(client.getJson(OpenLibraryClient.Operation.SEARCH, baseUrl + "/search", Map.class))
+                .containsEntry("path", "/search");
+
+        gate.countDown();
+        running.forEach(call -> assertThat(call.join()).containsKey("path"));
+        // Permits come back once the calls finish
+        assertThat(client.getJson(OpenLibraryClient.Operation.DETAILS, baseUrl + "/other", Map.class))
+                .containsEntry("path", "/other");
+    }
+
+    @Test
+    void circuitOpensAfterConsecutiveFailuresAndClosesOnASuccessfulTrial() throws InterruptedException {
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThat(client.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+            String url = baseUrl + "/fail/" + i;
+            assertThatThrownBy(() -> client.getJson(OpenLibraryClient.Operation.ISBN, url, Map.class))
+                    .isInstanceOf(HttpServerErrorException.class);
+        }
+        assertThat(client.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        // Open: rejected without reaching the upstream
+        assertThatThrownBy(() -> client.getJson(OpenLibraryClient.Operation.ISBN, baseUrl + "/ok", Map.class))
+                .isInstanceOf(OpenLibraryUnavailableException.class)
+                .hasMessageContaining("circuit is open");
+        assertThat(hits).doesNotContainKey("/ok");
+
+        Thread.sleep(OPEN_MS + 50);
+        assertThat(client.getCircuitState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(client.getJson(OpenLibraryClient.Operation.ISBN, baseUrl + "/ok", Map.class))
+                .containsEntry("path", "/ok");
+        assertThat(client.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void failedTrialReopensTheCircuitAndOnlyOneTrialRuns() throws InterruptedException {
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            String url = baseUrl + "/fail/" + i;
+            assertThatThrownBy(() -> client.getJson(OpenLibraryClient.Operation.ISBN, url, Map.class));
+        }
+        Thread.sleep(OPEN_MS + 50);
+
+        // The trial is held upstream, so a second caller finds the half-open slot taken
+        CompletableFuture<Map> trial = client.getJsonAsync(OpenLibraryClient.Operation.ISBN,
+                baseUrl + "/slow/trial", Map.class);
+        assertThatThrownBy(() -> client.getJson(OpenLibraryClient.Operation.ISBN, baseUrl + "/ok", Map.class))
+                .isInstanceOf(OpenLibraryUnavailableException.class);
+        gate.countDown();
+        assertThat(trial.join()).containsEntry("path", "/slow/trial");
+        assertThat(client.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            String url = baseUrl + "/fail/again" + i;
+            assertThatThrownBy(() -> client.getJson(OpenLibraryClient.Operation.ISBN, url, Map.class));
+        }
+        Thread.sleep(OPEN_MS + 50);
+        assertThatThrownBy(() -> client.getJson(OpenLibraryClient.Operation.ISBN, baseUrl + "/fail/trial", Map.class))
+                .isInstanceOf(HttpServerErrorException.class);
+        // One failed trial is enough to open it again
+        assertThat(client.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void concurrentIdenticalLookupsShareOneUpstreamCall() {
+        List<CompletableFuture<Map>> callers = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            callers.add(client.getJsonAsync(OpenLibraryClient.Operation.DETAILS, baseUrl + "/slow/same", Map.class));
+        }
+        gate.countDown();
+
+        callers.forEach(call -> assertThat(call.join()).containsEntry("path", "/slow/same"));
+        assertThat(hits.get("/slow/same")).hasValue(1);
+
+        // Once finished, the next lookup goes upstream again
+        client.getJson(OpenLibraryClient.Operation.DETAILS, baseUrl + "/slow/same", Map.class);
+        assertThat(hits.get("/slow/same")).hasValue(2);
+    }
+}
@@ -0,0 +1,143 @@
+package com.bookgoblin.service;
+
+import com.bookgoblin.IntegrationTest;
+import com.bookgoblin.model.dto.response.BookResponse;
+import com.bookgoblin.model.entity.Book;
+import com.bookgoblin.repository.BookRepository;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Points the batch ISBN lookup at a local stub of OpenLibrary's /api/books endpoint. The stub knows
+ * the ISBNs the test registers and records the bibkeys of every call. The batch size is lowered to 2,
+ * so a handful of ISBNs spans several calls.
+ */
+class OpenLibraryServiceTest extends IntegrationTest {
+
+    @Autowired
+    private OpenLibraryService openLibraryService;
+    @Autowired
+    private BookRepository bookRepository;
+
+    private final Set<String> upstream = ConcurrentHashMap.newKeySet();
+    private final List<List<String>> calls = new CopyOnWriteArrayList<>();
+    private HttpServer stub;
+    private OpenLibraryService target;
+    private String baseUrl;
+    private int batchSize;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 16);
+        stub.createContext("/api/books", exchange -> {
+            List<String> isbns = bibkeys(exchange.getRequestURI().getRawQuery());
+            calls.add(isbns);
+            String body = isbns.stream()
+                    .filter(upstream::contains)
+                    .map(isbn -> "\"ISBN:" + isbn + "\":{\"title\":\"Upstream " + isbn + "\"," +
+                            "\"authors\":[{\"name\":\"Author\"}],\"key\":\"/books/OL" + isbn + "M\"}")
+                    .collect(Collectors.joining(",", "{", "}"));
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        stub.start();
+
+        target = AopTestUtils.getTargetObject(openLibraryService);
+        baseUrl = (String) ReflectionTestUtils.getField(target, "baseUrl");
+        batchSize = (int) ReflectionTestUtils.getField(target, "isbnBatchSize");
+        ReflectionTestUtils.setField(target, "baseUrl", "http://127.0.0.1:" + stub.getAddress().getPort());
+        ReflectionTestUtils.setField(target, "isbnBatchSize", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(target, "baseUrl", baseUrl);
+        ReflectionTestUtils.setField(target, "isbnBatchSize", batchSize);
+        stub.stop(0);
+    }
+
+    @Test
+    void isbnsAreNormalizedBeforeTheDatabaseAndChunkedUpstreamCalls() {
+        String stored = randomIsbn(13);
+        bookRepository.save(Book.builder().title("Stored " + stored).author("Author").isbn(stored).build());
+        String first = randomIsbn(9) + "X";
+        String second = randomIsbn(10);
+        String third = randomIsbn(13);
+        String missing = randomIsbn(13);
+        upstream.addAll(List.of(first, second, third));
+
+        String storedSpelling = stored.substring(0, 3) + "-" + stored.substring(3);
+        String firstSpelling = first.toLowerCase(Locale.ROOT);
+        Map<String, BookResponse> books = openLibraryService.getBooksByIsbns(Arrays.asList(
+                storedSpelling, " ", firstSpelling, second, first, "", third, missing, stored));
+
+        // Keyed by the first spelling of each ISBN, in request order
+        assertThat(books.keySet()).containsExactly(storedSpelling, firstSpelling, second, third);
+        assertThat(books.get(storedSpelling).getTitle()).isEqualTo("Stored " + stored);
+        assertThat(books.get(firstSpelling).getTitle()).isEqualTo("Upstream " + first);
+        // The stored book never goes upstream; the other four go in two calls of two, possibly in parallel
+        assertThat(calls).containsExactlyInAnyOrder(List.of(first, second), List.of(third, missing));
+    }
+
+    @Test
+    void unknownIsbnsAreNegativeCached() {
+        String known = randomIsbn(13);
+        String missing = randomIsbn(13);
+        upstream.add(known);
+
+        List<String> request = List.of(known, missing);
+        assertThat(openLibraryService.getBooksByIsbns(request).keySet()).containsExactly(known);
+        assertThat(calls).containsExactly(List.of(known, missing));
+
+        assertThat(openLibraryService.getBooksByIsbns(request).keySet()).containsExactly(known);
+        assertThat(openLibraryService.lookupIsbns(List.of(missing))).isEmpty();
+        assertThat(calls).hasSize(1);
+    }
+
+    private static List<String> bibkeys(String query) {
+        for (String parameter : query.split("&")) {
+            if (parameter.startsWith("bibkeys=")) {
+                return Arrays.stream(URLDecoder.decode(parameter.substring(8), StandardCharsets.UTF_8).split(","))
+                        .map(key -> key.substring("ISBN:".length()))
+                        .toList();
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    private static String randomIsbn(int length) {
+        StringBuilder isbn = new StringBuilder(length);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < length; i++) {
+            isbn.append(random.nextInt(10));
+        }
+        return isbn.toString();
+    }
+}
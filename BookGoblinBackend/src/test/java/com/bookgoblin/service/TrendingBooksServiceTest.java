@@ -0,0 +1,157 @@
+package com.bookgoblin.service;
+
+import com.bookgoblin.model.dto.response.BookResponse;
+import com.bookgoblin.model.entity.Book;
+import com.bookgoblin.repository.BookRepository;
+import com.bookgoblin.repository.UserBookRepository;
+import com.bookgoblin.repository.projection.BookPopularity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The snapshot lifecycle: what a starting node loads from disk, what a refresh swaps in, and what it
+ * leaves behind for the next start. OpenLibrary and the repositories are mocked.
+ */
+class TrendingBooksServiceTest {
+
+    private final OpenLibraryService openLibraryService = mock(OpenLibraryService.class);
+    private final UserBookRepository userBookRepository = mock(UserBookRepository.class);
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @TempDir
+    Path directory;
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("trending-books.json");
+        when(userBookRepository.findMostAddedSince(any(), any())).thenReturn(List.of());
+    }
+
+    @Test
+    void startsFromThePersistedSnapshot() throws IOException {
+        Instant computedAt = Instant.parse("2024-03-04T09:00:00Z");
+        objectMapper.writeValue(file.toFile(), new TrendingBooksService.TrendingSnapshot(
+                List.of(book("Saved")), List.of(book("Saved")), computedAt));
+
+        TrendingBooksService service = service();
+        service.loadSnapshot();
+
+        assertThat(titles(service.getTrendingBooks())).containsExactly("Saved");
+    }
+
+    @Test
+    void anUnreadableSnapshotIsIgnored() throws IOException {
+        Files.writeString(file, "{\"books\": [");
+
+        TrendingBooksService service = service();
+        service.loadSnapshot();
+
+        assertThat(service.getTrendingBooks()).isEmpty();
+    }
+
+    @Test
+    void refreshSwapsInANewSnapshotAndPersistsIt() {
+        when(openLibraryService.fetchSearch(anyString(), anyInt(), anyInt()))
+                .thenReturn(List.of(book("First")))
+                .thenReturn(List.of(book("Second one"), book("Second two")));
+        TrendingBooksService service = service();
+        service.refresh();
+        List<BookResponse> first = service.getTrendingBooks();
+
+        service.refresh();
+
+        assertThat(titles(service.getTrendingBooks())).containsExactly("Second one", "Second two");
+        // Readers still holding the previous list see it unchanged
+        assertThat(titles(first)).containsExactly("First");
+
+        TrendingBooksService restarted = service();
+        restarted.loadSnapshot();
+        assertThat(titles(restarted.getTrendingBooks())).containsExactly("Second one", "Second two");
+    }
+
+    @Test
+    void anUnreachableUpstreamReusesTheLastResultsWithFreshLocalCounts() {
+        when(openLibraryService.fetchSearch(anyString(), anyInt(), anyInt()))
+                .thenReturn(List.of(book("Upstream one"), book("Upstream two")))
+                .thenThrow(new IllegalStateException("OpenLibrary is down"));
+        TrendingBooksService service = service();
+        service.refresh();
+
+        Book local = Book.builder().id(7L).title("Local").author("Author").build();
+        when(userBookRepository.findMostAddedSince(any(), any())).thenReturn(List.of(popularity(7L, 3L)));
+        when(bookRepository.findAllById(any())).thenReturn(List.of(local));
+        service.refresh();
+
+        // Local adds outweigh the top upstream rank
+        assertThat(titles(service.getTrendingBooks())).containsExactly("Local", "Upstream one", "Upstream two");
+    }
+
+    @Test
+    void aRefreshWithNothingToShowKeepsTheCurrentSnapshot() throws IOException {
+        objectMapper.writeValue(file.toFile(), new TrendingBooksService.TrendingSnapshot(
+                List.of(book("Saved")), List.of(), Instant.now()));
+        TrendingBooksService service = service();
+        service.loadSnapshot();
+        String persisted = Files.readString(file);
+
+        when(openLibraryService.fetchSearch(anyString(), anyInt(), anyInt())).thenReturn(List.of());
+        service.refresh();
+
+        assertThat(titles(service.getTrendingBooks())).containsExactly("Saved");
+        assertThat(Files.readString(file)).isEqualTo(persisted);
+    }
+
+    private TrendingBooksService service() {
+        TrendingBooksService service = new TrendingBooksService(openLibraryService, userBookRepository,
+                bookRepository, objectMapper, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "size", 12);
+        ReflectionTestUtils.setField(service, "upstreamQuery", "fantasy");
+        ReflectionTestUtils.setField(service, "upstreamWeight", 1.0);
+        ReflectionTestUtils.setField(service, "localWindowDays", 7);
+        ReflectionTestUtils.setField(service, "localWeight", 1.5);
+        ReflectionTestUtils.setField(service, "snapshotFile", file.toString());
+        return service;
+    }
+
+    private static List<String> titles(List<BookResponse> books) {
+        return books.stream().map(BookResponse::getTitle).toList();
+    }
+
+    private static BookResponse book(String title) {
+        return BookResponse.builder().title(title).author("Author").build();
+    }
+
+    private static BookPopularity popularity(Long bookId, Long adds) {
+        return new BookPopularity() {
+            @Override
+            public Long getBookId() {
+                return bookId;
+            }
+
+            @Override
+            public Long getAdds() {
+                return adds;
+            }
+        };
+    }
+}
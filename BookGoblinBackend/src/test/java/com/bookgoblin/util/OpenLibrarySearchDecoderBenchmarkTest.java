@@ -0,0 +1,137 @@
+package com.bookgoblin.util;
+
+import com.bookgoblin.model.dto.response.BookResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares decoding a /search.json page the way searchBooks used to (bind the whole body into
+ * Map&lt;String,Object&gt; and cast the wanted fields out) with {@link OpenLibrarySearchDecoder}. The page
+ * mimics a real one: 100 docs carrying the long arrays OpenLibrary returns and we never read.
+ * Throughput and bytes allocated per page are logged; the assertions pin that both paths give the same
+ * books and that streaming allocates well under the tree.
+ */
+@Slf4j
+class OpenLibrarySearchDecoderBenchmarkTest {
+
+    private static final int DOCS = 100;
+    private static final int WARM_UP = 200;
+    private static final int PAGES = 1000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final OpenLibrarySearchDecoder decoder = new OpenLibrarySearchDecoder(objectMapper);
+
+    @Test
+    void streamingDecodeAllocatesLessThanTheMapTree() throws IOException {
+        byte[] page = searchPage();
+        assertThat(decoder.decode(new ByteArrayInputStream(page))).isEqualTo(decodeTree(page)).hasSize(DOCS);
+
+        double[] tree = run("map tree", page, this::decodeTree);
+        double[] streaming = run("streaming", page, body -> decoder.decode(new ByteArrayInputStream(body)));
+        log.info("Search page of {} KB: streaming allocates {}% of the map tree",
+                page.length / 1024, Math.round(100 * streaming[1] / tree[1]));
+
+        assertThat(streaming[1]).isLessThan(tree[1] / 2);
+    }
+
+    // Returns {pages per second, bytes allocated per page} on this thread
+    private double[] run(String name, byte[] page, Decode decode) throws IOException {
+        for (int i = 0; i < WARM_UP; i++) {
+            decode.apply(page);
+        }
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        int books = 0;
+        for (int i = 0; i < PAGES; i++) {
+            books += decode.apply(page).size();
+        }
+        long elapsed = System.nanoTime() - start;
+        double bytesPerPage = (double) (threads.getCurrentThreadAllocatedBytes() - allocatedBefore) / PAGES;
+        double perSecond = PAGES / (elapsed / 1e9);
+        log.info("{}: {} pages/s, {} KB allocated per page",
+                name, Math.round(perSecond), Math.round(bytesPerPage / 1024));
+        assertThat(books).isEqualTo(PAGES * DOCS);
+        return new double[]{perSecond, bytesPerPage};
+    }
+
+    // The mapping searchBooks used before the streaming decoder
+    @SuppressWarnings("unchecked")
+    private List<BookResponse> decodeTree(byte[] body) throws IOException {
+        Map<String, Object> response = objectMapper.readValue(body, Map.class);
+        List<BookResponse> books = new ArrayList<>();
+        for (Map<String, Object> doc : (List<Map<String, Object>>) response.get("docs")) {
+            books.add(BookResponse.builder()
+                    .title((String) doc.get("title"))
+                    .author(doc.get("author_name") != null ?
+                            ((List<String>) doc.get("author_name")).get(0) : "Unknown Author")
+                    .genre(doc.get("subject") != null ?
+                            ((List<String>) doc.get("subject")).get(0) : "General")
+                    .publishedYear((Integer) doc.get("first_publish_year"))
+                    .pages((Integer) doc.get("number_of_pages_median"))
+                    .coverId(doc.get("cover_i") != null ? doc.get("cover_i").toString() : null)
+                    .isbn(doc.get("isbn") != null ? ((List<String>) doc.get("isbn")).get(0) : null)
+                    .rating(doc.get("ratings_average") != null ? (Double) doc.get("ratings_average") : 0.0)
+                    .ratingCount(doc.get("ratings_count") != null ? (Integer) doc.get("ratings_count") : 0)
+                    .language(doc.get("language") != null ?
+                            ((List<String>) doc.get("language")).get(0) : "en")
+                    .availableOnline(doc.get("ia") != null && !((List<String>) doc.get("ia")).isEmpty())
+                    .openLibraryId((String) doc.get("key"))
+                    .build());
+        }
+        return books;
+    }
+
+    private static byte[] searchPage() {
+        String docs = IntStream.range(0, DOCS).mapToObj(i -> "{" +
+                        "\"key\":\"/works/OL" + i + "W\"," +
+                        "\"type\":\"work\"," +
+                        "\"title\":\"Benchmark Book " + i + "\"," +
+                        "\"author_name\":[\"Author " + i + "\",\"Co Author\"]," +
+                        "\"author_key\":" + strings("OL", "A", 5) + "," +
+                        "\"subject\":" + strings("Subject ", "", 40) + "," +
+                        "\"isbn\":" + strings("97800000", "", 30) + "," +
+                        "\"language\":[\"eng\",\"fre\"]," +
+                        "\"first_publish_year\":" + (1950 + i) + "," +
+                        "\"number_of_pages_median\":" + (100 + i) + "," +
+                        "\"cover_i\":" + (8_000_000 + i) + "," +
+                        "\"ratings_average\":" + (3.25 + i % 3 * 0.5) + "," +
+                        "\"ratings_count\":" + i * 7 + "," +
+                        "\"ia\":" + strings("benchmarkbook", "", 3) + "," +
+                        "\"edition_key\":" + strings("OL", "M", 60) + "," +
+                        "\"publisher\":" + strings("Publisher ", "", 20) + "," +
+                        "\"publish_date\":" + strings("January ", ", 1999", 20) + "," +
+                        "\"publish_place\":" + strings("City ", "", 10) + "," +
+                        "\"id_goodreads\":" + strings("", "", 15) + "," +
+                        "\"first_sentence\":[\"" + "It was a long sentence. ".repeat(20) + "\"]" +
+                        "}")
+                .collect(Collectors.joining(","));
+        return ("{\"start\":0,\"num_found\":" + DOCS + ",\"docs\":[" + docs + "],\"q\":\"benchmark\"}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String strings(String prefix, String suffix, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> "\"" + prefix + (1000 + i) + suffix + "\"")
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    @FunctionalInterface
+    private interface Decode {
+        List<BookResponse> apply(byte[] body) throws IOException;
+    }
+}